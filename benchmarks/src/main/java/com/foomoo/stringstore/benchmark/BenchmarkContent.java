@@ -0,0 +1,36 @@
+package com.foomoo.stringstore.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates string content for benchmarks. The content is text in the style of ABC notation, so that it compresses
+ * and hashes like the strings typically stored rather than like random bytes or a repeated character.
+ */
+public final class BenchmarkContent {
+
+    private static final String[] TOKENS = {
+            "X:1\n", "T:Reel\n", "M:4/4\n", "L:1/8\n", "K:D\n", "|:", ":|", "|", " ",
+            "d2", "fd", "AF", "DF", "A2", "Bc", "dB", "AG", "FA", "de", "fg", "af", "ge", "c2", "e2", "\n"
+    };
+
+    private BenchmarkContent() {
+    }
+
+    /**
+     * Generate content of the given length. The same seed always generates the same content.
+     *
+     * @param length The length of the content in characters.
+     * @param seed   The seed selecting the content.
+     * @return The generated content.
+     */
+    public static String of(final int length, final long seed) {
+        final Random random = new Random(seed);
+        final StringBuilder content = new StringBuilder(length + 8);
+        while (content.length() < length) {
+            content.append(TOKENS[random.nextInt(TOKENS.length)]);
+        }
+        content.setLength(length);
+        return content.toString();
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.foomoo.stringstore.benchmark;
+
+import com.foomoo.stringstore.service.AddStringResult;
+import com.foomoo.stringstore.service.MemoryStringsService;
+import com.foomoo.stringstore.service.StringNotFoundException;
+import com.foomoo.stringstore.service.StringsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of adding and retrieving strings through the {@link StringsService} of the in-memory provider, covering
+ * hashing, duplicate detection and request recording without a database.
+ * <p>
+ * The store keeps every string and request added, so the add benchmarks run a fixed number of operations per
+ * iteration rather than running for a fixed time, and report the time taken by each batch of {@link #BATCH_SIZE}
+ * operations. Each fork starts with an empty store.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class MemoryStringsServiceBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String USER = "benchmark";
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final StringsService stringsService = new MemoryStringsService();
+
+    private String existingContent;
+    private UUID existingId;
+
+    private String[] newContents;
+    private int nextNewContent;
+    private long nextSeed;
+
+    @Setup
+    public void setUp() {
+        existingContent = BenchmarkContent.of(size, -1);
+        existingId = stringsService.addString(USER, existingContent).getStringId();
+    }
+
+    /**
+     * Generate distinct content for the new strings added in the next iteration, so that generating it is not measured.
+     */
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        newContents = new String[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            newContents[i] = BenchmarkContent.of(size, nextSeed++);
+        }
+        nextNewContent = 0;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 10, batchSize = BATCH_SIZE)
+    public AddStringResult addNewString() {
+        return stringsService.addString(USER, newContents[nextNewContent++]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 10, batchSize = BATCH_SIZE)
+    public AddStringResult addExistingString() {
+        return stringsService.addString(USER, existingContent);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public String getStringContent() throws StringNotFoundException {
+        return stringsService.getStringContent(existingId);
+    }
+
+}
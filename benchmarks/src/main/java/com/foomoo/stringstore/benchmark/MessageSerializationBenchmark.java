@@ -0,0 +1,123 @@
+package com.foomoo.stringstore.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.foomoo.stringstore.message.AddStringBatchItemMessage;
+import com.foomoo.stringstore.message.AddStringResultMessage;
+import com.foomoo.stringstore.message.StatusSummaryMessage;
+import com.foomoo.stringstore.message.StringContentMessage;
+import com.foomoo.stringstore.message.StringSummaryMessage;
+import com.foomoo.stringstore.message.StringSummaryPageMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the Jackson serialization of the web service messages, written as they are in responses and read as
+ * they are from request entities. Content messages are measured across content sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectWriter writer = objectMapper.writer();
+    private final ObjectReader contentReader = objectMapper.reader(StringContentMessage.class);
+    private final ObjectReader batchReader = objectMapper.reader(new TypeReference<List<AddStringBatchItemMessage>>() {
+    });
+
+    private StringSummaryMessage summary;
+    private StringSummaryPageMessage summaryPage;
+    private AddStringResultMessage addStringResult;
+    private StatusSummaryMessage statusSummary;
+    private StringContentMessage content;
+    private byte[] contentJson;
+    private byte[] batchJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        final long epoch = System.currentTimeMillis();
+        summary = new StringSummaryMessage(UUID.randomUUID(), epoch, size);
+
+        final List<StringSummaryMessage> summaries = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            summaries.add(new StringSummaryMessage(UUID.randomUUID(), epoch - i, size));
+        }
+        summaryPage = new StringSummaryPageMessage(summaries, UUID.randomUUID().toString());
+
+        addStringResult = new AddStringResultMessage(UUID.randomUUID(), UUID.randomUUID(), "benchmark", false);
+        statusSummary = new StatusSummaryMessage(1000000, 5000000, 5.0, 1L << 30);
+
+        content = new StringContentMessage(UUID.randomUUID(), BenchmarkContent.of(size, size));
+        contentJson = writer.writeValueAsBytes(content);
+
+        final List<AddStringBatchItemMessage> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new AddStringBatchItemMessage("benchmark", BenchmarkContent.of(size, i)));
+        }
+        batchJson = writer.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public byte[] writeStringSummary() throws JsonProcessingException {
+        return writer.writeValueAsBytes(summary);
+    }
+
+    @Benchmark
+    public byte[] writeStringSummaryPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(summaryPage);
+    }
+
+    @Benchmark
+    public byte[] writeAddStringResult() throws JsonProcessingException {
+        return writer.writeValueAsBytes(addStringResult);
+    }
+
+    @Benchmark
+    public byte[] writeStatusSummary() throws JsonProcessingException {
+        return writer.writeValueAsBytes(statusSummary);
+    }
+
+    @Benchmark
+    public byte[] writeStringContent() throws JsonProcessingException {
+        return writer.writeValueAsBytes(content);
+    }
+
+    @Benchmark
+    public StringContentMessage readStringContent() throws IOException {
+        return contentReader.readValue(contentJson);
+    }
+
+    @Benchmark
+    public List<AddStringBatchItemMessage> readAddStringBatch() throws IOException {
+        return batchReader.readValue(batchJson);
+    }
+
+}
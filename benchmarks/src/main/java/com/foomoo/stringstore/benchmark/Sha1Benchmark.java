@@ -0,0 +1,72 @@
+package com.foomoo.stringstore.benchmark;
+
+import com.foomoo.stringstore.service.ContentHasher;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the SHA1 hashing of string content used to detect duplicate strings, from the string as added and from
+ * its UTF-8 bytes as received, comparing {@link DigestUtils} with the {@link ContentHasher}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Sha1Benchmark {
+
+    @Param({"64", "1024", "65536", "1048576"})
+    private int size;
+
+    private final ContentHasher sha1Hasher = ContentHasher.forName(ContentHasher.SHA1);
+    private final ContentHasher sha256Hasher = ContentHasher.forName(ContentHasher.SHA256);
+
+    private String content;
+    private byte[] contentBytes;
+
+    @Setup
+    public void setUp() {
+        content = BenchmarkContent.of(size, size);
+        contentBytes = content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String sha1HexString() {
+        return DigestUtils.sha1Hex(content);
+    }
+
+    @Benchmark
+    public String sha1HexBytes() {
+        return DigestUtils.sha1Hex(contentBytes);
+    }
+
+    @Benchmark
+    public byte[] contentHasherSha1() {
+        return sha1Hasher.hash(content);
+    }
+
+    @Benchmark
+    public String contentHasherSha1Hex() {
+        return sha1Hasher.hashHex(content);
+    }
+
+    @Benchmark
+    public byte[] contentHasherSha256() {
+        return sha256Hasher.hash(content);
+    }
+
+}
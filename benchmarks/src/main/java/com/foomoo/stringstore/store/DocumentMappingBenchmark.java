@@ -0,0 +1,78 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.benchmark.BenchmarkContent;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversions between {@link DbString} and {@link DbRequest} objects and the documents written to and
+ * read from MongoDB, including encoding and decoding the content with the configured content codec. Lives in the store
+ * package to reach the package private {@link DbDocuments}, which needs no database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentMappingBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private DbString dbString;
+    private Document stringDocument;
+    private DbRequest dbRequest;
+    private Document requestDocument;
+
+    @Setup
+    public void setUp() {
+        final String content = BenchmarkContent.of(size, size);
+        dbString = new DbString(UUID.randomUUID(), "benchmark", size, System.currentTimeMillis(),
+                DigestUtils.sha1Hex(content), content);
+        stringDocument = DbDocuments.dbStringToDocument(dbString);
+
+        dbRequest = new DbRequest(UUID.randomUUID(), "benchmark", dbString.getId(), System.currentTimeMillis());
+        requestDocument = DbDocuments.dbRequestToDocument(dbRequest);
+    }
+
+    @Benchmark
+    public Document dbStringToDocument() {
+        return DbDocuments.dbStringToDocument(dbString);
+    }
+
+    @Benchmark
+    public DbString documentToDbString() {
+        return DbDocuments.documentToDbString(stringDocument);
+    }
+
+    @Benchmark
+    public DbStringSummary documentToDbStringSummary() {
+        return DbDocuments.documentToDbStringSummary(stringDocument);
+    }
+
+    @Benchmark
+    public Document dbRequestToDocument() {
+        return DbDocuments.dbRequestToDocument(dbRequest);
+    }
+
+    @Benchmark
+    public DbRequest documentToDbRequest() {
+        return DbDocuments.documentToDbRequest(requestDocument);
+    }
+
+}
@@ -1,26 +1,155 @@
 package com.foomoo.stringstore.app;
 
 import com.foomoo.stringstore.jersey.StringStoreResourceConfig;
+import com.foomoo.stringstore.service.ServiceConfiguration;
+import com.foomoo.stringstore.store.RequestLog;
 import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.server.NetworkListener;
+import org.glassfish.grizzly.http.server.accesslog.AccessLogBuilder;
+import org.glassfish.grizzly.http.server.accesslog.ApacheLogFormat;
+import org.glassfish.grizzly.nio.transport.TCPNIOTransport;
+import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
 import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
 import org.glassfish.jersey.server.ResourceConfig;
 
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
- * String Store service running in a Grizzly HTTP Server.
+ * String Store service running in a Grizzly HTTP Server, configured by the {@link AppConfiguration}. When the JVM
+ * shuts down, requests in progress are given a grace period to complete before the request log is flushed.
  */
 public class App {
 
+    private static final Logger LOGGER = Logger.getLogger(App.class.getName());
+
     public static void main(final String[] args) throws IOException {
 
-        final URI baseUri = UriBuilder.fromUri("http://localhost/").port(4982).build();
+        final URI baseUri = UriBuilder.fromUri("http://localhost/").host(AppConfiguration.HOST).port(AppConfiguration.PORT).build();
         final ResourceConfig resourceConfig = new StringStoreResourceConfig();
-        final HttpServer httpServer = GrizzlyHttpServerFactory.createHttpServer(baseUri, resourceConfig);
+        if (AppConfiguration.MAX_REQUEST_SIZE > 0) {
+            resourceConfig.register(new RequestSizeLimitFilter(AppConfiguration.MAX_REQUEST_SIZE));
+        }
+        final HttpServer httpServer = GrizzlyHttpServerFactory.createHttpServer(baseUri, resourceConfig, false);
+
+        ExecutorService workerExecutor = null;
+        for (final NetworkListener listener : httpServer.getListeners()) {
+            workerExecutor = configureListener(listener);
+        }
+        if (AppConfiguration.ACCESS_LOG != null) {
+            new AccessLogBuilder(AppConfiguration.ACCESS_LOG)
+                    .format(ApacheLogFormat.COMMON)
+                    .instrument(httpServer.getServerConfiguration());
+        }
+
+        final ExecutorService shutdownWorkerExecutor = workerExecutor;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown(httpServer, shutdownWorkerExecutor), "server-shutdown"));
 
         httpServer.start();
+        LOGGER.info(String.format("String Store listening on %s with %s workers", baseUri, AppConfiguration.WORKER_MODE));
+    }
+
+    /**
+     * Apply the configured transport, worker, keep-alive and header size settings to the given listener.
+     *
+     * @param listener The listener.
+     * @return The executor running requests on virtual threads, or null if requests run on the worker thread pool.
+     * @throws IllegalStateException If the worker mode is unknown, or virtual threads are not available.
+     */
+    private static ExecutorService configureListener(final NetworkListener listener) {
+        final TCPNIOTransport transport = listener.getTransport();
+        if (AppConfiguration.SELECTOR_THREADS != null) {
+            transport.setSelectorRunnersCount(AppConfiguration.SELECTOR_THREADS);
+        }
+
+        ExecutorService workerExecutor = null;
+        switch (AppConfiguration.WORKER_MODE) {
+            case AppConfiguration.POOL_WORKER_MODE:
+                final ThreadPoolConfig poolConfig = transport.getWorkerThreadPoolConfig() != null
+                        ? transport.getWorkerThreadPoolConfig()
+                        : ThreadPoolConfig.defaultConfig();
+                if (AppConfiguration.WORKER_THREADS_CORE != null) {
+                    poolConfig.setCorePoolSize(AppConfiguration.WORKER_THREADS_CORE);
+                }
+                if (AppConfiguration.WORKER_THREADS_MAX != null) {
+                    poolConfig.setMaxPoolSize(AppConfiguration.WORKER_THREADS_MAX);
+                }
+                if (AppConfiguration.WORKER_QUEUE_LIMIT != null) {
+                    poolConfig.setQueueLimit(AppConfiguration.WORKER_QUEUE_LIMIT);
+                }
+                transport.setWorkerThreadPoolConfig(poolConfig);
+                break;
+            case AppConfiguration.VIRTUAL_WORKER_MODE:
+                workerExecutor = newVirtualThreadExecutor();
+                transport.setWorkerThreadPool(workerExecutor);
+                break;
+            default:
+                throw new IllegalStateException("Unknown worker mode: " + AppConfiguration.WORKER_MODE);
+        }
+
+        if (AppConfiguration.KEEP_ALIVE_IDLE_TIMEOUT_SECONDS != null) {
+            listener.getKeepAlive().setIdleTimeoutInSeconds(AppConfiguration.KEEP_ALIVE_IDLE_TIMEOUT_SECONDS);
+        }
+        if (AppConfiguration.KEEP_ALIVE_MAX_REQUESTS != null) {
+            listener.getKeepAlive().setMaxRequestsCount(AppConfiguration.KEEP_ALIVE_MAX_REQUESTS);
+        }
+        if (AppConfiguration.MAX_HEADER_SIZE != null) {
+            listener.setMaxHttpHeaderSize(AppConfiguration.MAX_HEADER_SIZE);
+        }
+        return workerExecutor;
+    }
+
+    /**
+     * Create an executor running each task on a new virtual thread. Virtual threads are created reflectively so that
+     * the service still builds for and runs on Java 8 when they are not used.
+     *
+     * @return The executor.
+     * @throws IllegalStateException If virtual threads are not available, before Java 21.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Object builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(Thread.class.getMethod("ofVirtual").invoke(null), "grizzly-virtual-", 0L);
+            final ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later", e);
+        }
+    }
+
+    /**
+     * Shut down the server, allowing requests in progress up to the configured grace period to complete, and then
+     * flush the request log.
+     *
+     * @param httpServer     The server.
+     * @param workerExecutor The executor running requests on virtual threads, or null if not used.
+     */
+    private static void shutdown(final HttpServer httpServer, final ExecutorService workerExecutor) {
+        try {
+            httpServer.shutdown(AppConfiguration.SHUTDOWN_GRACE_PERIOD_SECONDS, TimeUnit.SECONDS).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Cannot shut down the server gracefully", e.getCause());
+        }
+
+        if (workerExecutor != null) {
+            workerExecutor.shutdown();
+        }
+        if ("mongo".equals(ServiceConfiguration.PROVIDER)) {
+            RequestLog.instance.close();
+        }
     }
 
 }
@@ -0,0 +1,116 @@
+package com.foomoo.stringstore.app;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.commons.configuration2.builder.fluent.Configurations;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Configuration of the Grizzly HTTP Server running the service. Tuning parameters which are not configured are left
+ * at Grizzly's defaults.
+ */
+public class AppConfiguration {
+
+    /**
+     * The value of {@link #WORKER_MODE} running requests on Grizzly's pool of worker threads.
+     */
+    public static final String POOL_WORKER_MODE = "pool";
+
+    /**
+     * The value of {@link #WORKER_MODE} running each request on its own virtual thread, which needs Java 21 or later.
+     * Experimental.
+     */
+    public static final String VIRTUAL_WORKER_MODE = "virtual";
+
+    /**
+     * The address to bind to, such as 0.0.0.0 for all interfaces, and the port to listen on.
+     */
+    public static final String HOST;
+    public static final int PORT;
+
+    /**
+     * The number of selector threads accepting connections and reading requests, or null for one per processor.
+     */
+    public static final Integer SELECTOR_THREADS;
+
+    /**
+     * How requests are run, either "pool" or "virtual".
+     */
+    public static final String WORKER_MODE;
+
+    /**
+     * The core and maximum sizes of the worker thread pool and the number of requests queued for it, when running
+     * requests on the pool.
+     */
+    public static final Integer WORKER_THREADS_CORE;
+    public static final Integer WORKER_THREADS_MAX;
+    public static final Integer WORKER_QUEUE_LIMIT;
+
+    /**
+     * The number of seconds an idle keep-alive connection is held open and the number of requests served on a
+     * connection, either of which may be -1 for no limit.
+     */
+    public static final Integer KEEP_ALIVE_IDLE_TIMEOUT_SECONDS;
+    public static final Integer KEEP_ALIVE_MAX_REQUESTS;
+
+    /**
+     * The maximum number of bytes in the headers of a request.
+     */
+    public static final Integer MAX_HEADER_SIZE;
+
+    /**
+     * The maximum number of bytes in the entity of a request, or 0 for no limit.
+     */
+    public static final long MAX_REQUEST_SIZE;
+
+    /**
+     * The number of seconds for which requests in progress are allowed to complete when the server shuts down.
+     */
+    public static final long SHUTDOWN_GRACE_PERIOD_SECONDS;
+
+    /**
+     * The file to which requests are logged in Common Log Format, or null for no access log.
+     */
+    public static final String ACCESS_LOG;
+
+    private static final String PROPERTIES_FILE_PATH_SYSTEM_PROPERTY = "string.store.server.properties";
+    private static final String DEFAULT_PROPERTIES_FILE_PATH = "/opt/stringstore/conf/server.properties";
+
+    /**
+     * Initialise this class based on the properties file found at path DEFAULT_PROPERTIES_FILE_PATH.
+     * If the file cannot be found or it is missing any configuration items then default values will be used.
+     */
+    static {
+        try {
+            final Configurations configurations = new Configurations();
+
+            final Path configFilePath = Paths.get(System.getProperty(PROPERTIES_FILE_PATH_SYSTEM_PROPERTY, DEFAULT_PROPERTIES_FILE_PATH));
+            final PropertiesConfiguration configuration;
+            if (Files.isReadable(configFilePath)) {
+                configuration = configurations.properties(configFilePath.toFile());
+            } else {
+                configuration = new PropertiesConfiguration();
+            }
+
+            HOST = configuration.getString("host", "localhost");
+            PORT = configuration.getInt("port", 4982);
+            SELECTOR_THREADS = configuration.getInteger("selector.threads", null);
+            WORKER_MODE = configuration.getString("worker.mode", POOL_WORKER_MODE);
+            WORKER_THREADS_CORE = configuration.getInteger("worker.threads.core", null);
+            WORKER_THREADS_MAX = configuration.getInteger("worker.threads.max", null);
+            WORKER_QUEUE_LIMIT = configuration.getInteger("worker.queue.limit", null);
+            KEEP_ALIVE_IDLE_TIMEOUT_SECONDS = configuration.getInteger("keep.alive.idle.timeout.seconds", null);
+            KEEP_ALIVE_MAX_REQUESTS = configuration.getInteger("keep.alive.max.requests", null);
+            MAX_HEADER_SIZE = configuration.getInteger("max.header.size", null);
+            MAX_REQUEST_SIZE = configuration.getLong("max.request.size", 0);
+            SHUTDOWN_GRACE_PERIOD_SECONDS = configuration.getLong("shutdown.grace.period.seconds", 30);
+            ACCESS_LOG = configuration.getString("access.log", null);
+        } catch (ConfigurationException configurationException) {
+            throw new ExceptionInInitializerError(configurationException);
+        }
+    }
+
+}
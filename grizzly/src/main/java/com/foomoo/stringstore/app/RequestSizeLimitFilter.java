@@ -0,0 +1,98 @@
+package com.foomoo.stringstore.app;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.Response;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Rejects requests whose entity is larger than a maximum size with a 413 Request Entity Too Large response. Requests
+ * declaring a larger Content-Length are rejected before their entity is read, and the entity of other requests, such
+ * as those with chunked transfer coding, is rejected as soon as more than the maximum size has been read.
+ */
+@PreMatching
+public class RequestSizeLimitFilter implements ContainerRequestFilter {
+
+    private final long maxSize;
+
+    /**
+     * Construct a RequestSizeLimitFilter.
+     *
+     * @param maxSize The maximum number of bytes in the entity of a request.
+     */
+    public RequestSizeLimitFilter(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void filter(final ContainerRequestContext requestContext) {
+        if (requestContext.getLength() > maxSize) {
+            throw tooLarge();
+        }
+        requestContext.setEntityStream(new LimitedInputStream(requestContext.getEntityStream()));
+    }
+
+    /**
+     * Create the exception rejecting a request whose entity is too large.
+     *
+     * @return The exception.
+     */
+    private WebApplicationException tooLarge() {
+        return new WebApplicationException(String.format("Request entity larger than %d bytes", maxSize),
+                Response.Status.REQUEST_ENTITY_TOO_LARGE);
+    }
+
+    /**
+     * Stream of a request entity which fails once more than the maximum size has been read.
+     */
+    private final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining = maxSize;
+
+        private LimitedInputStream(final InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            final int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(final long read) {
+            remaining -= read;
+            if (remaining < 0) {
+                throw tooLarge();
+            }
+        }
+    }
+
+}
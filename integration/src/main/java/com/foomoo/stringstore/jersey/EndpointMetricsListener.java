@@ -0,0 +1,74 @@
+package com.foomoo.stringstore.jersey;
+
+import io.prometheus.client.Histogram;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import javax.ws.rs.ext.Provider;
+import java.lang.reflect.Method;
+
+/**
+ * Records the latency of each request in a Prometheus histogram registered with the default registry, labelled by the
+ * resource method handling the request and the class of the response status. Requests matching no resource method are
+ * labelled as unmatched.
+ * <p>
+ * The latency runs from the start of request processing until the response has been written, so includes the time
+ * for which asynchronous requests are suspended and the time to stream the response entity.
+ */
+@Provider
+public class EndpointMetricsListener implements ApplicationEventListener {
+
+    private static final Histogram REQUEST_SECONDS = Histogram.build()
+            .name("stringstore_http_request_seconds")
+            .help("Latency of HTTP requests in seconds.")
+            .labelNames("endpoint", "status")
+            .buckets(0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10)
+            .register();
+
+    @Override
+    public void onEvent(final ApplicationEvent event) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(final RequestEvent requestEvent) {
+        final long startNanos = System.nanoTime();
+
+        return event -> {
+            if (event.getType() == RequestEvent.Type.FINISHED) {
+                REQUEST_SECONDS.labels(endpoint(event), status(event))
+                        .observe((System.nanoTime() - startNanos) / 1e9);
+            }
+        };
+    }
+
+    /**
+     * Get the name of the resource method which handled the request, as the simple name of its class and the method
+     * name.
+     *
+     * @param event The request event.
+     * @return The name of the resource method, or unmatched if the request matched no resource method.
+     */
+    private static String endpoint(final RequestEvent event) {
+        final ResourceMethod resourceMethod = event.getUriInfo().getMatchedResourceMethod();
+        if (resourceMethod == null) {
+            return "unmatched";
+        }
+        final Method method = resourceMethod.getInvocable().getHandlingMethod();
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    /**
+     * Get the class of the response status, such as 2xx.
+     *
+     * @param event The request event.
+     * @return The status class, or 5xx if no response was produced.
+     */
+    private static String status(final RequestEvent event) {
+        final int status = event.getContainerResponse() == null ? 500 : event.getContainerResponse().getStatus();
+        return (status / 100) + "xx";
+    }
+
+}
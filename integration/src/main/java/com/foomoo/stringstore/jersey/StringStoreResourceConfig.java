@@ -1,11 +1,30 @@
 package com.foomoo.stringstore.jersey;
 
+import com.foomoo.stringstore.mapper.InvalidContentExceptionMapper;
+import com.foomoo.stringstore.mapper.InvalidPageTokenExceptionMapper;
 import com.foomoo.stringstore.mapper.StringNotFoundExceptionMapper;
 import com.foomoo.stringstore.mapper.MongoTimeoutExceptionMapper;
+import com.foomoo.stringstore.message.BinaryMessageFeature;
+import com.foomoo.stringstore.resource.AsyncRequestsResource;
+import com.foomoo.stringstore.resource.AsyncStatusResource;
+import com.foomoo.stringstore.resource.AsyncStringsResource;
+import com.foomoo.stringstore.resource.MetricsResource;
+import com.foomoo.stringstore.resource.SlowOperationsResource;
 import com.foomoo.stringstore.resource.StringsResource;
 import com.foomoo.stringstore.resource.RequestsResource;
 import com.foomoo.stringstore.resource.StatusResource;
+import com.foomoo.stringstore.service.AsyncStatusService;
+import com.foomoo.stringstore.service.AsyncStringsService;
+import com.foomoo.stringstore.service.MemoryAsyncStatusService;
+import com.foomoo.stringstore.service.MemoryAsyncStringsService;
+import com.foomoo.stringstore.service.MemoryStatusService;
+import com.foomoo.stringstore.service.MemoryStringsService;
+import com.foomoo.stringstore.service.ServiceConfiguration;
+import com.foomoo.stringstore.service.SlowOperationRecorder;
+import com.foomoo.stringstore.service.SlowOperationsService;
 import com.foomoo.stringstore.service.StringsService;
+import com.foomoo.stringstore.service.MongoAsyncStatusService;
+import com.foomoo.stringstore.service.MongoAsyncStringsService;
 import com.foomoo.stringstore.service.MongoStringsService;
 import com.foomoo.stringstore.service.MongoStatusService;
 import com.foomoo.stringstore.service.StatusService;
@@ -19,7 +38,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
- * The String Store Jersey ResourceConfig using MongoDB.
+ * The String Store Jersey ResourceConfig. The service provider, MongoDB or in-memory, is selected by the provider
+ * property of the {@link ServiceConfiguration}.
  */
 @ApplicationPath("/")
 public class StringStoreResourceConfig extends ResourceConfig {
@@ -29,19 +49,43 @@ public class StringStoreResourceConfig extends ResourceConfig {
         final Set<Class<?>> classes = new HashSet<>();
         classes.add(MultiPartFeature.class);
         classes.add(JacksonFeature.class);
+        classes.add(BinaryMessageFeature.class);
         classes.add(StringNotFoundExceptionMapper.class);
+        classes.add(InvalidPageTokenExceptionMapper.class);
+        classes.add(InvalidContentExceptionMapper.class);
         classes.add(MongoTimeoutExceptionMapper.class);
         classes.add(StatusResource.class);
         classes.add(StringsResource.class);
         classes.add(RequestsResource.class);
+        classes.add(AsyncStatusResource.class);
+        classes.add(AsyncStringsResource.class);
+        classes.add(AsyncRequestsResource.class);
+        classes.add(MetricsResource.class);
+        classes.add(SlowOperationsResource.class);
+        classes.add(EndpointMetricsListener.class);
 
         registerClasses(classes);
 
         register(new AbstractBinder() {
             @Override
             protected void configure() {
-                bind(MongoStatusService.class).to(StatusService.class);
-                bind(MongoStringsService.class).to(StringsService.class);
+                bind(SlowOperationRecorder.instance).to(SlowOperationsService.class);
+                switch (ServiceConfiguration.PROVIDER) {
+                    case "mongo":
+                        bind(MongoStatusService.class).to(StatusService.class);
+                        bind(MongoStringsService.class).to(StringsService.class);
+                        bind(MongoAsyncStatusService.class).to(AsyncStatusService.class);
+                        bind(MongoAsyncStringsService.class).to(AsyncStringsService.class);
+                        break;
+                    case "memory":
+                        bind(MemoryStatusService.class).to(StatusService.class);
+                        bind(MemoryStringsService.class).to(StringsService.class);
+                        bind(MemoryAsyncStatusService.class).to(AsyncStatusService.class);
+                        bind(MemoryAsyncStringsService.class).to(AsyncStringsService.class);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown service provider: " + ServiceConfiguration.PROVIDER);
+                }
             }
         });
     }
@@ -0,0 +1,78 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A request captured in an access log in the Common or Combined Log Format, as written by Grizzly, Apache httpd, nginx
+ * and most proxies and load balancers.
+ */
+class AccessLogEntry {
+
+    private static final Pattern LINE_PATTERN =
+            Pattern.compile("^\\S+ \\S+ \\S+ \\[([^\\]]+)\\] \"(\\S+) (\\S+)(?: [^\"]*)?\" \\d{3} .*$");
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    private final long epochSecond;
+    private final String method;
+    private final String path;
+
+    /**
+     * Construct an AccessLogEntry.
+     *
+     * @param epochSecond The time of the request, in seconds since the epoch.
+     * @param method      The HTTP method.
+     * @param path        The path requested, without any query.
+     */
+    AccessLogEntry(final long epochSecond, final String method, final String path) {
+        this.epochSecond = epochSecond;
+        this.method = method;
+        this.path = path;
+    }
+
+    /**
+     * Parse an AccessLogEntry from a line of an access log.
+     *
+     * @param line The line.
+     * @return The parsed entry.
+     * @throws IllegalArgumentException If the line cannot be parsed.
+     */
+    static AccessLogEntry parse(final String line) {
+        final Matcher matcher = LINE_PATTERN.matcher(line);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Cannot parse access log line: " + line);
+        }
+
+        final long epochSecond;
+        try {
+            epochSecond = OffsetDateTime.parse(matcher.group(1), TIMESTAMP_FORMAT).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cannot parse access log timestamp: " + matcher.group(1), e);
+        }
+
+        final String target = matcher.group(3);
+        final int queryStart = target.indexOf('?');
+        final String path = queryStart < 0 ? target : target.substring(0, queryStart);
+
+        return new AccessLogEntry(epochSecond, matcher.group(2), path);
+    }
+
+    long getEpochSecond() {
+        return epochSecond;
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+}
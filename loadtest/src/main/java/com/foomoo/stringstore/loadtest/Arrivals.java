@@ -0,0 +1,69 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the requests of a load test arrive at the target rate. Arrivals are open loop: each request is sent at its
+ * scheduled time whether or not earlier requests have completed, as requests from independent clients would be.
+ */
+public enum Arrivals {
+
+    /**
+     * Requests are evenly spaced.
+     */
+    CONSTANT("constant") {
+        @Override
+        long nextIntervalNanos(final double ratePerSecond, final Random random) {
+            return Math.round(TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        }
+    },
+
+    /**
+     * Requests arrive as a Poisson process, with exponentially distributed intervals between them, so that requests
+     * sometimes arrive in bursts.
+     */
+    POISSON("poisson") {
+        @Override
+        long nextIntervalNanos(final double ratePerSecond, final Random random) {
+            return Math.round(-Math.log(1 - random.nextDouble()) * TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        }
+    };
+
+    private final String name;
+
+    Arrivals(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the interval until the next request.
+     *
+     * @param ratePerSecond The target rate of requests per second.
+     * @param random        The source of randomness.
+     * @return The interval in nanoseconds.
+     */
+    abstract long nextIntervalNanos(double ratePerSecond, Random random);
+
+    /**
+     * Get the arrivals with the given name.
+     *
+     * @param name The name of the arrivals.
+     * @return The arrivals.
+     * @throws IllegalArgumentException If no arrivals have the given name.
+     */
+    public static Arrivals forName(final String name) {
+        for (final Arrivals arrivals : values()) {
+            if (arrivals.name.equals(name)) {
+                return arrivals;
+            }
+        }
+        throw new IllegalArgumentException("Unknown arrivals: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
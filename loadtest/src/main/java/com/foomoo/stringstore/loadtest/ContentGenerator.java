@@ -0,0 +1,53 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the content of the strings added by a load test. Content is taken from a block of random text at a random
+ * offset, so that generating it costs little more than copying, and starts with a prefix unique to the load test run so
+ * that each new string is new to the store, even one holding the strings of earlier runs. Content shorter than the
+ * prefix may not be unique.
+ */
+class ContentGenerator {
+
+    private static final String ALPHABET = "abcdefgABCDEFG|:/ 2\n";
+
+    private final String prefix;
+    private final AtomicLong counter = new AtomicLong();
+    private final String text;
+
+    /**
+     * Construct a ContentGenerator.
+     *
+     * @param maxSize The size of the largest content to be generated.
+     * @param random  The source of randomness for the text.
+     */
+    ContentGenerator(final int maxSize, final Random random) {
+        this.prefix = Long.toString(random.nextLong() & Long.MAX_VALUE, Character.MAX_RADIX) + ".";
+
+        final char[] chars = new char[2 * maxSize];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        this.text = new String(chars);
+    }
+
+    /**
+     * Generate content new to the store.
+     *
+     * @param size The size of the content, which is at most the maximum size.
+     * @return The content.
+     */
+    String newContent(final int size) {
+        final String unique = prefix + Long.toString(counter.getAndIncrement(), Character.MAX_RADIX) + "\n";
+        if (size <= unique.length()) {
+            return unique.substring(unique.length() - size);
+        }
+
+        final int offset = ThreadLocalRandom.current().nextInt(text.length() - size + 1);
+        return unique + text.substring(offset, offset + size - unique.length());
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.foomoo.stringstore.loadtest;
+
+import com.foomoo.stringstore.jersey.StringStoreResourceConfig;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+/**
+ * Runs the service in process in a Grizzly HTTP Server, so that a load test can be run on a single machine without a
+ * database. Unless service properties are given by the string.store.service.properties system property, the service
+ * uses the in-memory store.
+ */
+final class EmbeddedServer {
+
+    private static final String SERVICE_PROPERTIES_SYSTEM_PROPERTY = "string.store.service.properties";
+
+    private EmbeddedServer() {
+    }
+
+    /**
+     * Start the service.
+     *
+     * @param baseUri The base URI at which to serve the service.
+     * @return The started server.
+     * @throws IOException If the service properties cannot be written.
+     */
+    static HttpServer start(final URI baseUri) throws IOException {
+        if (System.getProperty(SERVICE_PROPERTIES_SYSTEM_PROPERTY) == null) {
+            final Path properties = Files.createTempFile("string-store-loadtest", ".properties");
+            properties.toFile().deleteOnExit();
+            Files.write(properties, Collections.singletonList("provider=memory"), StandardCharsets.UTF_8);
+            System.setProperty(SERVICE_PROPERTIES_SYSTEM_PROPERTY, properties.toString());
+        }
+
+        return GrizzlyHttpServerFactory.createHttpServer(baseUri, new StringStoreResourceConfig());
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * An endless schedule of requests at a target rate, with operations chosen from an {@link OperationMix} and the sizes
+ * of new strings from a {@link SizeDistribution}. The same seed always gives the same schedule.
+ */
+class GeneratedSchedule implements Iterator<ScheduledRequest> {
+
+    private final double ratePerSecond;
+    private final Arrivals arrivals;
+    private final OperationMix mix;
+    private final SizeDistribution sizes;
+    private final Random random;
+
+    private long nextNanos;
+
+    /**
+     * Construct a GeneratedSchedule.
+     *
+     * @param startNanos    The time of the first request, as given by {@link System#nanoTime()}.
+     * @param ratePerSecond The target rate of requests per second.
+     * @param arrivals      How requests arrive at the target rate.
+     * @param mix           The mix of operations.
+     * @param sizes         The distribution of the sizes of new strings.
+     * @param seed          The seed for choosing arrival times, operations and sizes.
+     */
+    GeneratedSchedule(final long startNanos, final double ratePerSecond, final Arrivals arrivals, final OperationMix mix,
+                      final SizeDistribution sizes, final long seed) {
+        this.nextNanos = startNanos;
+        this.ratePerSecond = ratePerSecond;
+        this.arrivals = arrivals;
+        this.mix = mix;
+        this.sizes = sizes;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return true;
+    }
+
+    @Override
+    public ScheduledRequest next() {
+        final Operation operation = mix.next(random);
+        final int size = operation == Operation.ADD_NEW ? sizes.next(random) : 0;
+        final ScheduledRequest request = new ScheduledRequest(nextNanos, operation, size, null);
+
+        nextNanos += arrivals.nextIntervalNanos(ratePerSecond, random);
+        return request;
+    }
+
+}
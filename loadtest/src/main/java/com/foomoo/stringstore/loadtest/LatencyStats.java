@@ -0,0 +1,124 @@
+package com.foomoo.stringstore.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts of the requests of a load test, recorded concurrently and reported as
+ * percentiles and throughput.
+ * <p>
+ * Response time is measured from the time at which a request was scheduled to be sent, so includes any time spent
+ * waiting for a connection when the service falls behind, as a client would see it. Service time is measured from the
+ * time the request was actually sent.
+ */
+class LatencyStats {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9", "p99.99"};
+
+    private final Map<Operation, Histogram> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Histogram serviceTimes = new ConcurrentHistogram(3);
+
+    LatencyStats() {
+        for (final Operation operation : Operation.values()) {
+            responseTimes.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Record a successful request.
+     *
+     * @param operation     The operation requested.
+     * @param responseNanos The response time in nanoseconds.
+     * @param serviceNanos  The service time in nanoseconds.
+     */
+    void record(final Operation operation, final long responseNanos, final long serviceNanos) {
+        responseTimes.get(operation).recordValue(responseNanos);
+        serviceTimes.recordValue(serviceNanos);
+    }
+
+    /**
+     * Record a request which failed or was not successful.
+     *
+     * @param operation The operation requested.
+     */
+    void recordError(final Operation operation) {
+        errors.get(operation).increment();
+    }
+
+    /**
+     * Report the throughput and response time percentiles in milliseconds of each operation, and of all operations.
+     *
+     * @param out          The stream to report to.
+     * @param elapsedNanos The time over which the requests were recorded.
+     */
+    void report(final PrintStream out, final long elapsedNanos) {
+        final double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+        out.printf("%-14s %9s %7s %9s", "operation", "count", "errors", "req/s");
+        for (final String percentileName : PERCENTILE_NAMES) {
+            out.printf(" %9s", percentileName);
+        }
+        out.printf(" %9s%n", "max");
+
+        final Histogram all = new Histogram(3);
+        long allErrors = 0;
+        for (final Operation operation : Operation.values()) {
+            final Histogram histogram = responseTimes.get(operation);
+            final long operationErrors = errors.get(operation).sum();
+            if (histogram.getTotalCount() + operationErrors > 0) {
+                reportLine(out, operation.getName(), histogram, operationErrors, elapsedSeconds);
+                all.add(histogram);
+                allErrors += operationErrors;
+            }
+        }
+        reportLine(out, "all", all, allErrors, elapsedSeconds);
+        reportLine(out, "all (service)", serviceTimes, allErrors, elapsedSeconds);
+    }
+
+    private static void reportLine(final PrintStream out, final String name, final Histogram histogram, final long errors,
+                                   final double elapsedSeconds) {
+        out.printf("%-14s %9d %7d %9.1f", name, histogram.getTotalCount(), errors, histogram.getTotalCount() / elapsedSeconds);
+        for (final double percentile : PERCENTILES) {
+            out.printf(" %9.3f", histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+        }
+        out.printf(" %9.3f%n", histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Write the full percentile distribution of the response times of each operation made, and of the service times,
+     * in milliseconds to .hgrm files in the given directory, for plotting or comparing between runs.
+     *
+     * @param directory The directory.
+     * @throws IOException If a file cannot be written.
+     */
+    void writeHistograms(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (final Operation operation : Operation.values()) {
+            final Histogram histogram = responseTimes.get(operation);
+            if (histogram.getTotalCount() > 0) {
+                writeHistogram(histogram, directory.resolve(operation.getName() + ".hgrm"));
+            }
+        }
+        writeHistogram(serviceTimes, directory.resolve("service.hgrm"));
+    }
+
+    private static void writeHistogram(final Histogram histogram, final Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+}
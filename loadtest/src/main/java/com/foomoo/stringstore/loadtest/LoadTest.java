@@ -0,0 +1,123 @@
+package com.foomoo.stringstore.loadtest;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the REST API of the service with an open loop load, either generated from a mix of operations at a target
+ * rate or replayed from a captured access log, and reports the latency percentiles and throughput of each operation.
+ * Run with --help for the options.
+ */
+public class LoadTest {
+
+    private static final long START_DELAY_MS = 100;
+    private static final long DRAIN_TIMEOUT_MS = 30 * 1000;
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final LoadTestOptions options;
+        try {
+            if (args.length == 1 && "--help".equals(args[0])) {
+                System.out.println(LoadTestOptions.USAGE);
+                return;
+            }
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        // Keep a connection alive for each connection thread, rather than the default of five.
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", String.valueOf(options.getConnections()));
+        }
+
+        final HttpServer server = options.isEmbedded() ? EmbeddedServer.start(options.getUrl()) : null;
+        try {
+            run(options, System.out);
+        } finally {
+            if (server != null) {
+                server.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Run a load test, reporting to the given stream.
+     *
+     * @param options The options of the load test.
+     * @param out     The stream to report to.
+     * @throws IOException          If the strings cannot be preloaded or the access log or histograms cannot be read or
+     *                              written.
+     * @throws InterruptedException If interrupted while sending requests.
+     */
+    static void run(final LoadTestOptions options, final PrintStream out) throws IOException, InterruptedException {
+        final Random random = new Random(options.getRandomSeed());
+        final SizeDistribution sizes = options.getSizes();
+        final StringPool pool = new StringPool(options.getPoolSize());
+        final Workload workload = new Workload(new StringStoreHttpClient(options.getUrl()),
+                new ContentGenerator(sizes.getMaxSize(), random), pool);
+
+        out.printf("Preloading %d strings to %s%n", options.getPreload(), options.getUrl());
+        final List<UUID> preloadedIds = new ArrayList<>(options.getPreload());
+        for (int i = 0; i < options.getPreload(); i++) {
+            workload.addNewString(sizes.next(random));
+            if (i < options.getPoolSize()) {
+                preloadedIds.add(pool.get(i).getId());
+            }
+        }
+
+        final LatencyStats stats = new LatencyStats();
+        final OpenLoopDriver driver = new OpenLoopDriver(workload, stats, options.getConnections());
+
+        final long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(START_DELAY_MS);
+        final long recordNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(options.getWarmupMs());
+        final Long durationMs = options.getDurationMs();
+        final long endNanos = durationMs == null ? Long.MAX_VALUE : recordNanos + TimeUnit.MILLISECONDS.toNanos(durationMs);
+
+        final int incomplete;
+        if (options.getReplay() == null) {
+            out.printf("Sending %.1f requests/s with %s arrivals, mix %s, sizes %s, for %d ms after %d ms warmup%n",
+                    options.getRate(), options.getArrivals(), options.getMix(), sizes, durationMs, options.getWarmupMs());
+            final Iterator<ScheduledRequest> schedule = new GeneratedSchedule(startNanos, options.getRate(),
+                    options.getArrivals(), options.getMix(), sizes, random.nextLong());
+            incomplete = driver.run(schedule, recordNanos, endNanos, DRAIN_TIMEOUT_MS);
+        } else {
+            out.printf("Replaying %s at %.2fx with sizes %s%n", options.getReplay(), options.getSpeed(), sizes);
+            try (BufferedReader reader = Files.newBufferedReader(options.getReplay(), StandardCharsets.UTF_8);
+                 ReplaySchedule schedule = new ReplaySchedule(reader, startNanos, options.getSpeed(), sizes,
+                         random.nextLong(), options.isRemapIds() ? preloadedIds : null)) {
+                incomplete = driver.run(schedule, recordNanos, endNanos, DRAIN_TIMEOUT_MS);
+                out.printf("Skipped %d requests for other resources and %d unparseable lines%n",
+                        schedule.getSkipped(), schedule.getUnparsed());
+            }
+        }
+
+        final long recordedNanos = Math.max(1, driver.getLastSentNanos() - recordNanos);
+        out.println();
+        out.println("Response times in milliseconds, measured from the scheduled send time:");
+        stats.report(out, recordedNanos);
+        out.printf("Maximum backlog %d requests waiting for a connection%n", driver.getMaxBacklog());
+        if (incomplete > 0) {
+            out.printf("%d requests not completed%n", incomplete);
+        }
+
+        if (options.getHistograms() != null) {
+            stats.writeHistograms(options.getHistograms());
+            out.printf("Histograms written to %s%n", options.getHistograms());
+        }
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The options of a load test, parsed from command line arguments of the form {@code --name=value}.
+ */
+class LoadTestOptions {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: LoadTest [--name=value]...",
+            "  --url=URL              base URI of the service (http://localhost:4982/)",
+            "  --embedded             run the service in process, against the in-memory store",
+            "  --rate=N               target requests per second (100)",
+            "  --arrivals=NAME        constant or poisson (poisson)",
+            "  --duration=TIME        time to send requests for, such as 60s or 5m (60s, or the whole replay)",
+            "  --warmup=TIME          time before requests are recorded (10s)",
+            "  --connections=N        maximum requests in progress at once (64)",
+            "  --mix=MIX              operation weights (" + defaultMix() + ")",
+            "  --sizes=DIST           sizes of new strings: fixed:N, uniform:MIN-MAX or lognormal:MEDIAN,SIGMA (lognormal:1024,1.0)",
+            "  --max-size=N           largest new string (1048576)",
+            "  --preload=N            strings added before the test (100)",
+            "  --pool-size=N          added strings kept for retrieving and adding again (1000)",
+            "  --replay=FILE          replay requests from an access log instead of generating them",
+            "  --speed=X              replay speed relative to the captured requests (1.0)",
+            "  --remap-ids=BOOL       map replayed string ids to preloaded strings (true)",
+            "  --histograms=DIR       write .hgrm percentile distributions to a directory",
+            "  --random-seed=N        seed for the schedule and content (1)");
+
+    private URI url = URI.create("http://localhost:4982/");
+    private boolean embedded;
+    private double rate = 100;
+    private Arrivals arrivals = Arrivals.POISSON;
+    private Long durationMs;
+    private long warmupMs = TimeUnit.SECONDS.toMillis(10);
+    private int connections = 64;
+    private OperationMix mix = OperationMix.parse(defaultMix());
+    private String sizes = "lognormal:1024,1.0";
+    private int maxSize = 1024 * 1024;
+    private int preload = 100;
+    private int poolSize = 1000;
+    private Path replay;
+    private double speed = 1.0;
+    private boolean remapIds = true;
+    private Path histograms;
+    private long randomSeed = 1;
+
+    /**
+     * Parse the options from the given arguments.
+     *
+     * @param args The arguments.
+     * @return The options.
+     * @throws IllegalArgumentException If an argument cannot be parsed.
+     */
+    static LoadTestOptions parse(final String[] args) {
+        final Map<String, String> values = new HashMap<>();
+        for (final String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            final int equals = arg.indexOf('=');
+            values.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals), equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+
+        final LoadTestOptions options = new LoadTestOptions();
+        for (final Map.Entry<String, String> entry : values.entrySet()) {
+            final String value = entry.getValue();
+            switch (entry.getKey()) {
+                case "url":
+                    options.url = URI.create(value.endsWith("/") ? value : value + "/");
+                    break;
+                case "embedded":
+                    options.embedded = Boolean.parseBoolean(value);
+                    break;
+                case "rate":
+                    options.rate = positive(entry.getKey(), Double.parseDouble(value));
+                    break;
+                case "arrivals":
+                    options.arrivals = Arrivals.forName(value);
+                    break;
+                case "duration":
+                    options.durationMs = parseTime(value);
+                    break;
+                case "warmup":
+                    options.warmupMs = parseTime(value);
+                    break;
+                case "connections":
+                    options.connections = (int) positive(entry.getKey(), Integer.parseInt(value));
+                    break;
+                case "mix":
+                    options.mix = OperationMix.parse(value);
+                    break;
+                case "sizes":
+                    options.sizes = value;
+                    break;
+                case "max-size":
+                    options.maxSize = (int) positive(entry.getKey(), Integer.parseInt(value));
+                    break;
+                case "preload":
+                    options.preload = Integer.parseInt(value);
+                    break;
+                case "pool-size":
+                    options.poolSize = (int) positive(entry.getKey(), Integer.parseInt(value));
+                    break;
+                case "replay":
+                    options.replay = Paths.get(value);
+                    break;
+                case "speed":
+                    options.speed = positive(entry.getKey(), Double.parseDouble(value));
+                    break;
+                case "remap-ids":
+                    options.remapIds = Boolean.parseBoolean(value);
+                    break;
+                case "histograms":
+                    options.histograms = Paths.get(value);
+                    break;
+                case "random-seed":
+                    options.randomSeed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + entry.getKey());
+            }
+        }
+
+        // Check the size distribution parses.
+        options.getSizes();
+        return options;
+    }
+
+    /**
+     * Parse a time such as 500ms, 30s or 5m.
+     *
+     * @param time The time.
+     * @return The time in milliseconds.
+     * @throws IllegalArgumentException If the time cannot be parsed.
+     */
+    static long parseTime(final String time) {
+        if (time.endsWith("ms")) {
+            return Long.parseLong(time.substring(0, time.length() - 2));
+        }
+        if (time.endsWith("s")) {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(time.substring(0, time.length() - 1)));
+        }
+        if (time.endsWith("m")) {
+            return TimeUnit.MINUTES.toMillis(Long.parseLong(time.substring(0, time.length() - 1)));
+        }
+        if (time.endsWith("h")) {
+            return TimeUnit.HOURS.toMillis(Long.parseLong(time.substring(0, time.length() - 1)));
+        }
+        throw new IllegalArgumentException("Cannot parse time, expected a unit of ms, s, m or h: " + time);
+    }
+
+    private static String defaultMix() {
+        return "add-new=10,add-duplicate=10,get-content=40,get-summary=25,list=10,status=5";
+    }
+
+    private static double positive(final String name, final double value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return value;
+    }
+
+    URI getUrl() {
+        return url;
+    }
+
+    boolean isEmbedded() {
+        return embedded;
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    Arrivals getArrivals() {
+        return arrivals;
+    }
+
+    /**
+     * Get the time to send requests for.
+     *
+     * @return The time in milliseconds, or null to replay the whole access log. Defaults to one minute when generating
+     * requests.
+     */
+    Long getDurationMs() {
+        return durationMs == null && replay == null ? Long.valueOf(TimeUnit.MINUTES.toMillis(1)) : durationMs;
+    }
+
+    long getWarmupMs() {
+        return warmupMs;
+    }
+
+    int getConnections() {
+        return connections;
+    }
+
+    OperationMix getMix() {
+        return mix;
+    }
+
+    SizeDistribution getSizes() {
+        return SizeDistribution.parse(sizes, maxSize);
+    }
+
+    int getPreload() {
+        return preload;
+    }
+
+    int getPoolSize() {
+        return poolSize;
+    }
+
+    Path getReplay() {
+        return replay;
+    }
+
+    double getSpeed() {
+        return speed;
+    }
+
+    boolean isRemapIds() {
+        return remapIds;
+    }
+
+    Path getHistograms() {
+        return histograms;
+    }
+
+    long getRandomSeed() {
+        return randomSeed;
+    }
+
+}
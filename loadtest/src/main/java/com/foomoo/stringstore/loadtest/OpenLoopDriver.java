@@ -0,0 +1,113 @@
+package com.foomoo.stringstore.loadtest;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends scheduled requests at their scheduled times, whether or not earlier requests have completed. Requests are sent
+ * by a fixed number of connection threads; when all are busy, requests queue until a thread is free and the wait is
+ * counted in their response time, rather than the schedule slowing to match the service.
+ */
+class OpenLoopDriver {
+
+    private final Workload workload;
+    private final LatencyStats stats;
+    private final ThreadPoolExecutor executor;
+
+    private int maxBacklog;
+    private long lastSentNanos;
+
+    /**
+     * Construct an OpenLoopDriver.
+     *
+     * @param workload    Performs the requests.
+     * @param stats       Records the latency of the requests.
+     * @param connections The number of requests which may be in progress at once.
+     */
+    OpenLoopDriver(final Workload workload, final LatencyStats stats, final int connections) {
+        this.workload = workload;
+        this.stats = stats;
+        this.executor = new ThreadPoolExecutor(connections, connections, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("loadtest-connection-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Send the scheduled requests, in order of their scheduled times, until the schedule ends or reaches the end time,
+     * then wait for the requests in progress to complete. Requests scheduled before the record time are sent but not
+     * recorded, to let the service warm up.
+     *
+     * @param schedule      The requests.
+     * @param recordNanos   The time from which requests are recorded, as given by {@link System#nanoTime()}.
+     * @param endNanos      The time at which sending ends, or {@link Long#MAX_VALUE} to send the whole schedule.
+     * @param drainTimeout  The maximum time to wait for requests in progress, in milliseconds.
+     * @return The number of requests not completed within the drain timeout.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    int run(final Iterator<ScheduledRequest> schedule, final long recordNanos, final long endNanos,
+            final long drainTimeout) throws InterruptedException {
+        while (schedule.hasNext()) {
+            final ScheduledRequest request = schedule.next();
+            if (endNanos != Long.MAX_VALUE && request.getIntendedNanos() - endNanos >= 0) {
+                break;
+            }
+
+            long waitNanos;
+            while ((waitNanos = request.getIntendedNanos() - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            executor.execute(() -> send(request, request.getIntendedNanos() - recordNanos >= 0));
+            lastSentNanos = request.getIntendedNanos();
+            maxBacklog = Math.max(maxBacklog, executor.getQueue().size());
+        }
+
+        executor.shutdown();
+        if (!executor.awaitTermination(drainTimeout, TimeUnit.MILLISECONDS)) {
+            return executor.shutdownNow().size() + executor.getActiveCount();
+        }
+        return 0;
+    }
+
+    /**
+     * Get the largest number of requests waiting for a connection thread.
+     *
+     * @return The maximum backlog.
+     */
+    int getMaxBacklog() {
+        return maxBacklog;
+    }
+
+    /**
+     * Get the scheduled time of the last request sent.
+     *
+     * @return The time, as given by {@link System#nanoTime()}.
+     */
+    long getLastSentNanos() {
+        return lastSentNanos;
+    }
+
+    private void send(final ScheduledRequest request, final boolean record) {
+        final long startNanos = System.nanoTime();
+        boolean success;
+        try {
+            success = workload.perform(request);
+        } catch (IOException | RuntimeException e) {
+            success = false;
+        }
+        final long endNanos = System.nanoTime();
+
+        if (record) {
+            if (success) {
+                stats.record(request.getOperation(), endNanos - request.getIntendedNanos(), endNanos - startNanos);
+            } else {
+                stats.recordError(request.getOperation());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.foomoo.stringstore.loadtest;
+
+/**
+ * The operations made against the REST API by a load test.
+ */
+public enum Operation {
+
+    /**
+     * Add a string with content new to the store.
+     */
+    ADD_NEW("add-new"),
+
+    /**
+     * Add a string with the content of a string already added.
+     */
+    ADD_DUPLICATE("add-duplicate"),
+
+    /**
+     * Get the content of a string.
+     */
+    GET_CONTENT("get-content"),
+
+    /**
+     * Get the summary of a string.
+     */
+    GET_SUMMARY("get-summary"),
+
+    /**
+     * List the summaries of the most recently added strings.
+     */
+    LIST("list"),
+
+    /**
+     * Get the status of the service.
+     */
+    STATUS("status");
+
+    private final String name;
+
+    Operation(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the name of the operation, as given in an operation mix.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the operation with the given name.
+     *
+     * @param name The name of the operation.
+     * @return The operation.
+     * @throws IllegalArgumentException If no operation has the given name.
+     */
+    public static Operation forName(final String name) {
+        for (final Operation operation : values()) {
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+
+}
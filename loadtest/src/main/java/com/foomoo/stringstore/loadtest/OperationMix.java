@@ -0,0 +1,97 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The relative frequency of each {@link Operation} in a load test, given as weights such as
+ * {@code add-new=10,get-content=60,status=5}. Operations not named are not made.
+ */
+public class OperationMix {
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    /**
+     * Construct an OperationMix with the given weights.
+     *
+     * @param weights The weight of each operation made.
+     * @throws IllegalArgumentException If a weight is negative or no operation has a positive weight.
+     */
+    public OperationMix(final Map<Operation, Integer> weights) {
+        this.weights = new EnumMap<>(weights);
+        this.operations = new Operation[weights.size()];
+        this.cumulativeWeights = new int[weights.size()];
+
+        int total = 0;
+        int i = 0;
+        for (final Map.Entry<Operation, Integer> entry : this.weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Negative weight for operation: " + entry.getKey().getName());
+            }
+            total += entry.getValue();
+            operations[i] = entry.getKey();
+            cumulativeWeights[i] = total;
+            i++;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("No operation has a positive weight");
+        }
+    }
+
+    /**
+     * Parse an OperationMix from a comma separated list of operation names and weights.
+     *
+     * @param mix The mix, such as {@code add-new=10,get-content=60,status=5}.
+     * @return The parsed OperationMix.
+     * @throws IllegalArgumentException If the mix cannot be parsed.
+     */
+    public static OperationMix parse(final String mix) {
+        final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (final String item : mix.split(",")) {
+            final String[] nameWeight = item.trim().split("=");
+            if (nameWeight.length != 2) {
+                throw new IllegalArgumentException("Cannot parse operation weight: " + item);
+            }
+            weights.put(Operation.forName(nameWeight[0].trim()), Integer.parseInt(nameWeight[1].trim()));
+        }
+        return new OperationMix(weights);
+    }
+
+    /**
+     * Choose the next operation at random in proportion to the weights.
+     *
+     * @param random The source of randomness.
+     * @return The chosen operation.
+     */
+    public Operation next(final Random random) {
+        final int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weight out of range: " + value);
+    }
+
+    /**
+     * Find whether the mix makes the given operation.
+     *
+     * @param operation The operation.
+     * @return True if the operation has a positive weight.
+     */
+    public boolean includes(final Operation operation) {
+        return weights.getOrDefault(operation, 0) > 0;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        weights.forEach((operation, weight) -> builder.append(builder.length() == 0 ? "" : ",")
+                .append(operation.getName()).append('=').append(weight));
+        return builder.toString();
+    }
+
+}
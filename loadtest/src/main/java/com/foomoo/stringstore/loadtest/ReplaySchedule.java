@@ -0,0 +1,221 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A schedule of requests replayed from an access log, keeping the timing of the captured requests scaled by a speed
+ * factor. Access logs record times to the second, so the requests captured in each second are spread evenly across it.
+ * <p>
+ * Requests for the strings, string summaries, string content and status resources are replayed, under any context
+ * path and including their asynchronous forms; other requests are skipped. The log does not capture the content of
+ * added strings, so strings are added with new content of a size chosen from a {@link SizeDistribution}. The ids of
+ * strings requested are optionally remapped to strings added before the replay, each distinct captured id always
+ * mapping to the same string, so that the captured log can be replayed against a store not holding the captured
+ * strings while keeping how often each string is requested.
+ */
+class ReplaySchedule implements Iterator<ScheduledRequest>, Closeable {
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern STRINGS_PATH = Pattern.compile("(?:.*/)?strings/?");
+    private static final Pattern STRING_PATH = Pattern.compile("(?:.*/)?strings/(" + UUID_PATTERN + ")/?");
+    private static final Pattern STRING_CONTENT_PATH = Pattern.compile("(?:.*/)?strings/(" + UUID_PATTERN + ")/content/?");
+    private static final Pattern STATUS_PATH = Pattern.compile("(?:.*/)?status/?");
+
+    private final BufferedReader reader;
+    private final long startNanos;
+    private final double speed;
+    private final SizeDistribution sizes;
+    private final Random random;
+    private final List<UUID> remappedIds;
+
+    private final Deque<ScheduledRequest> pending = new ArrayDeque<>();
+    private AccessLogEntry nextEntry;
+    private long firstEpochSecond = -1;
+    private long skipped;
+    private long unparsed;
+
+    /**
+     * Construct a ReplaySchedule.
+     *
+     * @param reader      Reads the access log.
+     * @param startNanos  The time of the first captured request, as given by {@link System#nanoTime()}.
+     * @param speed       The factor by which the replay is faster than the captured requests.
+     * @param sizes       The distribution of the sizes of added strings.
+     * @param seed        The seed for choosing the sizes of added strings.
+     * @param remappedIds The ids to which the ids of requested strings are mapped, or null to request the captured ids.
+     */
+    ReplaySchedule(final BufferedReader reader, final long startNanos, final double speed, final SizeDistribution sizes,
+                   final long seed, final List<UUID> remappedIds) {
+        this.reader = reader;
+        this.startNanos = startNanos;
+        this.speed = speed;
+        this.sizes = sizes;
+        this.random = new Random(seed);
+        this.remappedIds = remappedIds == null || remappedIds.isEmpty() ? null : new ArrayList<>(remappedIds);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pending.isEmpty()) {
+            if (!readSecond()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ScheduledRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return pending.removeFirst();
+    }
+
+    /**
+     * Get the number of captured requests skipped as they are not for a replayed resource.
+     *
+     * @return The number of requests skipped.
+     */
+    long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Get the number of lines of the access log which could not be parsed.
+     *
+     * @return The number of lines.
+     */
+    long getUnparsed() {
+        return unparsed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Read the requests captured in the next second of the log, and schedule those replayed evenly across that
+     * second.
+     *
+     * @return False if the end of the log has been reached.
+     */
+    private boolean readSecond() {
+        final List<AccessLogEntry> entries = new ArrayList<>();
+        long epochSecond = -1;
+        AccessLogEntry entry;
+        while ((entry = readEntry()) != null) {
+            if (epochSecond >= 0 && entry.getEpochSecond() != epochSecond) {
+                nextEntry = entry;
+                break;
+            }
+            epochSecond = entry.getEpochSecond();
+            entries.add(entry);
+        }
+        if (entries.isEmpty()) {
+            return false;
+        }
+        if (firstEpochSecond < 0) {
+            firstEpochSecond = epochSecond;
+        }
+
+        final long secondNanos = TimeUnit.SECONDS.toNanos(epochSecond - firstEpochSecond);
+        for (int i = 0; i < entries.size(); i++) {
+            final long offsetNanos = secondNanos + TimeUnit.SECONDS.toNanos(i) / entries.size();
+            final ScheduledRequest request = toRequest(entries.get(i), startNanos + Math.round(offsetNanos / speed));
+            if (request == null) {
+                skipped++;
+            } else {
+                pending.addLast(request);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read the next parseable entry of the log.
+     *
+     * @return The entry, or null at the end of the log.
+     */
+    private AccessLogEntry readEntry() {
+        if (nextEntry != null) {
+            final AccessLogEntry entry = nextEntry;
+            nextEntry = null;
+            return entry;
+        }
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    return AccessLogEntry.parse(line);
+                } catch (IllegalArgumentException e) {
+                    unparsed++;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Convert a captured request to the request replaying it.
+     *
+     * @param entry         The captured request.
+     * @param intendedNanos The time at which to replay the request.
+     * @return The request, or null if the captured request is not replayed.
+     */
+    private ScheduledRequest toRequest(final AccessLogEntry entry, final long intendedNanos) {
+        final String method = entry.getMethod();
+        final String path = entry.getPath();
+
+        if (("PUT".equals(method) || "POST".equals(method)) && STRINGS_PATH.matcher(path).matches()) {
+            return new ScheduledRequest(intendedNanos, Operation.ADD_NEW, sizes.next(random), null);
+        }
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return null;
+        }
+
+        final Matcher contentMatcher = STRING_CONTENT_PATH.matcher(path);
+        if (contentMatcher.matches()) {
+            return new ScheduledRequest(intendedNanos, Operation.GET_CONTENT, 0, stringId(contentMatcher.group(1)));
+        }
+        final Matcher stringMatcher = STRING_PATH.matcher(path);
+        if (stringMatcher.matches()) {
+            return new ScheduledRequest(intendedNanos, Operation.GET_SUMMARY, 0, stringId(stringMatcher.group(1)));
+        }
+        if (STRINGS_PATH.matcher(path).matches()) {
+            return new ScheduledRequest(intendedNanos, Operation.LIST, 0, null);
+        }
+        if (STATUS_PATH.matcher(path).matches()) {
+            return new ScheduledRequest(intendedNanos, Operation.STATUS, 0, null);
+        }
+        return null;
+    }
+
+    private UUID stringId(final String capturedId) {
+        final UUID id = UUID.fromString(capturedId);
+        return remappedIds == null ? id : remappedIds.get(Math.floorMod(id.hashCode(), remappedIds.size()));
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.util.UUID;
+
+/**
+ * A request scheduled to be sent by a load test at a given time.
+ */
+class ScheduledRequest {
+
+    private final long intendedNanos;
+    private final Operation operation;
+    private final int size;
+    private final UUID stringId;
+
+    /**
+     * Construct a ScheduledRequest.
+     *
+     * @param intendedNanos The time at which the request is to be sent, as given by {@link System#nanoTime()}.
+     * @param operation     The operation requested.
+     * @param size          The size of the content of a new string, or zero if no string is added.
+     * @param stringId      The id of the string requested, or null to choose one from the pool of added strings.
+     */
+    ScheduledRequest(final long intendedNanos, final Operation operation, final int size, final UUID stringId) {
+        this.intendedNanos = intendedNanos;
+        this.operation = operation;
+        this.size = size;
+        this.stringId = stringId;
+    }
+
+    long getIntendedNanos() {
+        return intendedNanos;
+    }
+
+    Operation getOperation() {
+        return operation;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    UUID getStringId() {
+        return stringId;
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.util.Random;
+
+/**
+ * The distribution of the content sizes of the strings added by a load test, in characters. Given as one of:
+ * <ul>
+ * <li>{@code fixed:SIZE} for content of a single size</li>
+ * <li>{@code uniform:MIN-MAX} for sizes spread evenly between a minimum and maximum</li>
+ * <li>{@code lognormal:MEDIAN,SIGMA} for mostly small content with a long tail of large content</li>
+ * </ul>
+ * Sizes are limited to between one and a maximum size.
+ */
+public abstract class SizeDistribution {
+
+    private final String description;
+    private final int maxSize;
+
+    private SizeDistribution(final String description, final int maxSize) {
+        this.description = description;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Parse a SizeDistribution.
+     *
+     * @param distribution The distribution, such as {@code lognormal:1024,1.0}.
+     * @param maxSize      The maximum size.
+     * @return The parsed SizeDistribution.
+     * @throws IllegalArgumentException If the distribution cannot be parsed.
+     */
+    public static SizeDistribution parse(final String distribution, final int maxSize) {
+        final String[] typeArguments = distribution.split(":", 2);
+        if (typeArguments.length != 2) {
+            throw new IllegalArgumentException("Cannot parse size distribution: " + distribution);
+        }
+        final String arguments = typeArguments[1].trim();
+
+        switch (typeArguments[0].trim()) {
+            case "fixed":
+                final int size = Integer.parseInt(arguments);
+                return new SizeDistribution(distribution, maxSize) {
+                    @Override
+                    double sample(final Random random) {
+                        return size;
+                    }
+                };
+            case "uniform":
+                final String[] minMax = arguments.split("-");
+                if (minMax.length != 2) {
+                    throw new IllegalArgumentException("Cannot parse uniform size distribution: " + distribution);
+                }
+                final int min = Integer.parseInt(minMax[0].trim());
+                final int max = Integer.parseInt(minMax[1].trim());
+                if (max < min) {
+                    throw new IllegalArgumentException("Maximum less than minimum in size distribution: " + distribution);
+                }
+                return new SizeDistribution(distribution, maxSize) {
+                    @Override
+                    double sample(final Random random) {
+                        return min + random.nextInt(max - min + 1);
+                    }
+                };
+            case "lognormal":
+                final String[] medianSigma = arguments.split(",");
+                if (medianSigma.length != 2) {
+                    throw new IllegalArgumentException("Cannot parse lognormal size distribution: " + distribution);
+                }
+                final double mu = Math.log(Double.parseDouble(medianSigma[0].trim()));
+                final double sigma = Double.parseDouble(medianSigma[1].trim());
+                return new SizeDistribution(distribution, maxSize) {
+                    @Override
+                    double sample(final Random random) {
+                        return Math.exp(mu + sigma * random.nextGaussian());
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown size distribution: " + distribution);
+        }
+    }
+
+    /**
+     * Choose the next size at random from the distribution.
+     *
+     * @param random The source of randomness.
+     * @return The size, between one and the maximum size.
+     */
+    public int next(final Random random) {
+        return (int) Math.max(1, Math.min(maxSize, Math.round(sample(random))));
+    }
+
+    /**
+     * Get the maximum size.
+     *
+     * @return The maximum size.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sample the distribution without limits.
+     *
+     * @param random The source of randomness.
+     * @return The sampled size.
+     */
+    abstract double sample(Random random);
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of the strings added by a load test, from which the strings retrieved and added again as duplicates
+ * are chosen. Once the pool is full, each string added replaces one chosen at random.
+ */
+class StringPool {
+
+    private final AtomicReferenceArray<PooledString> strings;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Construct a StringPool.
+     *
+     * @param capacity The maximum number of strings held.
+     */
+    StringPool(final int capacity) {
+        this.strings = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Add the string with the given id and content to the pool.
+     *
+     * @param id      The id of the string.
+     * @param content The content of the string.
+     */
+    void add(final UUID id, final String content) {
+        final PooledString string = new PooledString(id, content);
+        final int index = size.getAndUpdate(current -> Math.min(current + 1, strings.length()));
+        if (index < strings.length()) {
+            strings.set(index, string);
+        } else {
+            strings.set(ThreadLocalRandom.current().nextInt(strings.length()), string);
+        }
+    }
+
+    /**
+     * Get a string from the pool chosen at random.
+     *
+     * @return The string, or null if the pool is empty.
+     */
+    PooledString random() {
+        final int current = size.get();
+        if (current == 0) {
+            return null;
+        }
+        // A slot claimed but not yet set is read as empty, so fall back to the first string.
+        final PooledString string = strings.get(ThreadLocalRandom.current().nextInt(current));
+        return string != null ? string : strings.get(0);
+    }
+
+    /**
+     * Get the string at the given position in the pool.
+     *
+     * @param index The position, less than the size of the pool.
+     * @return The string.
+     */
+    PooledString get(final int index) {
+        return strings.get(index);
+    }
+
+    /**
+     * Get the number of strings in the pool.
+     *
+     * @return The number of strings.
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * A string held by the pool.
+     */
+    static final class PooledString {
+        private final UUID id;
+        private final String content;
+
+        private PooledString(final UUID id, final String content) {
+            this.id = id;
+            this.content = content;
+        }
+
+        UUID getId() {
+            return id;
+        }
+
+        String getContent() {
+            return content;
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.foomoo.stringstore.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foomoo.stringstore.resource.StringsResource;
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Makes requests to the REST API of the service. Connections are kept alive and reused between requests; the number of
+ * idle connections kept is set by the http.maxConnections system property.
+ */
+class StringStoreHttpClient {
+
+    private static final String USER = "loadtest";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI baseUri;
+
+    /**
+     * Construct a StringStoreHttpClient.
+     *
+     * @param baseUri The base URI of the service.
+     */
+    StringStoreHttpClient(final URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Add a string with the given content, streaming the content as the request entity.
+     *
+     * @param content The content of the string.
+     * @return The id of the string, new or existing.
+     * @throws IOException If the request fails or is not successful.
+     */
+    UUID addString(final String content) throws IOException {
+        final byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+
+        final HttpURLConnection connection = open("strings", "PUT");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(contentBytes.length);
+        connection.setRequestProperty("Content-Type", "text/plain; charset=UTF-8");
+        connection.setRequestProperty(StringsResource.USER_HEADER, USER);
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            outputStream.write(contentBytes);
+        }
+
+        final int status = connection.getResponseCode();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        readBody(connection, status, body);
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Add string failed with status " + status);
+        }
+        final JsonNode stringId = objectMapper.readTree(body.toByteArray()).get("stringId");
+        if (stringId == null) {
+            throw new IOException("Add string response has no string id");
+        }
+        return UUID.fromString(stringId.asText());
+    }
+
+    /**
+     * Make a request with the given method to the given path, discarding the response entity.
+     *
+     * @param method The HTTP method.
+     * @param path   The path, relative to the base URI, with any query.
+     * @return The status of the response.
+     * @throws IOException If the request fails.
+     */
+    int request(final String method, final String path) throws IOException {
+        final HttpURLConnection connection = open(path, method);
+        final int status = connection.getResponseCode();
+        readBody(connection, status, ByteStreams.nullOutputStream());
+        return status;
+    }
+
+    private HttpURLConnection open(final String path, final String method) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) baseUri.resolve(path).toURL().openConnection();
+        connection.setRequestMethod(method);
+        connection.setUseCaches(false);
+        return connection;
+    }
+
+    /**
+     * Read the whole response entity, so that the connection can be reused.
+     *
+     * @param connection The connection.
+     * @param status     The status of the response.
+     * @param body       Receives the response entity.
+     * @throws IOException If the entity cannot be read.
+     */
+    private static void readBody(final HttpURLConnection connection, final int status, final OutputStream body)
+            throws IOException {
+        try (InputStream inputStream = status >= HttpURLConnection.HTTP_BAD_REQUEST
+                ? connection.getErrorStream() : connection.getInputStream()) {
+            if (inputStream != null) {
+                ByteStreams.copy(inputStream, body);
+            }
+        }
+    }
+
+}
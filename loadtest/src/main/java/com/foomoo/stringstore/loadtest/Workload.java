@@ -0,0 +1,93 @@
+package com.foomoo.stringstore.loadtest;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.UUID;
+
+/**
+ * Performs the operations of a load test against the service, keeping the strings it adds in a {@link StringPool} for
+ * later operations to retrieve or add again.
+ */
+class Workload {
+
+    private final StringStoreHttpClient client;
+    private final ContentGenerator contentGenerator;
+    private final StringPool pool;
+
+    /**
+     * Construct a Workload.
+     *
+     * @param client           The client making requests to the service.
+     * @param contentGenerator Generates the content of new strings.
+     * @param pool             The pool of added strings.
+     */
+    Workload(final StringStoreHttpClient client, final ContentGenerator contentGenerator, final StringPool pool) {
+        this.client = client;
+        this.contentGenerator = contentGenerator;
+        this.pool = pool;
+    }
+
+    /**
+     * Add a new string of the given size, keeping it in the pool.
+     *
+     * @param size The size of the content.
+     * @throws IOException If the string cannot be added.
+     */
+    void addNewString(final int size) throws IOException {
+        final String content = contentGenerator.newContent(size);
+        pool.add(client.addString(content), content);
+    }
+
+    /**
+     * Perform the given request.
+     *
+     * @param request The request.
+     * @return True if the request was successful.
+     * @throws IOException If the request fails.
+     */
+    boolean perform(final ScheduledRequest request) throws IOException {
+        switch (request.getOperation()) {
+            case ADD_NEW:
+                addNewString(request.getSize());
+                return true;
+            case ADD_DUPLICATE:
+                final StringPool.PooledString duplicate = pool.random();
+                return duplicate != null && duplicate.getId().equals(client.addString(duplicate.getContent()));
+            case GET_CONTENT:
+                return isSuccess(requestString(request, "/content"));
+            case GET_SUMMARY:
+                return isSuccess(requestString(request, ""));
+            case LIST:
+                return isSuccess(client.request("GET", "strings"));
+            case STATUS:
+                return isSuccess(client.request("GET", "status"));
+            default:
+                throw new IllegalStateException("Unknown operation: " + request.getOperation());
+        }
+    }
+
+    /**
+     * Get a resource of the requested string, chosen from the pool if the request does not name one.
+     *
+     * @param request  The request.
+     * @param resource The resource of the string, relative to the string.
+     * @return The status of the response, or 404 if the pool is empty.
+     * @throws IOException If the request fails.
+     */
+    private int requestString(final ScheduledRequest request, final String resource) throws IOException {
+        UUID stringId = request.getStringId();
+        if (stringId == null) {
+            final StringPool.PooledString string = pool.random();
+            if (string == null) {
+                return HttpURLConnection.HTTP_NOT_FOUND;
+            }
+            stringId = string.getId();
+        }
+        return client.request("GET", "strings/" + stringId + resource);
+    }
+
+    private static boolean isSuccess(final int status) {
+        return status == HttpURLConnection.HTTP_OK || status == HttpURLConnection.HTTP_NOT_MODIFIED;
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.foomoo.stringstore.loadtest;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link AccessLogEntry}
+ */
+public class AccessLogEntryTest {
+
+    @Test
+    public void parsesCommonLogFormat() {
+        final AccessLogEntry entry = AccessLogEntry.parse(
+                "127.0.0.1 - - [18/Oct/2026:10:15:30 +0000] \"GET /strings/status HTTP/1.1\" 200 42");
+
+        assertThat(entry.getEpochSecond(), Matchers.equalTo(1792318530L));
+        assertThat(entry.getMethod(), Matchers.equalTo("GET"));
+        assertThat(entry.getPath(), Matchers.equalTo("/strings/status"));
+    }
+
+    @Test
+    public void parsesCombinedLogFormatWithoutQuery() {
+        final AccessLogEntry entry = AccessLogEntry.parse(
+                "10.0.0.1 - user [18/Oct/2026:11:15:30 +0100] \"GET /strings/all?limit=10 HTTP/1.1\" 200 - \"-\" \"curl/7.0\"");
+
+        assertThat(entry.getEpochSecond(), Matchers.equalTo(1792318530L));
+        assertThat(entry.getPath(), Matchers.equalTo("/strings/all"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnparseableLine() {
+        AccessLogEntry.parse("not an access log line");
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.foomoo.stringstore.loadtest;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SizeDistribution}
+ */
+public class SizeDistributionTest {
+
+    private final Random random = new Random(1);
+
+    @Test
+    public void fixedDistributionGivesSize() {
+        final SizeDistribution sizes = SizeDistribution.parse("fixed:100", 1000);
+
+        assertThat(sizes.next(random), Matchers.equalTo(100));
+    }
+
+    @Test
+    public void uniformDistributionStaysInRange() {
+        final SizeDistribution sizes = SizeDistribution.parse("uniform:10-20", 1000);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sizes.next(random), Matchers.allOf(Matchers.greaterThanOrEqualTo(10), Matchers.lessThanOrEqualTo(20)));
+        }
+    }
+
+    @Test
+    public void sizesLimitedToMaxSize() {
+        final SizeDistribution sizes = SizeDistribution.parse("lognormal:1000,3.0", 2000);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sizes.next(random), Matchers.allOf(Matchers.greaterThanOrEqualTo(1), Matchers.lessThanOrEqualTo(2000)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownDistribution() {
+        SizeDistribution.parse("pareto:1,2", 1000);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.foomoo.stringstore.mapper;
+
+import com.foomoo.stringstore.service.InvalidContentException;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Implementation of {@link ExceptionMapper} to give a Bad Request response in the event of invalid content
+ */
+@Provider
+public class InvalidContentExceptionMapper implements ExceptionMapper<InvalidContentException> {
+
+    /**
+     * Convert the given {@link InvalidContentException} to a bad request response containing the message from the
+     * exception.
+     *
+     * @return A bad request response.
+     */
+    @Override
+    public Response toResponse(final InvalidContentException exception) {
+
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity(exception.getMessage())
+                .type(MediaType.TEXT_PLAIN_TYPE)
+                .build();
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.foomoo.stringstore.mapper;
+
+import com.foomoo.stringstore.service.InvalidPageTokenException;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Implementation of {@link ExceptionMapper} to give a Bad Request response in the event of an invalid page token
+ */
+@Provider
+public class InvalidPageTokenExceptionMapper implements ExceptionMapper<InvalidPageTokenException> {
+
+    /**
+     * Convert the given {@link InvalidPageTokenException} to a bad request response containing the message from the
+     * exception.
+     *
+     * @return A bad request response.
+     */
+    @Override
+    public Response toResponse(final InvalidPageTokenException exception) {
+
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity(exception.getMessage())
+                .type(MediaType.TEXT_PLAIN_TYPE)
+                .build();
+    }
+
+}
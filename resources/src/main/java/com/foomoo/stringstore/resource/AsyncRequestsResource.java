@@ -0,0 +1,43 @@
+package com.foomoo.stringstore.resource;
+
+import com.foomoo.stringstore.message.MessageMediaType;
+import com.foomoo.stringstore.message.RequestSummaryMessage;
+import com.foomoo.stringstore.service.AsyncStringsService;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.stream.Collectors;
+
+/**
+ * Root resource for requests served asynchronously.
+ */
+@Path("async/requests")
+public class AsyncRequestsResource {
+
+    @Inject
+    private AsyncStringsService asyncStringsService;
+
+    /**
+     * Gets summaries of the most recent requests to add strings.
+     *
+     * @param asyncResponse The suspended request, resumed with a success response containing a {@link java.util.List}
+     *                      of {@link RequestSummaryMessage} objects.
+     */
+    @GET
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    public void getRequests(@Suspended final AsyncResponse asyncResponse) {
+
+        asyncStringsService.getRequests()
+                .whenComplete(AsyncResponses.resume(asyncResponse, requests -> Response.ok(requests
+                        .stream()
+                        .map(RequestsResource::toRequestSummaryMessage)
+                        .collect(Collectors.toList())).build()));
+    }
+
+}
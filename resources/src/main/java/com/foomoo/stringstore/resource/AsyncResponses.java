@@ -0,0 +1,40 @@
+package com.foomoo.stringstore.resource;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Support for resuming suspended requests when an asynchronous service operation completes.
+ */
+class AsyncResponses {
+
+    /**
+     * Create an action for {@link java.util.concurrent.CompletionStage#whenComplete(BiConsumer)} which resumes the given
+     * suspended request. A successful result is converted to a response with the given function. A failure is resumed
+     * with the cause of the failure so that it is handled by the exception mappers.
+     *
+     * @param asyncResponse The suspended request.
+     * @param toResponse    Converts the result of the operation to a response.
+     * @param <T>           The type of the operation result.
+     * @return The action.
+     */
+    static <T> BiConsumer<T, Throwable> resume(final AsyncResponse asyncResponse, final Function<T, Response> toResponse) {
+        return (result, throwable) -> {
+            if (throwable == null) {
+                asyncResponse.resume(toResponse.apply(result));
+            } else if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                asyncResponse.resume(throwable.getCause());
+            } else {
+                asyncResponse.resume(throwable);
+            }
+        };
+    }
+
+    // Private constructor.
+    private AsyncResponses() {
+    }
+
+}
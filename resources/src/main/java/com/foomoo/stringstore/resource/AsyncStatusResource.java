@@ -0,0 +1,41 @@
+package com.foomoo.stringstore.resource;
+
+import com.foomoo.stringstore.message.MessageMediaType;
+import com.foomoo.stringstore.message.StatusSummaryMessage;
+import com.foomoo.stringstore.service.AsyncStatusService;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Root resource for status requests served asynchronously.
+ */
+@Path("async/status")
+public class AsyncStatusResource {
+
+    @Inject
+    private AsyncStatusService asyncStatusService;
+
+    /**
+     * Get the status of the service.
+     *
+     * @param asyncResponse The suspended request, resumed with a success response containing a
+     *                      {@link StatusSummaryMessage} entity.
+     */
+    @GET
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    public void getStatus(@Suspended final AsyncResponse asyncResponse) {
+
+        asyncStatusService.getStatus()
+                .whenComplete(AsyncResponses.resume(asyncResponse,
+                        status -> Response.ok(new StatusSummaryMessage(status.getStrings(), status.getRequests(),
+                                status.getDedupRatio(), status.getStoredBytes())).build()));
+    }
+
+}
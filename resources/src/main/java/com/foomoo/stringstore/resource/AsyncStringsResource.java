@@ -0,0 +1,107 @@
+package com.foomoo.stringstore.resource;
+
+import com.foomoo.stringstore.message.AddStringRequestMessage;
+import com.foomoo.stringstore.message.MessageMediaType;
+import com.foomoo.stringstore.message.StringSummaryMessage;
+import com.foomoo.stringstore.service.AddStringResult;
+import com.foomoo.stringstore.service.AsyncStringsService;
+import com.foomoo.stringstore.service.StringNotFoundException;
+import org.glassfish.jersey.media.multipart.FormDataParam;
+
+import javax.inject.Inject;
+import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Root resource for string requests served asynchronously. Each request is suspended while the service operation is in
+ * progress, releasing the container thread, and resumed when the operation completes. The resource methods mirror
+ * those of {@link StringsResource}.
+ */
+@Path("async/strings")
+public class AsyncStringsResource {
+
+    @Inject
+    private AsyncStringsService asyncStringsService;
+
+    /**
+     * Adds a string to the store.
+     *
+     * @param addStringRequestMessage Metadata for string to be stored.
+     * @param content                 The string content to store.
+     * @param asyncResponse           The suspended request, resumed with a success response containing an
+     *                                {@link AddStringResult} entity.
+     */
+    @POST
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    public void addString(@FormDataParam("request") AddStringRequestMessage addStringRequestMessage,
+                          @FormDataParam("content") String content,
+                          @Suspended final AsyncResponse asyncResponse) {
+
+        asyncStringsService.addString(addStringRequestMessage.getUser(), content)
+                .whenComplete(AsyncResponses.resume(asyncResponse, addStringResult -> {
+                    ResourceMetrics.stringAdded(addStringResult, ResourceMetrics.utf8Length(content));
+                    return Response.ok(addStringResult).build();
+                }));
+    }
+
+    /**
+     * Gets summaries of the most recently added strings.
+     *
+     * @param asyncResponse The suspended request, resumed with a success response containing a {@link java.util.List}
+     *                      of {@link StringSummaryMessage} objects.
+     */
+    @GET
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    public void getStrings(@Suspended final AsyncResponse asyncResponse) {
+
+        asyncStringsService.getStringSummaries()
+                .whenComplete(AsyncResponses.resume(asyncResponse, stringSummaries -> Response.ok(stringSummaries
+                        .stream()
+                        .map(StringsResource::toStringSummaryMessage)
+                        .collect(Collectors.toList())).build()));
+    }
+
+    /**
+     * Get the summary for the string specified by the given string id.
+     *
+     * @param stringId      The string id.
+     * @param asyncResponse The suspended request, resumed with a success response containing a
+     *                      {@link StringSummaryMessage} entity, or with a {@link StringNotFoundException} if the
+     *                      string for the given string id cannot be found.
+     */
+    @GET
+    @Path("{id}")
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    public void getStringSummary(@PathParam("id") final UUID stringId, @Suspended final AsyncResponse asyncResponse) {
+
+        asyncStringsService.getStringSummary(stringId)
+                .whenComplete(AsyncResponses.resume(asyncResponse, stringSummary -> Response.ok(StringsResource.toStringSummaryMessage(stringSummary)).build()));
+    }
+
+    /**
+     * Gets the content of the string specified by the given string id.
+     *
+     * @param stringId      The string id.
+     * @param asyncResponse The suspended request, resumed with a success response containing the string content as a
+     *                      {@link String} entity, or with a {@link StringNotFoundException} if the string for the given
+     *                      string id cannot be found.
+     */
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    @Path("{id}/content")
+    public void getStringContent(@PathParam("id") final UUID stringId, @Suspended final AsyncResponse asyncResponse) {
+
+        asyncStringsService.getStringContent(stringId)
+                .whenComplete(AsyncResponses.resume(asyncResponse, content -> {
+                    ResourceMetrics.contentServed(ResourceMetrics.utf8Length(content));
+                    return Response.ok(content).build();
+                }));
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.foomoo.stringstore.resource;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single range of bytes requested by a Range header, resolved against the length of the requested content.
+ */
+final class ByteRange {
+
+    static final String ACCEPT_RANGES = "Accept-Ranges";
+    static final String CONTENT_RANGE = "Content-Range";
+    static final String RANGE = "Range";
+    static final String BYTES_UNIT = "bytes";
+
+    private static final Pattern SINGLE_BYTE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private final long offset;
+    private final long length;
+
+    private ByteRange(final long offset, final long length) {
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Parse the given Range header for content of the given length. Only a single range of bytes is supported; a
+     * header requesting other units, multiple ranges, or which cannot be parsed is ignored so that the whole content is
+     * served, as permitted by RFC 7233.
+     *
+     * @param rangeHeader   The value of the Range header, or null if absent.
+     * @param contentLength The length of the content in bytes.
+     * @return The requested range, or null if the whole content should be served.
+     * @throws WebApplicationException With a Range Not Satisfiable response if the range lies beyond the content.
+     */
+    static ByteRange parse(final String rangeHeader, final long contentLength) {
+        if (rangeHeader == null) {
+            return null;
+        }
+        final Matcher matcher = SINGLE_BYTE_RANGE.matcher(rangeHeader.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        final String firstGroup = matcher.group(1);
+        final String lastGroup = matcher.group(2);
+
+        final long first;
+        final long last;
+        try {
+            if (firstGroup.isEmpty()) {
+                if (lastGroup.isEmpty()) {
+                    return null;
+                }
+                // A suffix range of the final bytes of the content.
+                first = Math.max(0, contentLength - Long.parseLong(lastGroup));
+                last = contentLength - 1;
+            } else {
+                first = Long.parseLong(firstGroup);
+                if (lastGroup.isEmpty()) {
+                    last = contentLength - 1;
+                } else {
+                    final long requestedLast = Long.parseLong(lastGroup);
+                    if (requestedLast < first) {
+                        // A range whose last byte precedes its first byte is invalid, and is ignored.
+                        return null;
+                    }
+                    last = Math.min(requestedLast, contentLength - 1);
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (first > last) {
+            throw new WebApplicationException(Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(CONTENT_RANGE, String.format("%s */%d", BYTES_UNIT, contentLength))
+                    .build());
+        }
+
+        return new ByteRange(first, last - first + 1);
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * Get the value of the Content-Range header describing this range of content of the given length.
+     *
+     * @param contentLength The length of the content in bytes.
+     * @return The Content-Range header value.
+     */
+    String toContentRange(final long contentLength) {
+        return String.format("%s %d-%d/%d", BYTES_UNIT, offset, offset + length - 1, contentLength);
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.foomoo.stringstore.resource;
+
+import com.foomoo.stringstore.message.MessageMediaType;
+import com.foomoo.stringstore.service.ServiceConfiguration;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Entity tags and caching headers for responses about strings. Strings never change once stored, so responses are
+ * tagged with strong entity tags derived from the hash of the string content and may be cached indefinitely.
+ */
+final class EntityTags {
+
+    private static final String CACHE_CONTROL = String.format("public, max-age=%d, immutable", ServiceConfiguration.CACHE_MAX_AGE);
+
+    private static final String CBOR_SUFFIX = "cbor";
+    private static final String SMILE_SUFFIX = "smile";
+
+    /**
+     * Get the entity tag of a representation of a string with the given hash.
+     *
+     * @param hash The hash of the string content.
+     * @return The entity tag.
+     */
+    static EntityTag of(final String hash) {
+        return new EntityTag(hash);
+    }
+
+    /**
+     * Get the entity tag of a representation of a string with the given hash sent with the given content coding, which
+     * must differ from the tag of the unencoded representation as the representations have different bytes.
+     *
+     * @param hash          The hash of the string content.
+     * @param contentCoding The content coding.
+     * @return The entity tag.
+     */
+    static EntityTag of(final String hash, final String contentCoding) {
+        return new EntityTag(hash + "-" + contentCoding);
+    }
+
+    /**
+     * Get the entity tag of a message about a string with the given hash sent in the given media type. Messages in the
+     * binary formats of {@link MessageMediaType} have different bytes to JSON, so are tagged with the format appended
+     * to the hash as for content codings.
+     *
+     * @param hash      The hash of the string content.
+     * @param mediaType The media type of the message.
+     * @return The entity tag.
+     */
+    static EntityTag of(final String hash, final MediaType mediaType) {
+        if (mediaType.isCompatible(MessageMediaType.APPLICATION_CBOR_TYPE)) {
+            return of(hash, CBOR_SUFFIX);
+        } else if (mediaType.isCompatible(MessageMediaType.APPLICATION_SMILE_TYPE)) {
+            return of(hash, SMILE_SUFFIX);
+        } else {
+            return of(hash);
+        }
+    }
+
+    /**
+     * Find whether the given If-None-Match header matches the given entity tag, using the weak comparison required for
+     * If-None-Match.
+     *
+     * @param ifNoneMatch The If-None-Match header, or null if absent.
+     * @param entityTag   The entity tag of the representation to be sent.
+     * @return The entity tag if matched, or null if not.
+     */
+    static EntityTag matching(final String ifNoneMatch, final EntityTag entityTag) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return entityTag;
+        }
+
+        for (final String token : ifNoneMatch.split(",")) {
+            final String value = tagValue(token);
+            if (value != null && value.equals(entityTag.getValue())) {
+                return entityTag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the value of an entity tag in an If-None-Match header, ignoring whether it is weak.
+     *
+     * @param token The entity tag, as listed in the header.
+     * @return The value, or null if the token is not a quoted entity tag.
+     */
+    private static String tagValue(final String token) {
+        String value = token.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            return null;
+        }
+        return value.substring(1, value.length() - 1);
+    }
+
+    /**
+     * Add the given entity tag and headers allowing the response to be cached indefinitely to the given response
+     * builder.
+     *
+     * @param responseBuilder The response builder.
+     * @param entityTag       The entity tag of the response.
+     * @return The response builder.
+     */
+    static Response.ResponseBuilder cacheable(final Response.ResponseBuilder responseBuilder, final EntityTag entityTag) {
+        return responseBuilder
+                .tag(entityTag)
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+    }
+
+    /**
+     * Create a Not Modified response builder for a representation with the given entity tag.
+     *
+     * @param entityTag The entity tag matched by the request.
+     * @return The response builder.
+     */
+    static Response.ResponseBuilder notModified(final EntityTag entityTag) {
+        return cacheable(Response.notModified(), entityTag);
+    }
+
+    // Private constructor. Entity tags are accessed statically.
+    private EntityTags() {
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.foomoo.stringstore.resource;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Root resource for metrics requests.
+ */
+@Path("metrics")
+public class MetricsResource {
+
+    /**
+     * Get the metrics of the service in the Prometheus text exposition format, including the latency of each endpoint
+     * and store operation, the strings added and content served, and the state of the MongoDB connection pools.
+     *
+     * @return A success response streaming the metrics registered with the default registry.
+     */
+    @GET
+    @Produces(TextFormat.CONTENT_TYPE_004)
+    public Response getMetrics() {
+
+        final StreamingOutput streamingOutput = outputStream -> {
+            final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            TextFormat.write004(writer, CollectorRegistry.defaultRegistry.metricFamilySamples());
+            writer.flush();
+        };
+
+        return Response.ok(streamingOutput).build();
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.foomoo.stringstore.resource;
 
+import com.foomoo.stringstore.message.MessageMediaType;
 import com.foomoo.stringstore.message.RequestSummaryMessage;
 import com.foomoo.stringstore.service.StringsService;
 import com.foomoo.stringstore.service.RequestSummary;
@@ -28,7 +29,7 @@ public class RequestsResource {
      * @return A success response containing a {@link java.util.List} of {@link RequestSummaryMessage} objects.
      */
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
     public Response getRequests() {
 
         final List<RequestSummary> requests = stringsService.getRequests();
@@ -44,7 +45,7 @@ public class RequestsResource {
      * @param requestSummary The RequestSummary to transform.
      * @return The created RequestSummaryMessage.
      */
-    private static RequestSummaryMessage toRequestSummaryMessage(final RequestSummary requestSummary) {
+    static RequestSummaryMessage toRequestSummaryMessage(final RequestSummary requestSummary) {
 
         return new RequestSummaryMessage(requestSummary.getId(), requestSummary.getStringId(), requestSummary.getEpoch(), requestSummary.getUser());
     }
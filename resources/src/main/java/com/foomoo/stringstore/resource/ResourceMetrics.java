@@ -0,0 +1,77 @@
+package com.foomoo.stringstore.resource;
+
+import com.foomoo.stringstore.service.AddStringResult;
+import io.prometheus.client.Counter;
+
+/**
+ * Prometheus counters of the strings added to and the content served by the string resources, registered with the
+ * default registry. Strings added are counted by whether they were new to the store or found to be duplicates.
+ */
+final class ResourceMetrics {
+
+    private static final Counter STRINGS_ADDED = Counter.build()
+            .name("stringstore_strings_added_total")
+            .help("Strings added, by whether the string was new or a duplicate of a stored string.")
+            .labelNames("result")
+            .register();
+
+    private static final Counter INGESTED_BYTES = Counter.build()
+            .name("stringstore_ingested_bytes_total")
+            .help("Bytes of UTF-8 content received in strings added, by whether the string was new or a duplicate.")
+            .labelNames("result")
+            .register();
+
+    private static final Counter SERVED_BYTES = Counter.build()
+            .name("stringstore_served_bytes_total")
+            .help("Bytes of string content served.")
+            .register();
+
+    private ResourceMetrics() {
+    }
+
+    /**
+     * Record a string added to the store.
+     *
+     * @param addStringResult The result of adding the string.
+     * @param bytes           The number of bytes of UTF-8 content received.
+     */
+    static void stringAdded(final AddStringResult addStringResult, final long bytes) {
+        final String result = addStringResult.isExistingString() ? "duplicate" : "new";
+        STRINGS_ADDED.labels(result).inc();
+        INGESTED_BYTES.labels(result).inc(bytes);
+    }
+
+    /**
+     * Record string content served.
+     *
+     * @param bytes The number of bytes of content served.
+     */
+    static void contentServed(final long bytes) {
+        SERVED_BYTES.inc(bytes);
+    }
+
+    /**
+     * Get the number of bytes of the given content when encoded as UTF-8, without encoding it.
+     *
+     * @param content The content.
+     * @return The number of bytes.
+     */
+    static long utf8Length(final String content) {
+        long length = 0;
+        for (int i = 0; i < content.length(); i++) {
+            final char c = content.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < content.length() && Character.isLowSurrogate(content.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.foomoo.stringstore.resource;
+
+import com.foomoo.stringstore.message.SlowOperationMessage;
+import com.foomoo.stringstore.service.SlowOperationsService;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Root resource for requests for the slow operations of the service.
+ */
+@Path("admin/slow-operations")
+public class SlowOperationsResource {
+
+    @Inject
+    private SlowOperationsService slowOperationsService;
+
+    /**
+     * Get the most recent operations which took longer than the slow operation threshold.
+     *
+     * @return A success response containing a {@link java.util.List} of {@link SlowOperationMessage} objects, most
+     * recent first.
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getSlowOperations() {
+
+        final List<SlowOperationMessage> slowOperations = slowOperationsService.getSlowOperations().stream()
+                .map(slowOperation -> new SlowOperationMessage(slowOperation.getOperation(), slowOperation.getEpoch(),
+                        slowOperation.getDurationNanos(), slowOperation.getPhaseNanos()))
+                .collect(Collectors.toList());
+
+        return Response.ok(slowOperations).build();
+    }
+
+}
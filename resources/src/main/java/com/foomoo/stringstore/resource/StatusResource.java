@@ -1,5 +1,6 @@
 package com.foomoo.stringstore.resource;
 
+import com.foomoo.stringstore.message.MessageMediaType;
 import com.foomoo.stringstore.message.StatusSummaryMessage;
 import com.foomoo.stringstore.service.Status;
 import com.foomoo.stringstore.service.StatusService;
@@ -26,12 +27,13 @@ public class StatusResource {
      * @return A success response containing a {@link StatusSummaryMessage} entity.
      */
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
     public Response getStatus() {
 
         final Status status = statusService.getStatus();
 
-        final StatusSummaryMessage statusSummaryMessage = new StatusSummaryMessage(status.getStrings(), status.getRequests());
+        final StatusSummaryMessage statusSummaryMessage = new StatusSummaryMessage(status.getStrings(), status.getRequests(),
+                status.getDedupRatio(), status.getStoredBytes());
 
         return Response.ok(statusSummaryMessage).build();
     }
@@ -1,17 +1,45 @@
 package com.foomoo.stringstore.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foomoo.stringstore.message.AddStringBatchItemMessage;
 import com.foomoo.stringstore.message.AddStringRequestMessage;
+import com.foomoo.stringstore.message.AddStringResultMessage;
+import com.foomoo.stringstore.message.MessageMediaType;
+import com.foomoo.stringstore.message.StringContentMessage;
 import com.foomoo.stringstore.message.StringSummaryMessage;
+import com.foomoo.stringstore.message.StringSummaryPageMessage;
+import com.foomoo.stringstore.service.AddStringRequest;
 import com.foomoo.stringstore.service.AddStringResult;
+import com.foomoo.stringstore.service.EncodedContent;
+import com.foomoo.stringstore.service.InvalidContentException;
+import com.foomoo.stringstore.service.InvalidPageTokenException;
+import com.foomoo.stringstore.service.PageToken;
+import com.foomoo.stringstore.service.ServiceConfiguration;
+import com.foomoo.stringstore.service.SpooledContent;
+import com.foomoo.stringstore.service.StringContent;
+import com.foomoo.stringstore.service.StringSummary;
+import com.foomoo.stringstore.service.StringSummaryPage;
 import com.foomoo.stringstore.service.StringNotFoundException;
 import com.foomoo.stringstore.service.StringsService;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 
 import javax.inject.Inject;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.Variant;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Root resource for string requests.
@@ -19,6 +47,27 @@ import java.util.UUID;
 @Path("strings")
 public class StringsResource {
 
+    /**
+     * Media type of newline delimited JSON, where each line of the entity is a JSON value.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * Header giving the user adding a string when the content is uploaded as the request entity.
+     */
+    public static final String USER_HEADER = "X-String-Store-User";
+
+    /**
+     * Media type of string content, which is always served as UTF-8.
+     */
+    private static final String TEXT_PLAIN_UTF8 = MediaType.TEXT_PLAIN + ";charset=UTF-8";
+
+    // The media types messages are produced in, in order of preference.
+    private static final List<Variant> MESSAGE_VARIANTS = Variant.mediaTypes(MediaType.APPLICATION_JSON_TYPE,
+            MessageMediaType.APPLICATION_CBOR_TYPE, MessageMediaType.APPLICATION_SMILE_TYPE).build();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     @Inject
     private StringsService stringsService;
 
@@ -30,56 +79,453 @@ public class StringsResource {
      * @return A success response containing an {@link AddStringResult} entity.
      */
     @POST
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     public Response addString(@FormDataParam("request") AddStringRequestMessage addStringRequestMessage,
                               @FormDataParam("content") String content) {
 
         final AddStringResult addStringResult = stringsService.addString(addStringRequestMessage.getUser(), content);
+        ResourceMetrics.stringAdded(addStringResult, ResourceMetrics.utf8Length(content));
 
         return Response.ok(addStringResult).build();
     }
 
+    /**
+     * Adds a string to the store, reading the content from the request entity as a stream of UTF-8 text. The content
+     * is hashed as it is read and spooled to a bounded buffer, or to a temporary file once larger than
+     * {@link ServiceConfiguration#UPLOAD_MEMORY_THRESHOLD} bytes, so large content is never held in memory as a whole
+     * unless it is new to the store.
+     *
+     * @param user        The user adding the string, from the {@value #USER_HEADER} header.
+     * @param mediaType   The media type of the request entity.
+     * @param inputStream The string content to store.
+     * @return A success response containing an {@link AddStringResult} entity.
+     * @throws IOException             If the content cannot be read or spooled.
+     * @throws InvalidContentException If the content is not valid UTF-8.
+     */
+    @PUT
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    @Consumes(MediaType.TEXT_PLAIN)
+    public Response uploadString(@HeaderParam(USER_HEADER) final String user,
+                                 @HeaderParam(HttpHeaders.CONTENT_TYPE) final MediaType mediaType,
+                                 final InputStream inputStream) throws IOException, InvalidContentException {
+
+        if (user == null) {
+            throw new BadRequestException(String.format("Missing %s header", USER_HEADER));
+        }
+        final String charset = mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+        if (charset != null && !StandardCharsets.UTF_8.name().equalsIgnoreCase(charset)) {
+            throw new NotSupportedException(String.format("Unsupported charset %s", charset));
+        }
+
+        try (final SpooledContent content = SpooledContent.spool(inputStream, ServiceConfiguration.UPLOAD_MEMORY_THRESHOLD)) {
+            final AddStringResult addStringResult = stringsService.addString(user, content);
+            ResourceMetrics.stringAdded(addStringResult, content.getByteLength());
+
+            return Response.ok(addStringResult).build();
+        }
+    }
+
+    /**
+     * Adds a batch of strings to the store.
+     *
+     * @param items The users and content of the strings to be stored.
+     * @return A success response containing a {@link java.util.List} of {@link AddStringResultMessage} objects, one for
+     * each of the given items in the same order.
+     */
+    @POST
+    @Path("batch")
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    @Consumes({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    public Response addStrings(final List<AddStringBatchItemMessage> items) {
+
+        final List<AddStringRequest> requests = items.stream()
+                .map(item -> new AddStringRequest(item.getUser(), item.getContent()))
+                .collect(Collectors.toList());
+
+        final List<AddStringResult> addStringResults = stringsService.addStrings(requests);
+        for (int i = 0; i < addStringResults.size(); i++) {
+            ResourceMetrics.stringAdded(addStringResults.get(i), ResourceMetrics.utf8Length(items.get(i).getContent()));
+        }
+
+        final List<AddStringResultMessage> results = addStringResults.stream()
+                .map(StringsResource::toAddStringResultMessage)
+                .collect(Collectors.toList());
+
+        return Response.ok(results).build();
+    }
+
     /**
      * Gets summaries of the most recently added strings.
      *
      * @return A success response containing a {@link java.util.List} of {@link StringSummaryMessage} objects.
      */
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
     public Response getStrings() {
 
-        return Response.ok(stringsService.getStringSummaries()).build();
+        final List<StringSummaryMessage> summaries = stringsService.getStringSummaries()
+                .stream()
+                .map(StringsResource::toStringSummaryMessage)
+                .collect(Collectors.toList());
+
+        return Response.ok(summaries).build();
     }
 
     /**
-     * Get the summary for the string specified by the given string id.
+     * Gets a page of summaries from the listing of all strings, ordered by creation time and then string id.
      *
-     * @param stringId The string id.
-     * @return A success response containing a {@link StringSummaryMessage} entity.
+     * @param pageToken The next page token returned with the previous page, or absent for the first page.
+     * @param limit     The maximum number of summaries in the page. If absent the configured page size is used.
+     * @return A success response containing a {@link StringSummaryPageMessage} entity.
+     * @throws InvalidPageTokenException If the given page token cannot be decoded.
+     */
+    @GET
+    @Path("all")
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    public Response getStringSummaryPage(@QueryParam("pageToken") final String pageToken,
+                                         @QueryParam("limit") @DefaultValue("0") final int limit) throws InvalidPageTokenException {
+
+        final PageToken decodedPageToken = pageToken == null ? null : PageToken.decode(pageToken);
+        final int pageSize = limit <= 0 ? ServiceConfiguration.PAGE_SIZE : Math.min(limit, ServiceConfiguration.MAX_PAGE_SIZE);
+
+        final StringSummaryPage page = stringsService.getStringSummaryPage(decodedPageToken, pageSize);
+
+        final List<StringSummaryMessage> summaries = page.getSummaries().stream()
+                .map(StringsResource::toStringSummaryMessage)
+                .collect(Collectors.toList());
+        final String nextPageToken = page.getNextPageToken() == null ? null : page.getNextPageToken().encode();
+
+        return Response.ok(new StringSummaryPageMessage(summaries, nextPageToken)).build();
+    }
+
+    /**
+     * Gets summaries of all strings, ordered by creation time and then string id. The summaries are streamed as newline
+     * delimited JSON, with one {@link StringSummaryMessage} per line written as the strings are retrieved.
+     *
+     * @return A success response streaming a {@link StringSummaryMessage} for each string.
+     */
+    @GET
+    @Path("all/stream")
+    @Produces(APPLICATION_NDJSON)
+    public Response streamStringSummaries() {
+
+        final StreamingOutput streamingOutput = outputStream -> {
+            try {
+                stringsService.streamAllStringSummaries(stringSummary -> {
+                    try {
+                        outputStream.write(OBJECT_MAPPER.writeValueAsBytes(toStringSummaryMessage(stringSummary)));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return Response.ok(streamingOutput).build();
+    }
+
+    /**
+     * Get the summary for the string specified by the given string id. The response is tagged with an entity tag
+     * derived from the hash of the string content and the negotiated media type, and may be cached indefinitely. If the
+     * If-None-Match header matches the entity tag a Not Modified response is given, found by retrieving only the hash
+     * of the string. Otherwise the hash is retrieved with the summary.
+     *
+     * @param stringId    The string id.
+     * @param ifNoneMatch The If-None-Match header, or null if absent.
+     * @param request     The request, used to negotiate the media type of the summary.
+     * @return A success response containing a {@link StringSummaryMessage} entity, or a Not Modified response.
      * @throws StringNotFoundException If the string for the given string id cannot be found.
      */
     @GET
     @Path("{id}")
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response getStringSummary(@PathParam("id") final UUID stringId) throws StringNotFoundException {
+    @Produces({MediaType.APPLICATION_JSON, MessageMediaType.APPLICATION_CBOR, MessageMediaType.APPLICATION_SMILE})
+    public Response getStringSummary(@PathParam("id") final UUID stringId,
+                                     @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch,
+                                     @Context final Request request) throws StringNotFoundException {
+
+        // The summary is sent as JSON or in a binary format, each with its own tag, so caches must key it on Accept.
+        final Variant variant = request.selectVariant(MESSAGE_VARIANTS);
+        final MediaType mediaType = variant == null ? MediaType.APPLICATION_JSON_TYPE : variant.getMediaType();
+
+        String hash = null;
+        if (ifNoneMatch != null) {
+            hash = stringsService.getStringHash(stringId);
+            final EntityTag matchingEntityTag = EntityTags.matching(ifNoneMatch, EntityTags.of(hash, mediaType));
+            if (matchingEntityTag != null) {
+                return EntityTags.notModified(matchingEntityTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+            }
+        }
 
-        return Response.ok(stringsService.getStringSummary(stringId)).build();
+        final StringSummary summary = stringsService.getStringSummary(stringId);
+        hash = hashOf(stringId, hash != null ? hash : summary.getHash());
+
+        return EntityTags.cacheable(Response.ok(toStringSummaryMessage(summary), mediaType), EntityTags.of(hash, mediaType))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .build();
     }
 
     /**
-     * Gets the content of the string specified by the given string id.
+     * Gets the content of the string specified by the given string id. The content is streamed as UTF-8 as it is
+     * encoded rather than being buffered as a whole. A Range header requesting a single range of bytes is honoured
+     * with a Partial Content response containing those bytes. If the content is stored with a content coding accepted
+     * by the client, and no range is requested, the stored bytes are sent as they are with a Content-Encoding header.
+     * <p>
+     * Responses are tagged with an entity tag derived from the hash of the string content and the content coding sent,
+     * and may be cached indefinitely. The content coding is negotiated before the If-None-Match header is compared
+     * with the tag of the representation to be sent, so if it matches a Not Modified response is given having opened
+     * but not read the content.
      *
-     * @param stringId The string id.
-     * @return A success response containing the string content as a {@link String} entity.
+     * @param stringId       The string id.
+     * @param rangeHeader    The Range header, or null if absent.
+     * @param acceptEncoding The Accept-Encoding header, or null if absent.
+     * @param ifNoneMatch    The If-None-Match header, or null if absent.
+     * @return A success response streaming the string content, a partial content response streaming the requested
+     * range of the string content, or a Not Modified response.
      * @throws StringNotFoundException If the string for the given string id cannot be found.
+     * @throws IOException             If the length of the stored content cannot be found.
      */
     @GET
-    @Produces(MediaType.TEXT_PLAIN)
+    @Produces(TEXT_PLAIN_UTF8)
     @Path("{id}/content")
-    public Response getStringContent(@PathParam("id") final UUID stringId) throws StringNotFoundException {
+    public Response getStringContent(@PathParam("id") final UUID stringId,
+                                     @HeaderParam(ByteRange.RANGE) final String rangeHeader,
+                                     @HeaderParam(HttpHeaders.ACCEPT_ENCODING) final String acceptEncoding,
+                                     @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch)
+            throws StringNotFoundException, IOException {
+
+        final StringContent content = stringsService.openStringContent(stringId);
+        final String hash = hashOf(stringId, content.getHash());
+        // Ranges are of the unencoded content.
+        final EncodedContent encodedContent = rangeHeader == null ? acceptedEncodedContent(content, acceptEncoding) : null;
+
+        final EntityTag matchingEntityTag = EntityTags.matching(ifNoneMatch, contentEntityTag(hash, encodedContent));
+        if (matchingEntityTag != null) {
+            return EntityTags.notModified(matchingEntityTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        if (encodedContent != null) {
+            final StreamingOutput streamingOutput = encodedContent::writeTo;
+            ResourceMetrics.contentServed(encodedContent.getLength());
+            return encodedContentResponse(Response.ok(streamingOutput), encodedContent, hash).build();
+        }
+
+        final long contentLength = content.getByteLength();
+        final ByteRange byteRange = ByteRange.parse(rangeHeader, contentLength);
+
+        if (byteRange == null) {
+
+            final StreamingOutput streamingOutput = content::writeTo;
+            ResourceMetrics.contentServed(contentLength);
+            return contentResponse(Response.ok(streamingOutput), contentLength, hash).build();
+        }
+
+        final StreamingOutput streamingOutput = outputStream -> content.writeTo(outputStream, byteRange.getOffset(), byteRange.getLength());
+        ResourceMetrics.contentServed(byteRange.getLength());
+        return contentResponse(Response.status(Response.Status.PARTIAL_CONTENT).entity(streamingOutput), byteRange.getLength(), hash)
+                .header(ByteRange.CONTENT_RANGE, byteRange.toContentRange(contentLength))
+                .build();
+    }
+
+    /**
+     * Gets the headers of a request for the content of the string specified by the given string id, including the
+     * length of the content, without the content itself. Conditional requests are answered as for
+     * {@link #getStringContent(UUID, String, String, String)}.
+     *
+     * @param stringId       The string id.
+     * @param acceptEncoding The Accept-Encoding header, or null if absent.
+     * @param ifNoneMatch    The If-None-Match header, or null if absent.
+     * @return A success response with no entity, or a Not Modified response.
+     * @throws StringNotFoundException If the string for the given string id cannot be found.
+     * @throws IOException             If the length of the stored content cannot be found.
+     */
+    @HEAD
+    @Produces(TEXT_PLAIN_UTF8)
+    @Path("{id}/content")
+    public Response getStringContentHeaders(@PathParam("id") final UUID stringId,
+                                            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) final String acceptEncoding,
+                                            @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch)
+            throws StringNotFoundException, IOException {
+
+        final StringContent content = stringsService.openStringContent(stringId);
+        final String hash = hashOf(stringId, content.getHash());
+        final EncodedContent encodedContent = acceptedEncodedContent(content, acceptEncoding);
+
+        final EntityTag matchingEntityTag = EntityTags.matching(ifNoneMatch, contentEntityTag(hash, encodedContent));
+        if (matchingEntityTag != null) {
+            return EntityTags.notModified(matchingEntityTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        if (encodedContent != null) {
+            return encodedContentResponse(Response.ok(), encodedContent, hash).build();
+        }
+        return contentResponse(Response.ok(), content.getByteLength(), hash).build();
+    }
+
+    /**
+     * Gets the content of the strings specified by the given string ids. The content is streamed as newline delimited
+     * JSON, with one {@link StringContentMessage} per line written as soon as the string is retrieved. Strings which
+     * cannot be found are omitted, and strings are not necessarily written in the order of the given ids.
+     *
+     * @param stringIds The string ids.
+     * @return A success response streaming a {@link StringContentMessage} for each found string.
+     * @throws BadRequestException If no list of string ids is given.
+     */
+    @POST
+    @Path("content")
+    @Produces(APPLICATION_NDJSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response getStringsContent(final List<UUID> stringIds) {
+
+        if (stringIds == null) {
+            throw new BadRequestException("Missing list of string ids");
+        }
+
+        final StreamingOutput streamingOutput = outputStream -> {
+            try {
+                stringsService.streamStringsContent(stringIds, (stringId, content) -> {
+                    try {
+                        final byte[] line = OBJECT_MAPPER.writeValueAsBytes(new StringContentMessage(stringId, content));
+                        outputStream.write(line);
+                        outputStream.write('\n');
+                        ResourceMetrics.contentServed(line.length + 1);
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return Response.ok(streamingOutput).build();
+    }
+
+    /**
+     * Add the headers common to responses for string content to the given response builder.
+     *
+     * @param responseBuilder The response builder.
+     * @param contentLength   The number of bytes of content in the response.
+     * @param hash            The hash of the string content.
+     * @return The response builder.
+     */
+    private static Response.ResponseBuilder contentResponse(final Response.ResponseBuilder responseBuilder, final long contentLength,
+                                                            final String hash) {
+
+        return EntityTags.cacheable(responseBuilder, EntityTags.of(hash))
+                .header(ByteRange.ACCEPT_RANGES, ByteRange.BYTES_UNIT)
+                .header(HttpHeaders.CONTENT_LENGTH, contentLength)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Add the headers of a response for string content sent in its stored encoded form to the given response builder.
+     *
+     * @param responseBuilder The response builder.
+     * @param encodedContent  The encoded content.
+     * @param hash            The hash of the string content.
+     * @return The response builder.
+     * @throws IOException If the length of the encoded content cannot be found.
+     */
+    private static Response.ResponseBuilder encodedContentResponse(final Response.ResponseBuilder responseBuilder,
+                                                                   final EncodedContent encodedContent,
+                                                                   final String hash) throws IOException {
+
+        return contentResponse(responseBuilder, encodedContent.getLength(), hash)
+                .tag(contentEntityTag(hash, encodedContent))
+                .encoding(encodedContent.getContentCoding());
+    }
+
+    /**
+     * Get the entity tag of string content with the given hash, sent in the given encoded form or unencoded.
+     *
+     * @param hash           The hash of the string content.
+     * @param encodedContent The encoded content sent, or null if the content is sent unencoded.
+     * @return The entity tag.
+     */
+    private static EntityTag contentEntityTag(final String hash, final EncodedContent encodedContent) {
+        return encodedContent == null ? EntityTags.of(hash) : EntityTags.of(hash, encodedContent.getContentCoding());
+    }
+
+    /**
+     * Get the given content in its stored encoded form if the client accepts its content coding.
+     *
+     * @param content        The content.
+     * @param acceptEncoding The Accept-Encoding header, or null if absent.
+     * @return The {@link EncodedContent}, or null if the content is not stored encoded with an accepted content coding.
+     */
+    private static EncodedContent acceptedEncodedContent(final StringContent content, final String acceptEncoding) {
+        final EncodedContent encodedContent = content.getEncodedContent();
+        if (acceptEncoding == null || encodedContent == null) {
+            return null;
+        }
+
+        for (final String acceptedCoding : acceptEncoding.split(",")) {
+            final String[] codingAndParameters = acceptedCoding.trim().split(";");
+            if (codingAndParameters[0].trim().equalsIgnoreCase(encodedContent.getContentCoding()) && !isRejected(codingAndParameters)) {
+                return encodedContent;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determine whether an Accept-Encoding entry rejects its coding with a quality value of zero.
+     *
+     * @param codingAndParameters The coding and parameters of the entry.
+     * @return True if the coding is rejected, false otherwise.
+     */
+    private static boolean isRejected(final String[] codingAndParameters) {
+        for (int i = 1; i < codingAndParameters.length; i++) {
+            final String parameter = codingAndParameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the hash of the string with the given id, looking it up only if it was not retrieved with the string.
+     *
+     * @param stringId      The string id.
+     * @param retrievedHash The hash retrieved with the string, or null if not retrieved.
+     * @return The hash of the string content.
+     * @throws StringNotFoundException If the string for the given string id cannot be found.
+     */
+    private String hashOf(final UUID stringId, final String retrievedHash) throws StringNotFoundException {
+        return retrievedHash != null ? retrievedHash : stringsService.getStringHash(stringId);
+    }
+
+    /**
+     * Transform a StringSummary into a StringSummaryMessage.
+     *
+     * @param stringSummary The StringSummary to transform.
+     * @return The created StringSummaryMessage.
+     */
+    static StringSummaryMessage toStringSummaryMessage(final StringSummary stringSummary) {
+
+        return new StringSummaryMessage(stringSummary.getId(), stringSummary.getCreationEpoch(), stringSummary.getSize());
+    }
+
+    /**
+     * Transform an AddStringResult into an AddStringResultMessage.
+     *
+     * @param addStringResult The AddStringResult to transform.
+     * @return The created AddStringResultMessage.
+     */
+    private static AddStringResultMessage toAddStringResultMessage(final AddStringResult addStringResult) {
 
-        return Response.ok(stringsService.getStringContent(stringId)).build();
+        return new AddStringResultMessage(addStringResult.getStringId(), addStringResult.getRequestId(),
+                addStringResult.getUser(), addStringResult.isExistingString());
     }
 
 }
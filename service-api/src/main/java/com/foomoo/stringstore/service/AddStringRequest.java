@@ -0,0 +1,40 @@
+package com.foomoo.stringstore.service;
+
+/**
+ * Request to add a string to the string store, as one item of a batch.
+ */
+public class AddStringRequest {
+
+    private final String user;
+    private final String content;
+
+    /**
+     * Construct an AddStringRequest representing a request by the given user to add the given content.
+     *
+     * @param user    The user adding the string to the store.
+     * @param content The content to be added to the store.
+     */
+    public AddStringRequest(final String user, final String content) {
+        this.user = user;
+        this.content = content;
+    }
+
+    /**
+     * Get the user adding the string.
+     *
+     * @return The user.
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Get the content to be added.
+     *
+     * @return The content.
+     */
+    public String getContent() {
+        return content;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.foomoo.stringstore.service;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Provides the status of the storage service without blocking the calling thread.
+ */
+public interface AsyncStatusService {
+
+    /**
+     * Get the status of the service by reporting the number of strings and requests stored.
+     *
+     * @return A stage completing with the status of the service.
+     */
+    CompletionStage<Status> getStatus();
+
+}
@@ -0,0 +1,57 @@
+package com.foomoo.stringstore.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Provides the strings operations for the service without blocking the calling thread. Each operation returns a
+ * {@link CompletionStage} which completes when the operation has finished, so that many operations can be in progress
+ * while only a small number of threads are in use.
+ */
+public interface AsyncStringsService {
+
+    /**
+     * Adds a string to the store based on the given username and content, as described by
+     * {@link StringsService#addString(String, String)}.
+     *
+     * @param user    The user adding the string to the store.
+     * @param content The content to be added to the store.
+     * @return A stage completing with an {@link AddStringResult} describing the result of the add string operation.
+     */
+    CompletionStage<AddStringResult> addString(String user, String content);
+
+    /**
+     * Get summaries of the strings most recently added to the store.
+     *
+     * @return A stage completing with the {@link List} of {@link StringSummary} for the recently added strings.
+     */
+    CompletionStage<List<StringSummary>> getStringSummaries();
+
+    /**
+     * Get the summary of the string in the store identified by the given string id.
+     *
+     * @param id The string id of the string to summarise.
+     * @return A stage completing with the {@link StringSummary} of the string, or completing exceptionally with a
+     * {@link StringNotFoundException} if the string for the given string id cannot be found.
+     */
+    CompletionStage<StringSummary> getStringSummary(UUID id);
+
+    /**
+     * Get the content of the string in the store identified by the given string id.
+     *
+     * @param id The string id of the string.
+     * @return A stage completing with the content of the string, or completing exceptionally with a
+     * {@link StringNotFoundException} if the string for the given string id cannot be found.
+     */
+    CompletionStage<String> getStringContent(UUID id);
+
+    /**
+     * Get summaries of the add string requests most recently made against the store.
+     *
+     * @return A stage completing with the {@link List} of {@link RequestSummary} for the most recently made add string
+     * requests.
+     */
+    CompletionStage<List<RequestSummary>> getRequests();
+
+}
@@ -0,0 +1,210 @@
+package com.foomoo.stringstore.service;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Hashes string content to detect duplicates. The hash is of the content encoded as UTF-8, with unpaired surrogates
+ * replaced as by {@link String#getBytes(java.nio.charset.Charset)}, so the hash of a string is the same as the hash of
+ * its UTF-8 bytes.
+ * <p>
+ * Digests, encoders and buffers are reused from a bounded pool rather than held per thread, so that they are also reused
+ * by requests running on virtual threads, which are never reused themselves. The content is encoded into the buffer a
+ * chunk at a time rather than copied into a byte array as a whole, so hashing allocates only the resulting hash unless
+ * more threads are hashing at once than the pool holds.
+ */
+public final class ContentHasher {
+
+    /**
+     * The name of the SHA-1 hasher, producing 20 byte hashes.
+     */
+    public static final String SHA1 = "sha1";
+
+    /**
+     * The name of the SHA-256 hasher, producing 32 byte hashes.
+     */
+    public static final String SHA256 = "sha256";
+
+    // Initialised before the instance, which sizes its pool with it.
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * The hasher named by {@link ServiceConfiguration#HASH_ALGORITHM}.
+     */
+    public static final ContentHasher instance = forName(ServiceConfiguration.HASH_ALGORITHM);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String name;
+    private final String algorithm;
+    private final int hashLength;
+    private final BlockingQueue<State> states = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private ContentHasher(final String name, final String algorithm) {
+        this.name = name;
+        this.algorithm = algorithm;
+        this.hashLength = newDigest().getDigestLength();
+    }
+
+    /**
+     * Get the hasher with the given name.
+     *
+     * @param name The name of the hasher, as configured.
+     * @return The hasher.
+     * @throws IllegalStateException If no hasher has the given name.
+     */
+    public static ContentHasher forName(final String name) {
+        switch (name) {
+            case SHA1:
+                return new ContentHasher(name, "SHA-1");
+            case SHA256:
+                return new ContentHasher(name, "SHA-256");
+            default:
+                throw new IllegalStateException("Unknown hash algorithm: " + name);
+        }
+    }
+
+    /**
+     * Get the name of the hasher.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the length of the hashes produced by the hasher.
+     *
+     * @return The length in bytes.
+     */
+    public int getHashLength() {
+        return hashLength;
+    }
+
+    /**
+     * Create a digest of the hasher's algorithm, for hashing content received as UTF-8 bytes.
+     *
+     * @return The digest.
+     */
+    public MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Hash algorithm not available: " + algorithm, e);
+        }
+    }
+
+    /**
+     * Hash the given content.
+     *
+     * @param content The content.
+     * @return The hash.
+     */
+    public byte[] hash(final CharSequence content) {
+        final State pooledState = states.poll();
+        final State state = pooledState == null ? new State(newDigest()) : pooledState;
+        final MessageDigest digest = state.digest;
+        final CharsetEncoder encoder = state.encoder.reset();
+        final ByteBuffer buffer = state.buffer;
+
+        try {
+            final CharBuffer chars = CharBuffer.wrap(content);
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, buffer, true);
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            } while (result.isOverflow());
+
+            while (encoder.flush(buffer).isOverflow()) {
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            digest.update(buffer.array(), 0, buffer.position());
+
+            return digest.digest();
+        } finally {
+            // Reset in case hashing failed part way, so the state can be reused. States beyond the pool's capacity are
+            // dropped.
+            buffer.clear();
+            digest.reset();
+            states.offer(state);
+        }
+    }
+
+    /**
+     * Hash the given content, giving the hash as a hex string.
+     *
+     * @param content The content.
+     * @return The hash as lower case hex.
+     */
+    public String hashHex(final CharSequence content) {
+        return toHex(hash(content));
+    }
+
+    /**
+     * Convert the given hash to a hex string.
+     *
+     * @param hash The hash.
+     * @return The hash as lower case hex.
+     */
+    public static String toHex(final byte[] hash) {
+        final char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Convert the given hex string to a hash.
+     *
+     * @param hex The hash as hex.
+     * @return The hash.
+     * @throws IllegalArgumentException If the string is not hex.
+     */
+    public static byte[] fromHex(final String hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Odd length hex: " + hex);
+        }
+
+        final byte[] hash = new byte[hex.length() / 2];
+        for (int i = 0; i < hash.length; i++) {
+            final int high = Character.digit(hex.charAt(i * 2), 16);
+            final int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Invalid hex: " + hex);
+            }
+            hash[i] = (byte) ((high << 4) | low);
+        }
+        return hash;
+    }
+
+    /**
+     * The digest, encoder and buffer of a thread.
+     */
+    private static final class State {
+        private final MessageDigest digest;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private State(final MessageDigest digest) {
+            this.digest = digest;
+        }
+    }
+
+}
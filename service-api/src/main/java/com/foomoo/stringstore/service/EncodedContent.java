@@ -0,0 +1,35 @@
+package com.foomoo.stringstore.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The content of a string in a stored form encoded with an HTTP content coding, which can be sent to clients accepting
+ * that coding without being decoded and encoded again.
+ */
+public interface EncodedContent {
+
+    /**
+     * Get the HTTP content coding of the encoded content, such as "deflate".
+     *
+     * @return The content coding.
+     */
+    String getContentCoding();
+
+    /**
+     * Get the length of the encoded content in bytes.
+     *
+     * @return The length in bytes.
+     * @throws IOException If the length cannot be found.
+     */
+    long getLength() throws IOException;
+
+    /**
+     * Write the encoded content to the given stream.
+     *
+     * @param outputStream The stream to write to. The stream is not closed.
+     * @throws IOException If the content cannot be written.
+     */
+    void writeTo(OutputStream outputStream) throws IOException;
+
+}
@@ -0,0 +1,17 @@
+package com.foomoo.stringstore.service;
+
+/**
+ * Thrown to indicate that content to be added to the string store is not valid.
+ */
+public class InvalidContentException extends Throwable {
+
+    /**
+     * Constructs a new InvalidContentException with the given reason.
+     *
+     * @param reason The reason the content is not valid.
+     */
+    public InvalidContentException(final String reason) {
+        super(String.format("Invalid content: %s", reason));
+    }
+
+}
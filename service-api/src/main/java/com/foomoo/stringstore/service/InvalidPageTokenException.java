@@ -0,0 +1,17 @@
+package com.foomoo.stringstore.service;
+
+/**
+ * Thrown to indicate that a page token could not be decoded.
+ */
+public class InvalidPageTokenException extends Throwable {
+
+    /**
+     * Constructs a new InvalidPageTokenException indicating that the given page token could not be decoded.
+     *
+     * @param pageToken The page token that could not be decoded.
+     */
+    public InvalidPageTokenException(final String pageToken) {
+        super(String.format("Invalid page token: %s", pageToken));
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.foomoo.stringstore.service;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the listing of all strings, ordered by creation time and then string id. A page of strings starts with
+ * the first string after the position given by its page token.
+ */
+public class PageToken {
+
+    private static final int ENCODED_BYTES = Long.BYTES * 3;
+
+    private final long creationEpoch;
+    private final UUID id;
+
+    /**
+     * Construct a PageToken for the position of the string with the given creation time and id.
+     *
+     * @param creationEpoch The creation time of the last string of the previous page, specified as unix epoch time (the
+     *                      number of milliseconds since the unix epoch).
+     * @param id            The id of the last string of the previous page.
+     */
+    public PageToken(final long creationEpoch, final UUID id) {
+        this.creationEpoch = creationEpoch;
+        this.id = id;
+    }
+
+    /**
+     * Get the creation time of the last string of the previous page.
+     *
+     * @return The unix epoch time that the string was created.
+     */
+    public long getCreationEpoch() {
+        return creationEpoch;
+    }
+
+    /**
+     * Get the id of the last string of the previous page.
+     *
+     * @return The string id.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Encode this page token as an opaque URL safe string.
+     *
+     * @return The encoded page token.
+     */
+    public String encode() {
+        final ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(creationEpoch)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decode a page token previously encoded by {@link #encode()}.
+     *
+     * @param encodedPageToken The encoded page token.
+     * @return The decoded page token.
+     * @throws InvalidPageTokenException If the given string is not an encoded page token.
+     */
+    public static PageToken decode(final String encodedPageToken) throws InvalidPageTokenException {
+        final byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(encodedPageToken);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageTokenException(encodedPageToken);
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new InvalidPageTokenException(encodedPageToken);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new PageToken(buffer.getLong(), new UUID(buffer.getLong(), buffer.getLong()));
+    }
+
+}
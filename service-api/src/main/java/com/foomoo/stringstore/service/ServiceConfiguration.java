@@ -0,0 +1,100 @@
+package com.foomoo.stringstore.service;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.commons.configuration2.builder.fluent.Configurations;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Configuration of service parameters.
+ */
+public class ServiceConfiguration {
+
+    /**
+     * The number of most recent strings listed.
+     */
+    public static final int RECENT_STRING_COUNT;
+
+    /**
+     * The number of most recent requests listed.
+     */
+    public static final int RECENT_REQUEST_COUNT;
+
+    /**
+     * The number of string summaries in a page when no limit is requested.
+     */
+    public static final int PAGE_SIZE;
+
+    /**
+     * The largest number of string summaries a page may be requested to hold.
+     */
+    public static final int MAX_PAGE_SIZE;
+
+    /**
+     * The service provider backing the string store, either "mongo" or "memory".
+     */
+    public static final String PROVIDER;
+
+    /**
+     * The number of bytes of streamed upload content held in memory before the content is spooled to a temporary file.
+     */
+    public static final int UPLOAD_MEMORY_THRESHOLD;
+
+    /**
+     * The number of seconds for which clients and caches may reuse responses for strings, which never change.
+     */
+    public static final int CACHE_MAX_AGE;
+
+    /**
+     * The name of the {@link ContentHasher} hashing string content to detect duplicates, either "sha1" or "sha256".
+     */
+    public static final String HASH_ALGORITHM;
+
+    /**
+     * The number of milliseconds after which an operation is recorded as slow, or a negative number to record none.
+     */
+    public static final long SLOW_OPERATION_THRESHOLD_MS;
+
+    /**
+     * The number of most recent slow operations held.
+     */
+    public static final int SLOW_OPERATION_BUFFER_SIZE;
+
+    private static final String PROPERTIES_FILE_PATH_SYSTEM_PROPERTY = "string.store.service.properties";
+    private static final String DEFAULT_PROPERTIES_FILE_PATH = "/opt/stringstore/conf/service.properties";
+
+    /**
+     * Initialise this class based on the properties file found at path DEFAULT_PROPERTIES_FILE_PATH.
+     * If the file cannot be found or it is missing any configuration items then default values will be used.
+     */
+    static {
+        try {
+            final Configurations configurations = new Configurations();
+
+            final Path configFilePath = Paths.get(System.getProperty(PROPERTIES_FILE_PATH_SYSTEM_PROPERTY, DEFAULT_PROPERTIES_FILE_PATH));
+            final PropertiesConfiguration configuration;
+            if (Files.isReadable(configFilePath)) {
+                configuration = configurations.properties(configFilePath.toFile());
+            } else {
+                configuration = new PropertiesConfiguration();
+            }
+
+            RECENT_STRING_COUNT = configuration.getInt("recent.string.count", 10);
+            RECENT_REQUEST_COUNT = configuration.getInt("recent.request.count", 10);
+            PAGE_SIZE = configuration.getInt("page.size", 100);
+            MAX_PAGE_SIZE = configuration.getInt("page.size.max", 1000);
+            PROVIDER = configuration.getString("provider", "mongo");
+            UPLOAD_MEMORY_THRESHOLD = configuration.getInt("upload.memory.threshold", 64 * 1024);
+            CACHE_MAX_AGE = configuration.getInt("cache.max.age", 365 * 24 * 60 * 60);
+            HASH_ALGORITHM = configuration.getString("hash.algorithm", ContentHasher.SHA1);
+            SLOW_OPERATION_THRESHOLD_MS = configuration.getLong("slow.operation.threshold.ms", 500);
+            SLOW_OPERATION_BUFFER_SIZE = configuration.getInt("slow.operation.buffer.size", 100);
+        } catch (ConfigurationException configurationException) {
+            throw new ExceptionInInitializerError(configurationException);
+        }
+    }
+
+}
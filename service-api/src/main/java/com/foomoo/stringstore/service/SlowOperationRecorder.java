@@ -0,0 +1,215 @@
+package com.foomoo.stringstore.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Records operations of the service which take longer than a threshold, with the time taken by each of their phases.
+ * <p>
+ * Each thread times its operations with a single reusable {@link OperationTimer}, which marks the end of each phase
+ * with {@link System#nanoTime()} into preallocated arrays, so timing an operation allocates nothing. Only operations
+ * over the threshold are copied into a preallocated ring buffer holding the most recent slow operations, and logged.
+ * Operations started while the thread is already timing an operation are not timed separately, their phases being
+ * part of the enclosing operation.
+ * <p>
+ * The timer is held per thread to detect such nesting, so requests run on virtual threads, which are never reused,
+ * each allocate their own timer.
+ */
+public class SlowOperationRecorder implements SlowOperationsService {
+
+    private static final Logger LOGGER = Logger.getLogger(SlowOperationRecorder.class.getName());
+
+    /**
+     * The maximum number of phases recorded for an operation. Later phases are included only in its duration.
+     */
+    static final int MAX_PHASES = 8;
+
+    /**
+     * The recorder with the threshold of {@link ServiceConfiguration#SLOW_OPERATION_THRESHOLD_MS} and the buffer of
+     * {@link ServiceConfiguration#SLOW_OPERATION_BUFFER_SIZE}.
+     */
+    public static final SlowOperationRecorder instance = new SlowOperationRecorder(
+            ServiceConfiguration.SLOW_OPERATION_THRESHOLD_MS < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(ServiceConfiguration.SLOW_OPERATION_THRESHOLD_MS),
+            ServiceConfiguration.SLOW_OPERATION_BUFFER_SIZE);
+
+    private static final OperationTimer NOT_TIMED = new OperationTimer(null);
+
+    private final long thresholdNanos;
+    private final Slot[] slots;
+    private final ThreadLocal<OperationTimer> timers = ThreadLocal.withInitial(() -> new OperationTimer(this));
+    private long recorded;
+
+    /**
+     * Construct a SlowOperationRecorder.
+     *
+     * @param thresholdNanos The duration in nanoseconds after which an operation is recorded as slow, or a negative
+     *                       number to record none.
+     * @param capacity       The number of most recent slow operations held.
+     */
+    SlowOperationRecorder(final long thresholdNanos, final int capacity) {
+        this.thresholdNanos = thresholdNanos;
+        this.slots = new Slot[Math.max(1, capacity)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Start timing an operation on the current thread. The first phase starts with the operation, and the operation is
+     * recorded if slow when the returned timer is closed.
+     *
+     * @param operation The name of the operation.
+     * @return The timer of the operation, which must be closed by the current thread.
+     */
+    public OperationTimer start(final String operation) {
+        if (thresholdNanos < 0) {
+            return NOT_TIMED;
+        }
+
+        final OperationTimer timer = timers.get();
+        if (timer.operation != null) {
+            return NOT_TIMED;
+        }
+        timer.start(operation);
+        return timer;
+    }
+
+    /**
+     * Get the most recent slow operations.
+     *
+     * @return The slow operations held, most recent first.
+     */
+    @Override
+    public synchronized List<SlowOperation> getSlowOperations() {
+        final int count = (int) Math.min(recorded, slots.length);
+        final List<SlowOperation> slowOperations = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            slowOperations.add(slots[(int) ((recorded - i) % slots.length)].toSlowOperation());
+        }
+        return slowOperations;
+    }
+
+    /**
+     * Record the given timed operation in the ring buffer and log it.
+     *
+     * @param timer         The timer of the operation.
+     * @param durationNanos The time taken by the operation in nanoseconds.
+     */
+    private void record(final OperationTimer timer, final long durationNanos) {
+        final long epoch = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(durationNanos);
+
+        final Slot slot;
+        synchronized (this) {
+            slot = slots[(int) (recorded++ % slots.length)];
+            slot.copy(timer, epoch, durationNanos);
+        }
+
+        final StringBuilder message = new StringBuilder()
+                .append("Slow operation ").append(timer.operation)
+                .append(" took ").append(TimeUnit.NANOSECONDS.toMicros(durationNanos)).append("us");
+        for (int i = 0; i < timer.phaseCount; i++) {
+            message.append(i == 0 ? ": " : ", ")
+                    .append(timer.phaseNames[i]).append('=').append(TimeUnit.NANOSECONDS.toMicros(timer.phaseNanos[i])).append("us");
+        }
+        LOGGER.warning(message.toString());
+    }
+
+    /**
+     * Times the phases of an operation on a single thread. A timer is reused for each operation timed by its thread.
+     */
+    public static final class OperationTimer implements AutoCloseable {
+
+        private final SlowOperationRecorder recorder;
+        private final String[] phaseNames = new String[MAX_PHASES];
+        private final long[] phaseNanos = new long[MAX_PHASES];
+        private String operation;
+        private long startNanos;
+        private long phaseStartNanos;
+        private int phaseCount;
+
+        private OperationTimer(final SlowOperationRecorder recorder) {
+            this.recorder = recorder;
+        }
+
+        /**
+         * Reset the timer to time the given operation, starting now.
+         *
+         * @param operation The name of the operation.
+         */
+        private void start(final String operation) {
+            this.operation = operation;
+            this.phaseCount = 0;
+            this.startNanos = System.nanoTime();
+            this.phaseStartNanos = startNanos;
+        }
+
+        /**
+         * End the current phase of the operation, giving it the given name, and start the next phase.
+         *
+         * @param name The name of the ending phase.
+         */
+        public void phase(final String name) {
+            if (recorder == null) {
+                return;
+            }
+
+            final long now = System.nanoTime();
+            if (phaseCount < MAX_PHASES) {
+                phaseNames[phaseCount] = name;
+                phaseNanos[phaseCount] = now - phaseStartNanos;
+                phaseCount++;
+            }
+            phaseStartNanos = now;
+        }
+
+        /**
+         * End the operation, recording it if it took longer than the threshold.
+         */
+        @Override
+        public void close() {
+            if (recorder == null) {
+                return;
+            }
+
+            final long durationNanos = System.nanoTime() - startNanos;
+            if (durationNanos >= recorder.thresholdNanos) {
+                recorder.record(this, durationNanos);
+            }
+            operation = null;
+        }
+    }
+
+    /**
+     * An entry of the ring buffer, overwritten in place by each slow operation recorded in it.
+     */
+    private static final class Slot {
+        private final String[] phaseNames = new String[MAX_PHASES];
+        private final long[] phaseNanos = new long[MAX_PHASES];
+        private String operation;
+        private long epoch;
+        private long durationNanos;
+        private int phaseCount;
+
+        private void copy(final OperationTimer timer, final long epoch, final long durationNanos) {
+            this.operation = timer.operation;
+            this.epoch = epoch;
+            this.durationNanos = durationNanos;
+            this.phaseCount = timer.phaseCount;
+            System.arraycopy(timer.phaseNames, 0, phaseNames, 0, phaseCount);
+            System.arraycopy(timer.phaseNanos, 0, phaseNanos, 0, phaseCount);
+        }
+
+        private SlowOperation toSlowOperation() {
+            final Map<String, Long> phases = new LinkedHashMap<>();
+            for (int i = 0; i < phaseCount; i++) {
+                phases.merge(phaseNames[i], phaseNanos[i], Long::sum);
+            }
+            return new SlowOperation(operation, epoch, durationNanos, phases);
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.foomoo.stringstore.service;
+
+import java.util.List;
+
+/**
+ * Provides the operations of the service which took longer than the slow operation threshold.
+ */
+public interface SlowOperationsService {
+
+    /**
+     * Get the most recent slow operations.
+     *
+     * @return The slow operations, most recent first.
+     */
+    List<SlowOperation> getSlowOperations();
+
+}
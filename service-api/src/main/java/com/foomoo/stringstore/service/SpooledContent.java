@@ -0,0 +1,197 @@
+package com.foomoo.stringstore.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+
+/**
+ * String content received as a stream of UTF-8 bytes. While the stream is read the hash of the content, using the
+ * algorithm of the {@link ContentHasher}, and the length of the content in characters are calculated incrementally,
+ * and the bytes are spooled to memory, or to a temporary file once they exceed a threshold, so that the memory used
+ * while receiving content is bounded however large the content is.
+ * <p>
+ * The hash and length are the same as those of the content as a {@link String}, so spooled content can be checked for
+ * duplicates without being converted to a {@link String}. Closing the spooled content deletes any temporary file.
+ */
+public class SpooledContent implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final byte[] memoryBytes;
+    private final Path file;
+    private final long byteLength;
+    private final int length;
+    private final String hashHex;
+
+    private SpooledContent(final byte[] memoryBytes, final Path file, final long byteLength, final int length, final String hashHex) {
+        this.memoryBytes = memoryBytes;
+        this.file = file;
+        this.byteLength = byteLength;
+        this.length = length;
+        this.hashHex = hashHex;
+    }
+
+    /**
+     * Read the given stream of UTF-8 bytes to its end, spooling the bytes to memory until more than the given number
+     * of bytes have been read, and to a temporary file after that.
+     *
+     * @param inputStream     The stream to read. The stream is not closed.
+     * @param memoryThreshold The maximum number of bytes to hold in memory.
+     * @return The spooled content.
+     * @throws IOException             If the stream cannot be read or the temporary file cannot be written.
+     * @throws InvalidContentException If the stream is not valid UTF-8.
+     */
+    public static SpooledContent spool(final InputStream inputStream, final int memoryThreshold) throws IOException, InvalidContentException {
+        final MessageDigest digest = ContentHasher.instance.newDigest();
+        final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+        final CharBuffer charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+
+        final ByteArrayOutputStream memorySpool = new ByteArrayOutputStream();
+        OutputStream spool = memorySpool;
+        Path file = null;
+
+        long byteLength = 0;
+        long length = 0;
+        try {
+            int read;
+            while ((read = inputStream.read(byteBuffer.array(), byteBuffer.position(), byteBuffer.remaining())) != -1) {
+                if (file == null && byteLength + read > memoryThreshold) {
+                    file = Files.createTempFile("string-store-upload", ".tmp");
+                    spool = Files.newOutputStream(file);
+                    memorySpool.writeTo(spool);
+                }
+
+                digest.update(byteBuffer.array(), byteBuffer.position(), read);
+                spool.write(byteBuffer.array(), byteBuffer.position(), read);
+                byteLength += read;
+
+                byteBuffer.position(byteBuffer.position() + read);
+                byteBuffer.flip();
+                length += decode(decoder, byteBuffer, charBuffer, false);
+                byteBuffer.compact();
+            }
+
+            byteBuffer.flip();
+            length += decode(decoder, byteBuffer, charBuffer, true);
+            decoder.flush(charBuffer);
+            length += charBuffer.position();
+
+            if (length > Integer.MAX_VALUE) {
+                throw new InvalidContentException("Content is too long");
+            }
+        } catch (IOException | InvalidContentException | RuntimeException e) {
+            spool.close();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+        spool.close();
+
+        final byte[] memoryBytes = file == null ? memorySpool.toByteArray() : null;
+        return new SpooledContent(memoryBytes, file, byteLength, (int) length, ContentHasher.toHex(digest.digest()));
+    }
+
+    /**
+     * Decode the bytes remaining in the given byte buffer, counting the decoded characters. Bytes of an incomplete
+     * character at the end of the buffer are left in the buffer unless the end of the input has been reached.
+     *
+     * @param decoder    The UTF-8 decoder.
+     * @param byteBuffer The bytes to decode.
+     * @param charBuffer A buffer to decode characters into, which is cleared after each use.
+     * @param endOfInput Whether there are no further bytes to decode.
+     * @return The number of characters decoded.
+     * @throws InvalidContentException If the bytes are not valid UTF-8.
+     */
+    private static long decode(final CharsetDecoder decoder, final ByteBuffer byteBuffer, final CharBuffer charBuffer,
+                               final boolean endOfInput) throws InvalidContentException {
+        long length = 0;
+        CoderResult result;
+        do {
+            result = decoder.decode(byteBuffer, charBuffer, endOfInput);
+            length += charBuffer.position();
+            charBuffer.clear();
+        } while (result.isOverflow());
+
+        if (result.isError()) {
+            throw new InvalidContentException("Content is not valid UTF-8");
+        }
+        return length;
+    }
+
+    /**
+     * Get the length of the content in characters, which is the length of the content as a {@link String}.
+     *
+     * @return The length.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Get the length of the content in UTF-8 bytes.
+     *
+     * @return The length in bytes.
+     */
+    public long getByteLength() {
+        return byteLength;
+    }
+
+    /**
+     * Get the hash of the content as a hex string.
+     *
+     * @return The hash.
+     */
+    public String getHashHex() {
+        return hashHex;
+    }
+
+    /**
+     * Open a stream of the content as UTF-8 bytes.
+     *
+     * @return The stream.
+     * @throws IOException If the temporary file cannot be read.
+     */
+    public InputStream openStream() throws IOException {
+        return memoryBytes != null ? new ByteArrayInputStream(memoryBytes) : Files.newInputStream(file);
+    }
+
+    /**
+     * Read the content as a {@link String}.
+     *
+     * @return The content.
+     * @throws IOException If the temporary file cannot be read.
+     */
+    public String readContent() throws IOException {
+        return new String(memoryBytes != null ? memoryBytes : Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Delete the temporary file, if the content was spooled to one.
+     *
+     * @throws IOException If the temporary file cannot be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
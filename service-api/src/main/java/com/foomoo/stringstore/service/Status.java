@@ -7,6 +7,7 @@ public class Status {
 
     private final long strings;
     private final long requests;
+    private final Long storedBytes;
 
     /**
      * Construct a Status object representing the state of the storage service with the given number of strings and
@@ -16,8 +17,21 @@ public class Status {
      * @param requests The number of requests to store strings received by the service.
      */
     public Status(final long strings, final long requests) {
+        this(strings, requests, null);
+    }
+
+    /**
+     * Construct a Status object representing the state of the storage service with the given number of strings and
+     * requests and the given number of bytes stored.
+     *
+     * @param strings     The number of strings stored by the service.
+     * @param requests    The number of requests to store strings received by the service.
+     * @param storedBytes The number of bytes stored by the service, or null if not reported.
+     */
+    public Status(final long strings, final long requests, final Long storedBytes) {
         this.strings = strings;
         this.requests = requests;
+        this.storedBytes = storedBytes;
     }
 
     /**
@@ -38,4 +52,26 @@ public class Status {
         return requests;
     }
 
+    /**
+     * Get the number of bytes stored by the storage service.
+     *
+     * @return The number of bytes, or null if not reported.
+     */
+    public Long getStoredBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * Get the ratio of requests to store strings to strings stored, showing how many requests are served by each
+     * stored string through duplicate detection. Reported along with the number of bytes stored.
+     *
+     * @return The ratio, or null if not reported or no strings are stored.
+     */
+    public Double getDedupRatio() {
+        if (storedBytes == null || strings == 0) {
+            return null;
+        }
+        return (double) requests / strings;
+    }
+
 }
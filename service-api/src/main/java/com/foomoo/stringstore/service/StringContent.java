@@ -0,0 +1,57 @@
+package com.foomoo.stringstore.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The content of a string as UTF-8 bytes, which can be written in whole or in part without first being copied into a
+ * single byte array.
+ */
+public interface StringContent {
+
+    /**
+     * Get the length of the content in UTF-8 bytes.
+     *
+     * @return The length in bytes.
+     */
+    long getByteLength();
+
+    /**
+     * Write a range of the UTF-8 bytes of the content to the given stream.
+     *
+     * @param outputStream The stream to write to. The stream is not closed.
+     * @param offset       The offset of the first byte to write.
+     * @param length       The number of bytes to write.
+     * @throws IOException If the content cannot be written.
+     */
+    void writeTo(OutputStream outputStream, long offset, long length) throws IOException;
+
+    /**
+     * Write all the UTF-8 bytes of the content to the given stream.
+     *
+     * @param outputStream The stream to write to. The stream is not closed.
+     * @throws IOException If the content cannot be written.
+     */
+    default void writeTo(final OutputStream outputStream) throws IOException {
+        writeTo(outputStream, 0, getByteLength());
+    }
+
+    /**
+     * Get the content in its stored form, if it is stored encoded with an HTTP content coding.
+     *
+     * @return The {@link EncodedContent}, or null if the content is not stored with an HTTP content coding.
+     */
+    default EncodedContent getEncodedContent() {
+        return null;
+    }
+
+    /**
+     * Get the hash of the content, if retrieved with the content.
+     *
+     * @return The hash as hex, or null if not retrieved.
+     */
+    default String getHash() {
+        return null;
+    }
+
+}
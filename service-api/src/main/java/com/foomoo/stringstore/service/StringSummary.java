@@ -9,9 +9,10 @@ public class StringSummary {
     private final UUID id;
     private final long creationEpoch;
     private final int size;
+    private final String hash;
 
     /**
-     * Construct a StringSummary representing a string in storage.
+     * Construct a StringSummary representing a string in storage, without the hash of its content.
      *
      * @param id            The string id.
      * @param creationEpoch The time that the string was created in storage specified as unix epoch time (the number of
@@ -19,9 +20,23 @@ public class StringSummary {
      * @param size          The size of the string in storage.
      */
     public StringSummary(final UUID id, final long creationEpoch, final int size) {
+        this(id, creationEpoch, size, null);
+    }
+
+    /**
+     * Construct a StringSummary representing a string in storage.
+     *
+     * @param id            The string id.
+     * @param creationEpoch The time that the string was created in storage specified as unix epoch time (the number of
+     *                      milliseconds since the unix epoch).
+     * @param size          The size of the string in storage.
+     * @param hash          The hash of the string content as hex, or null if not retrieved with the summary.
+     */
+    public StringSummary(final UUID id, final long creationEpoch, final int size, final String hash) {
         this.id = id;
         this.creationEpoch = creationEpoch;
         this.size = size;
+        this.hash = hash;
     }
 
     /**
@@ -51,4 +66,13 @@ public class StringSummary {
         return size;
     }
 
+    /**
+     * Get the hash of the string content, if retrieved with the summary.
+     *
+     * @return The hash as hex, or null if not retrieved.
+     */
+    public String getHash() {
+        return hash;
+    }
+
 }
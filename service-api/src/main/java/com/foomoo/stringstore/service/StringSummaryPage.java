@@ -0,0 +1,42 @@
+package com.foomoo.stringstore.service;
+
+import java.util.List;
+
+/**
+ * A page of summaries from the listing of all strings, ordered by creation time and then string id.
+ */
+public class StringSummaryPage {
+
+    private final List<StringSummary> summaries;
+    private final PageToken nextPageToken;
+
+    /**
+     * Construct a StringSummaryPage holding the given summaries.
+     *
+     * @param summaries     The summaries of the strings in the page.
+     * @param nextPageToken The token for the next page, or null if this is the last page.
+     */
+    public StringSummaryPage(final List<StringSummary> summaries, final PageToken nextPageToken) {
+        this.summaries = summaries;
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Get the summaries of the strings in the page.
+     *
+     * @return The {@link List} of {@link StringSummary} in the page.
+     */
+    public List<StringSummary> getSummaries() {
+        return summaries;
+    }
+
+    /**
+     * Get the token for the next page.
+     *
+     * @return The next page token, or null if this is the last page.
+     */
+    public PageToken getNextPageToken() {
+        return nextPageToken;
+    }
+
+}
@@ -1,8 +1,13 @@
 package com.foomoo.stringstore.service;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Provides the strings operations for the service.
@@ -24,6 +29,39 @@ public interface StringsService {
      */
     AddStringResult addString(String user, String content);
 
+    /**
+     * Adds a string to the store based on the given username and spooled content, with the same duplicate detection
+     * and request recording as {@link #addString(String, String)}.
+     * <p>
+     * The default implementation reads the spooled content into a {@link String}. Implementations may override this to
+     * detect duplicates from the hash and length of the spooled content without reading it.
+     *
+     * @param user    The user adding the string to the store.
+     * @param content The spooled content to be added to the store.
+     * @return An {@link AddStringResult} describing the result of the add string operation.
+     * @throws IOException If the spooled content cannot be read.
+     */
+    default AddStringResult addString(final String user, final SpooledContent content) throws IOException {
+        return addString(user, content.readContent());
+    }
+
+    /**
+     * Adds a batch of strings to the store, with the same duplicate detection and request recording as
+     * {@link #addString(String, String)}. Where content is repeated within the batch, the first occurrence adds the
+     * string and later occurrences find it as an existing string.
+     * <p>
+     * The default implementation adds each string in turn. Implementations may override this to hash and store the
+     * batch more efficiently.
+     *
+     * @param requests The strings to add.
+     * @return An {@link AddStringResult} for each of the given requests, in the same order as the requests.
+     */
+    default List<AddStringResult> addStrings(final List<AddStringRequest> requests) {
+        return requests.stream()
+                .map(request -> addString(request.getUser(), request.getContent()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Get summaries of the strings most recently added to the store.
      *
@@ -32,12 +70,31 @@ public interface StringsService {
     List<StringSummary> getStringSummaries();
 
     /**
-     * Get summaries of all the strings in the store.
+     * Get summaries of all the strings in the store, ordered by creation time and then string id.
      *
      * @return The {@link List} of {@link StringSummary} for all strings in the store.
      */
     List<StringSummary> getAllStringSummaries();
 
+    /**
+     * Get a page of summaries from the listing of all the strings in the store, ordered by creation time and then
+     * string id. Pages are found by position rather than by offset, so each page costs the same to retrieve however
+     * far through the listing it is.
+     *
+     * @param pageToken The token returned with the previous page, or null for the first page.
+     * @param limit     The maximum number of summaries in the page.
+     * @return The {@link StringSummaryPage}.
+     */
+    StringSummaryPage getStringSummaryPage(PageToken pageToken, int limit);
+
+    /**
+     * Pass the summaries of all the strings in the store, ordered by creation time and then string id, to the given
+     * consumer as they are retrieved. The consumer is called on the calling thread.
+     *
+     * @param consumer Accepts the {@link StringSummary} of each string.
+     */
+    void streamAllStringSummaries(Consumer<StringSummary> consumer);
+
     /**
      * Get the summary of the string in the store identified by the given string id.
      *
@@ -47,6 +104,17 @@ public interface StringsService {
      */
     StringSummary getStringSummary(UUID id) throws StringNotFoundException;
 
+    /**
+     * Get the SHA1 hash of the content of the string in the store identified by the given string id, without retrieving
+     * the content. Strings never change once stored, so the hash identifies the content of the string for as long as
+     * the string exists.
+     *
+     * @param id The string id of the string.
+     * @return The SHA1 hash of the string content, as a hex string.
+     * @throws StringNotFoundException If the string for the given string id cannot be found.
+     */
+    String getStringHash(UUID id) throws StringNotFoundException;
+
     /**
      * Get the content of the string in the store identified by the given string id.
      *
@@ -56,6 +124,21 @@ public interface StringsService {
      */
     String getStringContent(UUID id) throws StringNotFoundException;
 
+    /**
+     * Get the content of the string in the store identified by the given string id as {@link StringContent}, which can
+     * be written in whole or in part as UTF-8 bytes.
+     * <p>
+     * The default implementation wraps the content returned by {@link #getStringContent(UUID)}. Implementations may
+     * override this to write the content from its stored form.
+     *
+     * @param id The string id of the string.
+     * @return The {@link StringContent} of the string.
+     * @throws StringNotFoundException If the string for the given string id cannot be found.
+     */
+    default StringContent openStringContent(final UUID id) throws StringNotFoundException {
+        return new Utf8StringContent(getStringContent(id));
+    }
+
     /**
      * Get the content of the strings identified by the given string ids. Strings will be returned in a map keyed by the
      * string id. Any strings that cannot be found by id will be absent from the returned list.
@@ -65,6 +148,21 @@ public interface StringsService {
      */
     Map<UUID, String> getStringsContent(UUID... ids);
 
+    /**
+     * Pass the content of the strings identified by the given string ids to the given consumer as the strings are
+     * retrieved, rather than collecting the content of all the strings before returning. The consumer is called on the
+     * calling thread. Any strings that cannot be found by id will not be passed to the consumer.
+     * <p>
+     * The default implementation retrieves all the strings with {@link #getStringsContent(UUID...)}. Implementations
+     * may override this to retrieve large sets of strings in smaller parts.
+     *
+     * @param ids      The string ids to retrieve content for.
+     * @param consumer Accepts the string id and string content of each found string.
+     */
+    default void streamStringsContent(final Collection<UUID> ids, final BiConsumer<UUID, String> consumer) {
+        getStringsContent(ids.toArray(new UUID[ids.size()])).forEach(consumer);
+    }
+
     /**
      * Get summaries of the add string requests most recently made against the store.
      *
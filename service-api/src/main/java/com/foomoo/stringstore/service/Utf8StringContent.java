@@ -0,0 +1,138 @@
+package com.foomoo.stringstore.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link StringContent} backed by a {@link String}. The content is encoded as UTF-8 in small chunks as it is written,
+ * and the byte length is calculated from the characters, so the content is never copied into a single byte array.
+ * <p>
+ * Unpaired surrogates are encoded as '?', as by {@link String#getBytes(java.nio.charset.Charset)}.
+ */
+public class Utf8StringContent implements StringContent {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String content;
+    private final String hash;
+    private long byteLength = -1;
+
+    /**
+     * Construct a Utf8StringContent for the given content.
+     *
+     * @param content The content.
+     */
+    public Utf8StringContent(final String content) {
+        this(content, null);
+    }
+
+    /**
+     * Construct a Utf8StringContent for the given content with the given hash.
+     *
+     * @param content The content.
+     * @param hash    The hash of the content as hex, or null if not known.
+     */
+    public Utf8StringContent(final String content, final String hash) {
+        this.content = content;
+        this.hash = hash;
+    }
+
+    @Override
+    public String getHash() {
+        return hash;
+    }
+
+    @Override
+    public long getByteLength() {
+        if (byteLength < 0) {
+            long length = 0;
+            for (int i = 0; i < content.length(); i += charCount(i)) {
+                length += byteCount(i);
+            }
+            byteLength = length;
+        }
+        return byteLength;
+    }
+
+    @Override
+    public void writeTo(final OutputStream outputStream, final long offset, final long length) throws IOException {
+        final long end = offset + length;
+
+        // Find the character containing the first byte to write without encoding the characters before it.
+        int charIndex = 0;
+        long bytePosition = 0;
+        while (charIndex < content.length() && bytePosition + byteCount(charIndex) <= offset) {
+            bytePosition += byteCount(charIndex);
+            charIndex += charCount(charIndex);
+        }
+
+        final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final CharBuffer charBuffer = CharBuffer.wrap(content, charIndex, content.length());
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        boolean endOfInput = false;
+        while (bytePosition < end) {
+            if (!endOfInput) {
+                endOfInput = encoder.encode(charBuffer, byteBuffer, true).isUnderflow();
+            }
+            if (endOfInput) {
+                encoder.flush(byteBuffer);
+            }
+            byteBuffer.flip();
+            if (!byteBuffer.hasRemaining()) {
+                break;
+            }
+
+            // Skip any leading bytes of a character which starts before the range.
+            final int skip = (int) Math.max(0, offset - bytePosition);
+            final int write = (int) Math.min(byteBuffer.remaining() - skip, end - bytePosition - skip);
+            outputStream.write(byteBuffer.array(), skip, write);
+
+            bytePosition += byteBuffer.remaining();
+            byteBuffer.clear();
+        }
+    }
+
+    /**
+     * Get the number of chars in the character starting at the given index.
+     *
+     * @param index The index of the character.
+     * @return 2 for a surrogate pair, otherwise 1.
+     */
+    private int charCount(final int index) {
+        return isSurrogatePair(index) ? 2 : 1;
+    }
+
+    /**
+     * Get the number of UTF-8 bytes encoding the character starting at the given index.
+     *
+     * @param index The index of the character.
+     * @return The number of bytes.
+     */
+    private int byteCount(final int index) {
+        final char c = content.charAt(index);
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        } else if (Character.isSurrogate(c)) {
+            return isSurrogatePair(index) ? 4 : 1;
+        } else {
+            return 3;
+        }
+    }
+
+    private boolean isSurrogatePair(final int index) {
+        return Character.isHighSurrogate(content.charAt(index))
+                && index + 1 < content.length()
+                && Character.isLowSurrogate(content.charAt(index + 1));
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.foomoo.stringstore.service;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ContentHasher}
+ */
+public class ContentHasherTest {
+
+    // Includes characters encoded as two, three and four UTF-8 bytes, and an unpaired surrogate.
+    private static final String TEST_CONTENT = "content é€😀 \ud800 end";
+
+    @Test
+    public void sha1MatchesTheHashOfTheEncodedContent() {
+        assertThat(ContentHasher.forName(ContentHasher.SHA1).hashHex(TEST_CONTENT), Matchers.equalTo(DigestUtils.sha1Hex(TEST_CONTENT)));
+    }
+
+    @Test
+    public void sha256MatchesTheHashOfTheEncodedContent() {
+        assertThat(ContentHasher.forName(ContentHasher.SHA256).hashHex(TEST_CONTENT), Matchers.equalTo(DigestUtils.sha256Hex(TEST_CONTENT)));
+    }
+
+    @Test
+    public void contentLargerThanTheBufferIsHashedInChunks() {
+        final StringBuilder content = new StringBuilder();
+        while (content.length() < 100000) {
+            content.append(TEST_CONTENT);
+        }
+
+        final ContentHasher contentHasher = ContentHasher.forName(ContentHasher.SHA1);
+        assertThat(contentHasher.hashHex(content), Matchers.equalTo(DigestUtils.sha1Hex(content.toString())));
+        // The reused digest is left ready for the next hash.
+        assertThat(contentHasher.hashHex(""), Matchers.equalTo(DigestUtils.sha1Hex("")));
+    }
+
+    @Test
+    public void concurrentHashesShareThePool() {
+        final ContentHasher contentHasher = ContentHasher.forName(ContentHasher.SHA1);
+
+        final long mismatches = IntStream.range(0, 1000)
+                .parallel()
+                .mapToObj(i -> TEST_CONTENT + i)
+                .filter(content -> !contentHasher.hashHex(content).equals(DigestUtils.sha1Hex(content)))
+                .count();
+
+        assertThat(mismatches, Matchers.equalTo(0L));
+    }
+
+    @Test
+    public void hashesHaveTheLengthOfTheAlgorithm() {
+        assertThat(ContentHasher.forName(ContentHasher.SHA1).hash(TEST_CONTENT).length, Matchers.equalTo(20));
+        assertThat(ContentHasher.forName(ContentHasher.SHA256).getHashLength(), Matchers.equalTo(32));
+    }
+
+    @Test
+    public void hexConvertsToTheHashAndBack() {
+        final byte[] hash = ContentHasher.forName(ContentHasher.SHA1).hash(TEST_CONTENT);
+
+        assertThat(ContentHasher.fromHex(ContentHasher.toHex(hash)), Matchers.equalTo(hash));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unknownAlgorithmsAreRejected() {
+        ContentHasher.forName("md5");
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.foomoo.stringstore.service;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SlowOperationRecorder}
+ */
+public class SlowOperationRecorderTest {
+
+    @Test
+    public void operationsUnderTheThresholdAreNotRecorded() {
+        final SlowOperationRecorder recorder = new SlowOperationRecorder(Long.MAX_VALUE, 10);
+
+        try (final SlowOperationRecorder.OperationTimer timer = recorder.start("fast")) {
+            timer.phase("only");
+        }
+
+        assertThat(recorder.getSlowOperations(), Matchers.empty());
+    }
+
+    @Test
+    public void slowOperationsAreRecordedWithTheirPhases() {
+        final SlowOperationRecorder recorder = new SlowOperationRecorder(0, 10);
+
+        try (final SlowOperationRecorder.OperationTimer timer = recorder.start("slow")) {
+            timer.phase("first");
+            timer.phase("second");
+            timer.phase("first");
+        }
+
+        final List<SlowOperation> slowOperations = recorder.getSlowOperations();
+        assertThat(slowOperations, Matchers.hasSize(1));
+        assertThat(slowOperations.get(0).getOperation(), Matchers.equalTo("slow"));
+        assertThat(slowOperations.get(0).getPhaseNanos().keySet(), Matchers.contains("first", "second"));
+        assertThat(slowOperations.get(0).getDurationNanos(),
+                Matchers.greaterThanOrEqualTo(slowOperations.get(0).getPhaseNanos().values().stream().mapToLong(Long::longValue).sum()));
+    }
+
+    @Test
+    public void theMostRecentSlowOperationsAreHeldMostRecentFirst() {
+        final SlowOperationRecorder recorder = new SlowOperationRecorder(0, 3);
+
+        for (int i = 0; i < 5; i++) {
+            recorder.start("operation" + i).close();
+        }
+
+        final List<String> operations = recorder.getSlowOperations().stream()
+                .map(SlowOperation::getOperation)
+                .collect(Collectors.toList());
+        assertThat(operations, Matchers.contains("operation4", "operation3", "operation2"));
+    }
+
+    @Test
+    public void nestedOperationsArePartOfTheEnclosingOperation() {
+        final SlowOperationRecorder recorder = new SlowOperationRecorder(0, 10);
+
+        try (final SlowOperationRecorder.OperationTimer timer = recorder.start("outer")) {
+            try (final SlowOperationRecorder.OperationTimer nestedTimer = recorder.start("inner")) {
+                nestedTimer.phase("nested");
+            }
+            timer.phase("outer");
+        }
+
+        final List<SlowOperation> slowOperations = recorder.getSlowOperations();
+        assertThat(slowOperations, Matchers.hasSize(1));
+        assertThat(slowOperations.get(0).getOperation(), Matchers.equalTo("outer"));
+        assertThat(slowOperations.get(0).getPhaseNanos().keySet(), Matchers.contains("outer"));
+    }
+
+    @Test
+    public void aNegativeThresholdRecordsNothing() {
+        final SlowOperationRecorder recorder = new SlowOperationRecorder(-1, 10);
+
+        recorder.start("operation").close();
+
+        assertThat(recorder.getSlowOperations(), Matchers.empty());
+    }
+
+}
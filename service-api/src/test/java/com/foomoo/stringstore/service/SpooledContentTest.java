@@ -0,0 +1,57 @@
+package com.foomoo.stringstore.service;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SpooledContent}
+ */
+public class SpooledContentTest {
+
+    // Includes characters encoded as two, three and four UTF-8 bytes, the last being a surrogate pair in a String.
+    private static final String TEST_CONTENT = "content é€😀";
+
+    @Test
+    public void hashAndLengthMatchTheContentAsAString() throws IOException, InvalidContentException {
+        try (final SpooledContent spooledContent = spool(TEST_CONTENT, 1024)) {
+            assertThat(spooledContent.getLength(), Matchers.equalTo(TEST_CONTENT.length()));
+            assertThat(spooledContent.getHashHex(), Matchers.equalTo(DigestUtils.sha1Hex(TEST_CONTENT)));
+            assertThat(spooledContent.getByteLength(), Matchers.equalTo((long) TEST_CONTENT.getBytes(StandardCharsets.UTF_8).length));
+            assertThat(spooledContent.readContent(), Matchers.equalTo(TEST_CONTENT));
+        }
+    }
+
+    @Test
+    public void contentLargerThanTheBuffersIsSpooledToAFile() throws IOException, InvalidContentException {
+        final StringBuilder contentBuilder = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            contentBuilder.append(TEST_CONTENT);
+        }
+        final String content = contentBuilder.toString();
+
+        try (final SpooledContent spooledContent = spool(content, 100)) {
+            assertThat(spooledContent.getLength(), Matchers.equalTo(content.length()));
+            assertThat(spooledContent.getHashHex(), Matchers.equalTo(DigestUtils.sha1Hex(content)));
+            assertThat(spooledContent.readContent(), Matchers.equalTo(content));
+        }
+    }
+
+    @Test(expected = InvalidContentException.class)
+    public void invalidUtf8IsRejected() throws IOException, InvalidContentException {
+        SpooledContent.spool(new ByteArrayInputStream(new byte[]{'a', (byte) 0xc3}), 1024);
+    }
+
+    private static SpooledContent spool(final String content, final int memoryThreshold) throws IOException, InvalidContentException {
+        final InputStream inputStream = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        return SpooledContent.spool(inputStream, memoryThreshold);
+    }
+
+}
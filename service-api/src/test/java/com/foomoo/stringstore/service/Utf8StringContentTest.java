@@ -0,0 +1,64 @@
+package com.foomoo.stringstore.service;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link Utf8StringContent}
+ */
+public class Utf8StringContentTest {
+
+    // Includes characters encoded as two, three and four UTF-8 bytes, and an unpaired surrogate.
+    private static final String TEST_CONTENT = "content é€😀 \ud800 end";
+
+    @Test
+    public void byteLengthMatchesTheEncodedContent() {
+        assertThat(new Utf8StringContent(TEST_CONTENT).getByteLength(),
+                Matchers.equalTo((long) TEST_CONTENT.getBytes(StandardCharsets.UTF_8).length));
+    }
+
+    @Test
+    public void writesTheEncodedContent() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new Utf8StringContent(TEST_CONTENT).writeTo(outputStream);
+
+        assertThat(outputStream.toByteArray(), Matchers.equalTo(TEST_CONTENT.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void writesEveryRangeOfTheEncodedContent() throws IOException {
+        final byte[] bytes = TEST_CONTENT.getBytes(StandardCharsets.UTF_8);
+        final Utf8StringContent content = new Utf8StringContent(TEST_CONTENT);
+
+        for (int offset = 0; offset <= bytes.length; offset++) {
+            for (int length = 0; offset + length <= bytes.length; length++) {
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                content.writeTo(outputStream, offset, length);
+
+                assertThat(outputStream.toByteArray(), Matchers.equalTo(Arrays.copyOfRange(bytes, offset, offset + length)));
+            }
+        }
+    }
+
+    @Test
+    public void writesContentLargerThanTheBuffer() throws IOException {
+        final StringBuilder contentBuilder = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            contentBuilder.append(TEST_CONTENT);
+        }
+        final byte[] bytes = contentBuilder.toString().getBytes(StandardCharsets.UTF_8);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new Utf8StringContent(contentBuilder.toString()).writeTo(outputStream, 10000, 20000);
+
+        assertThat(outputStream.toByteArray(), Matchers.equalTo(Arrays.copyOfRange(bytes, 10000, 30000)));
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.foomoo.stringstore.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * In-memory implementation of the asynchronous status service.
+ */
+public class MemoryAsyncStatusService implements AsyncStatusService {
+
+    private final MemoryStatusService memoryStatusService = new MemoryStatusService();
+
+    @Override
+    public CompletionStage<Status> getStatus() {
+        return CompletableFuture.completedFuture(memoryStatusService.getStatus());
+    }
+
+}
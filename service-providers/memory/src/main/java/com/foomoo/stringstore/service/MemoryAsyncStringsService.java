@@ -0,0 +1,53 @@
+package com.foomoo.stringstore.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * In-memory implementation of the asynchronous string service. Operations on the in-memory store never block, so each
+ * operation is performed on the calling thread and returns a completed stage.
+ */
+public class MemoryAsyncStringsService implements AsyncStringsService {
+
+    private final MemoryStringsService memoryStringsService = new MemoryStringsService();
+
+    @Override
+    public CompletionStage<AddStringResult> addString(final String user, final String content) {
+        return CompletableFuture.completedFuture(memoryStringsService.addString(user, content));
+    }
+
+    @Override
+    public CompletionStage<List<StringSummary>> getStringSummaries() {
+        return CompletableFuture.completedFuture(memoryStringsService.getStringSummaries());
+    }
+
+    @Override
+    public CompletionStage<StringSummary> getStringSummary(final UUID id) {
+        final CompletableFuture<StringSummary> future = new CompletableFuture<>();
+        try {
+            future.complete(memoryStringsService.getStringSummary(id));
+        } catch (StringNotFoundException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public CompletionStage<String> getStringContent(final UUID id) {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        try {
+            future.complete(memoryStringsService.getStringContent(id));
+        } catch (StringNotFoundException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public CompletionStage<List<RequestSummary>> getRequests() {
+        return CompletableFuture.completedFuture(memoryStringsService.getRequests());
+    }
+
+}
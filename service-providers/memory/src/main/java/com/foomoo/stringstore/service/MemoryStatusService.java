@@ -0,0 +1,22 @@
+package com.foomoo.stringstore.service;
+
+import com.foomoo.stringstore.store.MemoryStringStore;
+
+/**
+ * In-memory implementation of the status service.
+ */
+public class MemoryStatusService implements StatusService {
+
+    private final MemoryStringStore memoryStringStore = MemoryStringStore.instance;
+
+    /**
+     * Get the status of the service by reporting the number of strings and requests held in memory.
+     *
+     * @return The status of the service.
+     */
+    @Override
+    public Status getStatus() {
+        return new Status(memoryStringStore.getStringsCount(), memoryStringStore.getRequestCount());
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.foomoo.stringstore.service;
+
+import com.foomoo.stringstore.store.MemoryRequest;
+import com.foomoo.stringstore.store.MemoryString;
+import com.foomoo.stringstore.store.MemoryStringStore;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory implementation of the string service.
+ */
+public class MemoryStringsService implements StringsService {
+
+    private final MemoryStringStore memoryStringStore = MemoryStringStore.instance;
+    private final ContentHasher contentHasher = ContentHasher.instance;
+
+    @Override
+    public AddStringResult addString(final String user, final String content) {
+
+        return addString(user, content.length(), contentHasher.hashHex(content), content);
+    }
+
+    /**
+     * Adds a string to the store from spooled content. The spooled content is only read if no string with the same
+     * size and hash is already held.
+     *
+     * @param user    The user adding the string to the store.
+     * @param content The spooled content to be added to the store.
+     * @return An {@link AddStringResult} describing the result of the add string operation.
+     * @throws IOException If the spooled content cannot be read.
+     */
+    @Override
+    public AddStringResult addString(final String user, final SpooledContent content) throws IOException {
+
+        final List<MemoryString> existingStrings = memoryStringStore.findStringBySizeHash(content.getLength(), content.getHashHex());
+        if (!existingStrings.isEmpty()) {
+            return addRequest(user, existingStrings.get(0).getId(), true, Instant.now().toEpochMilli());
+        }
+
+        return addString(user, content.getLength(), content.getHashHex(), content.readContent());
+    }
+
+    /**
+     * Adds a string with the given size and hash to the store unless a string with the same size and hash is already
+     * held, and records the request.
+     *
+     * @param user       The user adding the string to the store.
+     * @param size       The length of the content.
+     * @param stringHash The hash of the content.
+     * @param content    The content to be added to the store.
+     * @return An {@link AddStringResult} describing the result of the add string operation.
+     */
+    private AddStringResult addString(final String user, final int size, final String stringHash, final String content) {
+
+        final long epoch = Instant.now().toEpochMilli();
+        final MemoryString newString = new MemoryString(UUID.randomUUID(), user, size, epoch, stringHash, content);
+
+        final MemoryString existingMemoryString = memoryStringStore.addStringIfAbsent(newString);
+
+        if (existingMemoryString == null) {
+            return addRequest(user, newString.getId(), false, epoch);
+        } else {
+            return addRequest(user, existingMemoryString.getId(), true, epoch);
+        }
+    }
+
+    /**
+     * Records a request by the given user which added or found the string with the given id.
+     *
+     * @param user           The user making the request.
+     * @param stringId       The id of the string added or found.
+     * @param existingString Whether the string was already held.
+     * @param epoch          The time of the request.
+     * @return An {@link AddStringResult} describing the request.
+     */
+    private AddStringResult addRequest(final String user, final UUID stringId, final boolean existingString, final long epoch) {
+
+        final UUID requestId = UUID.randomUUID();
+        memoryStringStore.addRequest(new MemoryRequest(requestId, user, stringId, epoch));
+
+        return new AddStringResult(stringId, requestId, user, existingString);
+    }
+
+    @Override
+    public List<StringSummary> getStringSummaries() {
+
+        return memoryStringStore.getRecentStrings(ServiceConfiguration.RECENT_STRING_COUNT)
+                .stream()
+                .map(MemoryStringsService::memoryStringToStringSummary)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<StringSummary> getAllStringSummaries() {
+
+        return memoryStringStore.getAllStrings()
+                .stream()
+                .map(MemoryStringsService::memoryStringToStringSummary)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public StringSummaryPage getStringSummaryPage(final PageToken pageToken, final int limit) {
+        final Long afterEpoch = pageToken == null ? null : pageToken.getCreationEpoch();
+        final UUID afterId = pageToken == null ? null : pageToken.getId();
+
+        // Retrieve an extra string to find whether there is a following page.
+        final List<MemoryString> memoryStrings = memoryStringStore.getStringsPage(afterEpoch, afterId, limit + 1);
+
+        final List<StringSummary> summaries = memoryStrings
+                .stream()
+                .limit(limit)
+                .map(MemoryStringsService::memoryStringToStringSummary)
+                .collect(Collectors.toList());
+
+        final PageToken nextPageToken;
+        if (memoryStrings.size() > limit) {
+            final StringSummary lastSummary = summaries.get(summaries.size() - 1);
+            nextPageToken = new PageToken(lastSummary.getCreationEpoch(), lastSummary.getId());
+        } else {
+            nextPageToken = null;
+        }
+
+        return new StringSummaryPage(summaries, nextPageToken);
+    }
+
+    @Override
+    public void streamAllStringSummaries(final Consumer<StringSummary> consumer) {
+        memoryStringStore.forEachString(memoryString -> consumer.accept(memoryStringToStringSummary(memoryString)));
+    }
+
+    @Override
+    public StringSummary getStringSummary(final UUID id) throws StringNotFoundException {
+
+        return memoryStringToStringSummary(memoryStringStore.findStringById(id));
+    }
+
+    @Override
+    public String getStringHash(final UUID id) throws StringNotFoundException {
+
+        return memoryStringStore.findStringById(id).getHash();
+    }
+
+    @Override
+    public String getStringContent(final UUID id) throws StringNotFoundException {
+
+        return memoryStringStore.findStringById(id).getContent();
+    }
+
+    @Override
+    public StringContent openStringContent(final UUID id) throws StringNotFoundException {
+
+        final MemoryString memoryString = memoryStringStore.findStringById(id);
+        return new Utf8StringContent(memoryString.getContent(), memoryString.getHash());
+    }
+
+    @Override
+    public Map<UUID, String> getStringsContent(final UUID... ids) {
+
+        return memoryStringStore.findStringsByIds(ids)
+                .stream()
+                .collect(Collectors.toMap(MemoryString::getId, MemoryString::getContent));
+    }
+
+    @Override
+    public List<RequestSummary> getRequests() {
+
+        return memoryStringStore.getRecentRequests(ServiceConfiguration.RECENT_REQUEST_COUNT)
+                .stream()
+                .map(memoryRequest -> new RequestSummary(memoryRequest.getId(), memoryRequest.getStringId(), memoryRequest.getEpoch(), memoryRequest.getUser()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a {@link StringSummary} for the given {@link MemoryString} object.
+     *
+     * @param memoryString The object to convert.
+     * @return The created {@link StringSummary}.
+     */
+    private static StringSummary memoryStringToStringSummary(final MemoryString memoryString) {
+        return new StringSummary(memoryString.getId(), memoryString.getEpoch(), memoryString.getSize(), memoryString.getHash());
+    }
+
+}
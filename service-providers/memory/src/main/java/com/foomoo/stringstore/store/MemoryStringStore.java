@@ -0,0 +1,227 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.service.StringNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An in-process string store holding strings and requests in concurrent data structures. Strings are indexed by id and
+ * by size and hash for duplicate detection. Strings and requests are also held in time ordered sets so the most recent
+ * items can be found without sorting.
+ */
+public class MemoryStringStore {
+
+    private static final Comparator<MemoryString> MOST_RECENT_STRING_FIRST =
+            Comparator.comparingLong(MemoryString::getEpoch).reversed().thenComparing(MemoryString::getId);
+
+    private static final Comparator<MemoryRequest> MOST_RECENT_REQUEST_FIRST =
+            Comparator.comparingLong(MemoryRequest::getEpoch).reversed().thenComparing(MemoryRequest::getId);
+
+    // Declared after the comparators so that they are initialised before the instance is constructed.
+    public static final MemoryStringStore instance = new MemoryStringStore();
+
+    private final Map<UUID, MemoryString> stringsById = new ConcurrentHashMap<>();
+    private final Map<SizeHash, MemoryString> stringsBySizeHash = new ConcurrentHashMap<>();
+    private final NavigableSet<MemoryString> recentStrings = new ConcurrentSkipListSet<>(MOST_RECENT_STRING_FIRST);
+
+    private final Map<UUID, MemoryRequest> requestsById = new ConcurrentHashMap<>();
+    private final NavigableSet<MemoryRequest> recentRequests = new ConcurrentSkipListSet<>(MOST_RECENT_REQUEST_FIRST);
+
+    /**
+     * Get the number of strings held by the store.
+     *
+     * @return The number of strings.
+     */
+    public long getStringsCount() {
+        return stringsById.size();
+    }
+
+    /**
+     * Get the number of requests held by the store.
+     *
+     * @return The number of requests.
+     */
+    public long getRequestCount() {
+        return requestsById.size();
+    }
+
+    /**
+     * Finds the string matching the given size and SHA1 hash.
+     *
+     * @param size     The size to search for.
+     * @param sha1Hash The hash to search for.
+     * @return A {@link List} containing the {@link MemoryString} matching the requested size and hash, or an empty list
+     * if there is no such string.
+     */
+    public List<MemoryString> findStringBySizeHash(final int size, final String sha1Hash) {
+        final MemoryString memoryString = stringsBySizeHash.get(new SizeHash(size, sha1Hash));
+
+        final List<MemoryString> foundStrings = new ArrayList<>(1);
+        if (memoryString != null) {
+            foundStrings.add(memoryString);
+        }
+        return foundStrings;
+    }
+
+    /**
+     * Finds the string with the given id.
+     *
+     * @param id The id of the string to find.
+     * @return The {@link MemoryString} found for the given id.
+     * @throws StringNotFoundException If no string is found with the given id.
+     */
+    public MemoryString findStringById(final UUID id) throws StringNotFoundException {
+        final MemoryString memoryString = stringsById.get(id);
+        if (memoryString == null) {
+            throw new StringNotFoundException(id);
+        }
+        return memoryString;
+    }
+
+    /**
+     * Finds the strings with the given ids. If a string cannot be found it will be absent from the resulting list.
+     *
+     * @param ids The ids of the strings to find.
+     * @return The List of {@link MemoryString}s found for the given ids.
+     */
+    public List<MemoryString> findStringsByIds(final UUID... ids) {
+        return Stream.of(ids)
+                .map(stringsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Add the given string to the store unless a string with the same size and hash is already held. The check and the
+     * add are performed atomically, so concurrent adds of the same content result in a single stored string.
+     * <p>
+     * The string is held by id before it can be found by size and hash, so that a concurrent add finding it as a
+     * duplicate returns an id which can already be found. The id is removed again if another string won the add.
+     *
+     * @param string The {@link MemoryString} to add.
+     * @return The string already held with the same size and hash, or null if the given string was added.
+     */
+    public MemoryString addStringIfAbsent(final MemoryString string) {
+        stringsById.put(string.getId(), string);
+        final MemoryString existingString = stringsBySizeHash.putIfAbsent(new SizeHash(string.getSize(), string.getHash()), string);
+        if (existingString == null) {
+            recentStrings.add(string);
+        } else {
+            stringsById.remove(string.getId());
+        }
+        return existingString;
+    }
+
+    /**
+     * Get the most recently added strings. The given limit specifies the maximum number of strings to retrieve.
+     *
+     * @param limit The maximum number of strings to retrieve.
+     * @return A {link List} of {@link MemoryString} objects, most recent first.
+     */
+    public List<MemoryString> getRecentStrings(final int limit) {
+        return recentStrings.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Get all strings held by the store.
+     *
+     * @return A {link List} of all {@link MemoryString} objects, oldest first.
+     */
+    public List<MemoryString> getAllStrings() {
+        return new ArrayList<>(recentStrings.descendingSet());
+    }
+
+    /**
+     * Get a page of strings, oldest first, starting after the string with the given creation time and id.
+     *
+     * @param afterEpoch The creation time of the string preceding the page, or null for the first page.
+     * @param afterId    The id of the string preceding the page, or null for the first page.
+     * @param limit      The maximum number of strings to retrieve.
+     * @return A {link List} of {@link MemoryString} objects in the page.
+     */
+    public List<MemoryString> getStringsPage(final Long afterEpoch, final UUID afterId, final int limit) {
+        final NavigableSet<MemoryString> oldestFirstStrings;
+        if (afterEpoch == null) {
+            oldestFirstStrings = recentStrings.descendingSet();
+        } else {
+            final MemoryString afterString = new MemoryString(afterId, null, 0, afterEpoch, null, null);
+            oldestFirstStrings = recentStrings.headSet(afterString, false).descendingSet();
+        }
+        return oldestFirstStrings.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Pass each string held by the store, oldest first, to the given consumer.
+     *
+     * @param consumer Accepts each {@link MemoryString}.
+     */
+    public void forEachString(final Consumer<MemoryString> consumer) {
+        recentStrings.descendingSet().forEach(consumer);
+    }
+
+    /**
+     * Add the given request to the store.
+     *
+     * @param request The {@link MemoryRequest} to add.
+     */
+    public void addRequest(final MemoryRequest request) {
+        requestsById.put(request.getId(), request);
+        recentRequests.add(request);
+    }
+
+    /**
+     * Get the most recently added requests. The given limit specifies the maximum number of requests to retrieve.
+     *
+     * @param limit The maximum number of requests to retrieve.
+     * @return A {link List} of {@link MemoryRequest} objects, most recent first.
+     */
+    public List<MemoryRequest> getRecentRequests(final int limit) {
+        return recentRequests.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Key of the size and hash index used for duplicate detection.
+     */
+    private static final class SizeHash {
+        private final int size;
+        private final String hash;
+
+        private SizeHash(final int size, final String hash) {
+            this.size = size;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SizeHash)) {
+                return false;
+            }
+            final SizeHash other = (SizeHash) o;
+            return size == other.size && hash.equals(other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * size + hash.hashCode();
+        }
+    }
+
+    // Package private constructor, allowing tests to create isolated stores.
+    MemoryStringStore() {
+    }
+
+}
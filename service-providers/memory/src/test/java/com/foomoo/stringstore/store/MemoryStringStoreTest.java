@@ -0,0 +1,100 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.service.StringNotFoundException;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link MemoryStringStore}
+ */
+public class MemoryStringStoreTest {
+    private static final String TEST_USER = "user";
+    private static final String TEST_HASH = "hash";
+    private static final String TEST_CONTENT = "content";
+
+    private MemoryStringStore memoryStringStore;
+
+    @Before
+    public void setUp() {
+        memoryStringStore = new MemoryStringStore();
+    }
+
+    @Test
+    public void addedStringCanBeFoundById() throws StringNotFoundException {
+        final MemoryString memoryString = newString(1);
+
+        assertThat(memoryStringStore.addStringIfAbsent(memoryString), Matchers.nullValue());
+        assertThat(memoryStringStore.findStringById(memoryString.getId()), Matchers.sameInstance(memoryString));
+    }
+
+    @Test
+    public void addedStringCanBeFoundBySizeHash() {
+        final MemoryString memoryString = newString(1);
+        memoryStringStore.addStringIfAbsent(memoryString);
+
+        assertThat(memoryStringStore.findStringBySizeHash(TEST_CONTENT.length(), TEST_HASH), Matchers.contains(memoryString));
+        assertThat(memoryStringStore.findStringBySizeHash(TEST_CONTENT.length() + 1, TEST_HASH), Matchers.empty());
+    }
+
+    @Test
+    public void duplicateStringIsNotAdded() {
+        final MemoryString firstString = newString(1);
+        final MemoryString secondString = newString(2);
+
+        memoryStringStore.addStringIfAbsent(firstString);
+
+        assertThat(memoryStringStore.addStringIfAbsent(secondString), Matchers.sameInstance(firstString));
+        assertThat(memoryStringStore.getStringsCount(), Matchers.equalTo(1L));
+    }
+
+    @Test(expected = StringNotFoundException.class)
+    public void unknownStringIsNotFound() throws StringNotFoundException {
+        memoryStringStore.findStringById(UUID.randomUUID());
+    }
+
+    @Test
+    public void recentStringsAreMostRecentFirst() {
+        final MemoryString olderString = new MemoryString(UUID.randomUUID(), TEST_USER, 1, 1, "a", "a");
+        final MemoryString newerString = new MemoryString(UUID.randomUUID(), TEST_USER, 1, 2, "b", "b");
+        memoryStringStore.addStringIfAbsent(olderString);
+        memoryStringStore.addStringIfAbsent(newerString);
+
+        assertThat(memoryStringStore.getRecentStrings(1), Matchers.contains(newerString));
+        assertThat(memoryStringStore.getRecentStrings(10), Matchers.contains(newerString, olderString));
+    }
+
+    @Test
+    public void allStringsAreOldestFirst() {
+        final MemoryString olderString = new MemoryString(UUID.randomUUID(), TEST_USER, 1, 1, "a", "a");
+        final MemoryString newerString = new MemoryString(UUID.randomUUID(), TEST_USER, 1, 2, "b", "b");
+        memoryStringStore.addStringIfAbsent(newerString);
+        memoryStringStore.addStringIfAbsent(olderString);
+
+        assertThat(memoryStringStore.getAllStrings(), Matchers.contains(olderString, newerString));
+    }
+
+    @Test
+    public void recentRequestsAreMostRecentFirst() {
+        final UUID stringId = UUID.randomUUID();
+        final MemoryRequest olderRequest = new MemoryRequest(UUID.randomUUID(), TEST_USER, stringId, 1);
+        final MemoryRequest newerRequest = new MemoryRequest(UUID.randomUUID(), TEST_USER, stringId, 2);
+        memoryStringStore.addRequest(newerRequest);
+        memoryStringStore.addRequest(olderRequest);
+
+        final List<UUID> recentIds = memoryStringStore.getRecentRequests(10).stream().map(MemoryRequest::getId).collect(Collectors.toList());
+        assertThat(recentIds, Matchers.contains(newerRequest.getId(), olderRequest.getId()));
+        assertThat(memoryStringStore.getRequestCount(), Matchers.equalTo(2L));
+    }
+
+    private static MemoryString newString(final long epoch) {
+        return new MemoryString(UUID.randomUUID(), TEST_USER, TEST_CONTENT.length(), epoch, TEST_HASH, TEST_CONTENT);
+    }
+
+}
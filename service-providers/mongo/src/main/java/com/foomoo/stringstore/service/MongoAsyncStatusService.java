@@ -0,0 +1,40 @@
+package com.foomoo.stringstore.service;
+
+import com.foomoo.stringstore.store.DbConfiguration;
+import com.foomoo.stringstore.store.MongoAsyncStringStoreClient;
+import com.foomoo.stringstore.store.StatusCounters;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Mongo implementation of the asynchronous status service, using the asynchronous MongoDB driver.
+ */
+public class MongoAsyncStatusService implements AsyncStatusService {
+
+    private final MongoAsyncStringStoreClient mongoAsyncStringStoreClient = MongoAsyncStringStoreClient.instance;
+
+    /**
+     * Get the status of the service by reporting the number of strings and requests stored. If the status mode is
+     * {@value StatusCounters#MODE} the counts are served from {@link StatusCounters}, which only access the database
+     * when the counts are stale. Otherwise both counts are requested concurrently. Any problems accessing the database will complete the stage exceptionally with a
+     * {@link com.mongodb.MongoTimeoutException}.
+     *
+     * @return A stage completing with the status of the service.
+     */
+    @Override
+    public CompletionStage<Status> getStatus() {
+        if (StatusCounters.MODE.equals(DbConfiguration.STATUS_MODE)) {
+            final CompletableFuture<Status> status = new CompletableFuture<>();
+            try {
+                status.complete(StatusCounters.instance.getStatus());
+            } catch (RuntimeException e) {
+                status.completeExceptionally(e);
+            }
+            return status;
+        }
+        return mongoAsyncStringStoreClient.getStringsCount()
+                .thenCombine(mongoAsyncStringStoreClient.getRequestCount(), Status::new);
+    }
+
+}
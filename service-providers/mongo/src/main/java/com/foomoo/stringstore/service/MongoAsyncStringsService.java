@@ -0,0 +1,89 @@
+package com.foomoo.stringstore.service;
+
+import com.foomoo.stringstore.store.DbRequest;
+import com.foomoo.stringstore.store.DbString;
+import com.foomoo.stringstore.store.MongoAsyncStringStoreClient;
+import com.foomoo.stringstore.store.RequestLog;
+import com.foomoo.stringstore.store.StringCache;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Mongo implementation of the asynchronous string service, using the asynchronous MongoDB driver.
+ */
+public class MongoAsyncStringsService implements AsyncStringsService {
+
+    private final MongoAsyncStringStoreClient mongoAsyncStringStoreClient = MongoAsyncStringStoreClient.instance;
+    private final StringCache stringCache = StringCache.instance;
+    private final RequestLog requestLog = RequestLog.instance;
+    private final ContentHasher contentHasher = ContentHasher.instance;
+
+    @Override
+    public CompletionStage<AddStringResult> addString(final String user, final String content) {
+
+        final UUID requestId = UUID.randomUUID();
+        final long epoch = Instant.now().toEpochMilli();
+
+        final String stringHash = contentHasher.hashHex(content);
+        final DbString newDbString = new DbString(UUID.randomUUID(), user, content.length(), epoch, stringHash, content);
+
+        return mongoAsyncStringStoreClient.addStringIfAbsent(newDbString).thenCompose(existingStringId -> {
+            final UUID stringId = existingStringId == null ? newDbString.getId() : existingStringId;
+            final boolean existingString = existingStringId != null;
+
+            final DbRequest dbRequest = new DbRequest(requestId, user, stringId, epoch);
+            return requestLog.appendAsync(dbRequest)
+                    .thenApply(ignored -> new AddStringResult(stringId, requestId, user, existingString));
+        });
+    }
+
+    @Override
+    public CompletionStage<List<StringSummary>> getStringSummaries() {
+
+        return mongoAsyncStringStoreClient.getRecentStringSummaries(ServiceConfiguration.RECENT_STRING_COUNT)
+                .thenApply(recentStrings -> recentStrings
+                        .stream()
+                        .map(dbStringSummary -> new StringSummary(dbStringSummary.getId(), dbStringSummary.getEpoch(), dbStringSummary.getSize()))
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public CompletionStage<StringSummary> getStringSummary(final UUID id) {
+        final DbString cachedDbString = stringCache.getIfPresent(id);
+        if (cachedDbString != null) {
+            return CompletableFuture.completedFuture(new StringSummary(cachedDbString.getId(), cachedDbString.getEpoch(), cachedDbString.getSize()));
+        }
+
+        return mongoAsyncStringStoreClient.findStringSummaryById(id)
+                .thenApply(dbStringSummary -> new StringSummary(dbStringSummary.getId(), dbStringSummary.getEpoch(), dbStringSummary.getSize()));
+    }
+
+    @Override
+    public CompletionStage<String> getStringContent(final UUID id) {
+        final DbString cachedDbString = stringCache.getIfPresent(id);
+        if (cachedDbString != null) {
+            return CompletableFuture.completedFuture(cachedDbString.getContent());
+        }
+
+        return mongoAsyncStringStoreClient.findStringById(id).thenApply(dbString -> {
+            stringCache.put(dbString);
+            return dbString.getContent();
+        });
+    }
+
+    @Override
+    public CompletionStage<List<RequestSummary>> getRequests() {
+
+        return mongoAsyncStringStoreClient.getRecentRequests(ServiceConfiguration.RECENT_REQUEST_COUNT)
+                .thenApply(recentRequests -> recentRequests
+                        .stream()
+                        .map(dbRequest -> new RequestSummary(dbRequest.getId(), dbRequest.getStringId(), dbRequest.getEpoch(), dbRequest.getUser()))
+                        .collect(Collectors.toList()));
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.foomoo.stringstore.service;
 
+import com.foomoo.stringstore.store.DbConfiguration;
 import com.foomoo.stringstore.store.MongoStringStoreClient;
+import com.foomoo.stringstore.store.StatusCounters;
 
 /**
  * Mongo implementation of the status service.
@@ -10,13 +12,18 @@ public class MongoStatusService implements StatusService {
     private final MongoStringStoreClient mongoStringStoreClient = MongoStringStoreClient.instance;
 
     /**
-     * Get the status of the service by reporting the number of strings and requests stored. Any problems accessing the
-     * database will result in a {@link com.mongodb.MongoTimeoutException}.
+     * Get the status of the service by reporting the number of strings and requests stored. If the status mode is
+     * {@value StatusCounters#MODE} the counts are served from {@link StatusCounters}, otherwise the documents in each
+     * collection are counted. Any problems accessing the database will result in a
+     * {@link com.mongodb.MongoTimeoutException}.
      *
      * @return The status of the service.
      */
     @Override
     public Status getStatus() {
+        if (StatusCounters.MODE.equals(DbConfiguration.STATUS_MODE)) {
+            return StatusCounters.instance.getStatus();
+        }
         return new Status(mongoStringStoreClient.getStringsCount(), mongoStringStoreClient.getRequestCount());
     }
 
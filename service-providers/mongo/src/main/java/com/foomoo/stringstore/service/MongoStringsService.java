@@ -1,100 +1,464 @@
 package com.foomoo.stringstore.service;
 
+import com.foomoo.stringstore.service.SlowOperationRecorder.OperationTimer;
+import com.foomoo.stringstore.store.DbConfiguration;
 import com.foomoo.stringstore.store.DbString;
+import com.foomoo.stringstore.store.DbStringSummary;
 import com.foomoo.stringstore.store.DbRequest;
 import com.foomoo.stringstore.store.MongoStringStoreClient;
+import com.foomoo.stringstore.store.RequestLog;
+import com.foomoo.stringstore.store.StringCache;
+import com.foomoo.stringstore.store.StringFilter;
 import com.google.common.collect.Iterables;
-import org.apache.commons.codec.digest.DigestUtils;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
- * Mongo implementation of the string service.
+ * Mongo implementation of the string service. Adds and reads, other than those streamed to the client, are timed by
+ * the {@link SlowOperationRecorder} with a phase for each cache lookup, hash, filter check and database operation.
  */
 public class MongoStringsService implements StringsService {
 
+    private static final ExecutorService FETCH_EXECUTOR = Executors.newFixedThreadPool(DbConfiguration.FETCH_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("string-fetch-%d").setDaemon(true).build());
+
     private final MongoStringStoreClient mongoStringStoreClient = MongoStringStoreClient.instance;
+    private final StringCache stringCache = StringCache.instance;
+    private final ContentHasher contentHasher = ContentHasher.instance;
+    private final RequestLog requestLog = RequestLog.instance;
+    private final StringFilter stringFilter = StringFilter.instance;
+    private final SlowOperationRecorder slowOperationRecorder = SlowOperationRecorder.instance;
 
     @Override
     public AddStringResult addString(final String user, final String content) {
 
-        final UUID requestId = UUID.randomUUID();
-        final long epoch = Instant.now().toEpochMilli();
+        try (final OperationTimer timer = slowOperationRecorder.start("addString")) {
+            final String stringHash = contentHasher.hashHex(content);
+            timer.phase("hash");
+
+            return addString(timer, user, content.length(), stringHash, content);
+        }
+    }
+
+    /**
+     * Adds a string to the store from spooled content. Existing strings are first looked up by the size and hash of
+     * the spooled content, without retrieving their content, so the spooled content is only read if the string is new
+     * to the store. The lookup is skipped if the {@link StringFilter} finds the string to be definitely new. New content
+     * large enough to be stored in GridFS is streamed there without being read into memory.
+     *
+     * @param user    The user adding the string to the store.
+     * @param content The spooled content to be added to the store.
+     * @return An {@link AddStringResult} describing the result of the add string operation.
+     * @throws IOException If the spooled content cannot be read.
+     */
+    @Override
+    public AddStringResult addString(final String user, final SpooledContent content) throws IOException {
+
+        try (final OperationTimer timer = slowOperationRecorder.start("addSpooledString")) {
+            final boolean definitelyNew = isDefinitelyNew(content.getLength(), content.getHashHex());
+            timer.phase("filter");
+            if (!definitelyNew) {
+                final List<DbString> existingDbStrings = mongoStringStoreClient.findStringsBySizesHashes(
+                        Collections.singleton(content.getLength()), Collections.singleton(content.getHashHex()));
+                timer.phase("dedup_lookup");
+                if (!existingDbStrings.isEmpty()) {
+                    return addRequest(timer, user, existingDbStrings.get(0).getId(), true, Instant.now().toEpochMilli());
+                }
+            }
 
-        final String stringSha1 = DigestUtils.sha1Hex(content);
-        final List<DbString> foundDbStrings = mongoStringStoreClient.findStringBySizeHash(content.length(), stringSha1);
+            if (!MongoStringStoreClient.isContentInBucket(content.getLength())) {
+                final String stringContent = content.readContent();
+                timer.phase("read_content");
 
-        final UUID stringId;
-        final boolean existingString;
-        if (foundDbStrings.isEmpty()) {
-            stringId = UUID.randomUUID();
-            existingString = false;
-            final DbString dbString = new DbString(stringId, user, content.length(), epoch, stringSha1, content);
+                return addString(timer, user, content.getLength(), content.getHashHex(), stringContent);
+            }
 
-            mongoStringStoreClient.addString(dbString);
+            // Content stored in GridFS is uploaded directly from the spooled content.
+            final long epoch = Instant.now().toEpochMilli();
+            final DbString newDbString = new DbString(UUID.randomUUID(), user, content.getLength(), epoch, content.getHashHex(), null);
+
+            final UUID existingStringId;
+            try (final InputStream contentStream = content.openStream()) {
+                existingStringId = definitelyNew
+                        ? mongoStringStoreClient.addNewString(newDbString, contentStream, content.getByteLength())
+                        : mongoStringStoreClient.addStringIfAbsent(newDbString, contentStream, content.getByteLength());
+            }
+            timer.phase(definitelyNew ? "string_insert" : "string_upsert");
+
+            if (existingStringId == null) {
+                return addRequest(timer, user, newDbString.getId(), false, epoch);
+            } else {
+                return addRequest(timer, user, existingStringId, true, epoch);
+            }
+        }
+    }
+
+    /**
+     * Adds a string with the given size and hash to the store unless a string with the same size and hash is already
+     * stored, and records the request. Strings found to be definitely new by the {@link StringFilter} are written with
+     * a plain insert rather than an upsert.
+     *
+     * @param timer      The timer of the add operation.
+     * @param user       The user adding the string to the store.
+     * @param size       The length of the content.
+     * @param stringHash The hash of the content.
+     * @param content    The content to be added to the store.
+     * @return An {@link AddStringResult} describing the result of the add string operation.
+     */
+    private AddStringResult addString(final OperationTimer timer, final String user, final int size, final String stringHash,
+                                      final String content) {
+
+        final long epoch = Instant.now().toEpochMilli();
+        final DbString newDbString = new DbString(UUID.randomUUID(), user, size, epoch, stringHash, content);
+
+        final boolean definitelyNew = isDefinitelyNew(size, stringHash);
+        timer.phase("filter");
+        final UUID existingStringId = definitelyNew
+                ? mongoStringStoreClient.addNewString(newDbString)
+                : mongoStringStoreClient.addStringIfAbsent(newDbString);
+        timer.phase(definitelyNew ? "string_insert" : "string_upsert");
+
+        if (existingStringId == null) {
+            return addRequest(timer, user, newDbString.getId(), false, epoch);
         } else {
-            final DbString dbString = Iterables.getOnlyElement(foundDbStrings);
-            stringId = dbString.getId();
-            existingString = true;
+            return addRequest(timer, user, existingStringId, true, epoch);
         }
+    }
+
+    /**
+     * Whether the string with the given size and hash is definitely new to the store, so that it can be added without
+     * looking for an existing copy. This relies on the unique size and hash index to catch strings added by other
+     * processes since the {@link StringFilter} was loaded, so is never the case unless the index was verified on
+     * startup.
+     *
+     * @param size       The length of the content.
+     * @param stringHash The hash of the content.
+     * @return True if the string is definitely new to the store.
+     */
+    private boolean isDefinitelyNew(final int size, final String stringHash) {
+        return mongoStringStoreClient.isUniqueIndexVerified() && stringFilter.isDefinitelyAbsent(size, stringHash);
+    }
+
+    /**
+     * Records a request by the given user which added or found the string with the given id in the
+     * {@link RequestLog}, which may write it after returning depending on its mode.
+     *
+     * @param timer          The timer of the add operation.
+     * @param user           The user making the request.
+     * @param stringId       The id of the string added or found.
+     * @param existingString Whether the string was already stored.
+     * @param epoch          The time of the request.
+     * @return An {@link AddStringResult} describing the request.
+     */
+    private AddStringResult addRequest(final OperationTimer timer, final String user, final UUID stringId,
+                                       final boolean existingString, final long epoch) {
 
-        final DbRequest dbRequest = new DbRequest(requestId, user, stringId, epoch);
-        mongoStringStoreClient.addRequest(dbRequest);
+        final UUID requestId = UUID.randomUUID();
+        requestLog.append(new DbRequest(requestId, user, stringId, epoch));
+        timer.phase("request_insert");
 
         return new AddStringResult(stringId, requestId, user, existingString);
     }
 
+    /**
+     * Adds a batch of strings to the store. The content of the batch is hashed in parallel, existing strings are found
+     * with a single query, which omits strings found to be definitely new by the {@link StringFilter}, and new strings
+     * and all requests are each written with a single bulk insert.
+     *
+     * @param requests The strings to add.
+     * @return An {@link AddStringResult} for each of the given requests, in the same order as the requests.
+     */
     @Override
-    public List<StringSummary> getStringSummaries() {
+    public List<AddStringResult> addStrings(final List<AddStringRequest> requests) {
 
-        final List<DbString> recentStrings = mongoStringStoreClient.getRecentStrings(ServiceConfiguration.RECENT_STRING_COUNT);
+        try (final OperationTimer timer = slowOperationRecorder.start("addStrings")) {
+            return addStrings(timer, requests);
+        }
+    }
 
-        return recentStrings
-                .stream()
-                .map(MongoStringsService::dbStringToStringSummary)
+    /**
+     * Adds a batch of strings to the store, as {@link #addStrings(List)}.
+     *
+     * @param timer    The timer of the add operation.
+     * @param requests The strings to add.
+     * @return An {@link AddStringResult} for each of the given requests, in the same order as the requests.
+     */
+    private List<AddStringResult> addStrings(final OperationTimer timer, final List<AddStringRequest> requests) {
+
+        final long epoch = Instant.now().toEpochMilli();
+
+        final List<String> stringHashes = requests.parallelStream()
+                .map(request -> contentHasher.hashHex(request.getContent()))
                 .collect(Collectors.toList());
+        timer.phase("hash");
+
+        // Only strings which might already be stored are looked up.
+        final Set<Integer> sizes = new HashSet<>();
+        final Set<String> hashes = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            final int size = requests.get(i).getContent().length();
+            if (!isDefinitelyNew(size, stringHashes.get(i))) {
+                sizes.add(size);
+                hashes.add(stringHashes.get(i));
+            }
+        }
+        timer.phase("filter");
+
+        // String ids keyed by size and hash, for both existing strings and strings new to the store in this batch.
+        final Map<String, UUID> stringIds = new HashMap<>();
+        if (!sizes.isEmpty()) {
+            mongoStringStoreClient.findStringsBySizesHashes(sizes, hashes)
+                    .forEach(dbString -> stringIds.put(sizeHashKey(dbString.getSize(), dbString.getHash()), dbString.getId()));
+        }
+        timer.phase("dedup_lookup");
+
+        final List<DbString> newDbStrings = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            final AddStringRequest request = requests.get(i);
+            final int size = request.getContent().length();
+            final String key = sizeHashKey(size, stringHashes.get(i));
+            if (!stringIds.containsKey(key)) {
+                final DbString newDbString = new DbString(UUID.randomUUID(), request.getUser(), size, epoch, stringHashes.get(i), request.getContent());
+                newDbStrings.add(newDbString);
+                stringIds.put(key, newDbString.getId());
+            }
+        }
+
+        final Set<UUID> newStringIds = newDbStrings.stream().map(DbString::getId).collect(Collectors.toSet());
+
+        // Strings added concurrently since the lookup are resolved to the concurrently added string.
+        for (final DbString duplicateDbString : mongoStringStoreClient.addStrings(newDbStrings)) {
+            final UUID existingStringId = mongoStringStoreClient.addStringIfAbsent(duplicateDbString);
+            if (existingStringId != null) {
+                stringIds.put(sizeHashKey(duplicateDbString.getSize(), duplicateDbString.getHash()), existingStringId);
+                newStringIds.remove(duplicateDbString.getId());
+            }
+        }
+        timer.phase("string_insert");
+
+        final List<AddStringResult> results = new ArrayList<>(requests.size());
+        final List<DbRequest> dbRequests = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            final AddStringRequest request = requests.get(i);
+            final UUID stringId = stringIds.get(sizeHashKey(request.getContent().length(), stringHashes.get(i)));
+            // Only the first request for a new string added it, later requests in the batch found it existing.
+            final boolean existingString = !newStringIds.remove(stringId);
+            final UUID requestId = UUID.randomUUID();
+
+            dbRequests.add(new DbRequest(requestId, request.getUser(), stringId, epoch));
+            results.add(new AddStringResult(stringId, requestId, request.getUser(), existingString));
+        }
+
+        requestLog.appendAll(dbRequests);
+        timer.phase("request_insert");
+
+        return results;
+    }
+
+    @Override
+    public List<StringSummary> getStringSummaries() {
+
+        try (final OperationTimer timer = slowOperationRecorder.start("getStringSummaries")) {
+            final List<DbStringSummary> recentStrings = mongoStringStoreClient.getRecentStringSummaries(ServiceConfiguration.RECENT_STRING_COUNT);
+            timer.phase("find");
+
+            return recentStrings
+                    .stream()
+                    .map(MongoStringsService::dbStringSummaryToStringSummary)
+                    .collect(Collectors.toList());
+        }
     }
 
     @Override
     public List<StringSummary> getAllStringSummaries() {
-        final List<DbString> allStrings = mongoStringStoreClient.getRecentStrings(ServiceConfiguration.RECENT_STRING_COUNT);
+        final List<StringSummary> allStringSummaries = new ArrayList<>();
+
+        streamAllStringSummaries(allStringSummaries::add);
 
-        return allStrings
+        return allStringSummaries;
+    }
+
+    @Override
+    public StringSummaryPage getStringSummaryPage(final PageToken pageToken, final int limit) {
+        final Long afterEpoch = pageToken == null ? null : pageToken.getCreationEpoch();
+        final UUID afterId = pageToken == null ? null : pageToken.getId();
+
+        // Retrieve an extra string to find whether there is a following page.
+        final List<DbStringSummary> dbStringSummaries;
+        try (final OperationTimer timer = slowOperationRecorder.start("getStringSummaryPage")) {
+            dbStringSummaries = mongoStringStoreClient.getStringSummariesPage(afterEpoch, afterId, limit + 1);
+            timer.phase("find");
+        }
+
+        final List<StringSummary> summaries = dbStringSummaries
                 .stream()
-                .map(MongoStringsService::dbStringToStringSummary)
+                .limit(limit)
+                .map(MongoStringsService::dbStringSummaryToStringSummary)
                 .collect(Collectors.toList());
+
+        final PageToken nextPageToken;
+        if (dbStringSummaries.size() > limit) {
+            final StringSummary lastSummary = summaries.get(summaries.size() - 1);
+            nextPageToken = new PageToken(lastSummary.getCreationEpoch(), lastSummary.getId());
+        } else {
+            nextPageToken = null;
+        }
+
+        return new StringSummaryPage(summaries, nextPageToken);
+    }
+
+    @Override
+    public void streamAllStringSummaries(final Consumer<StringSummary> consumer) {
+        mongoStringStoreClient.forEachStringSummary(dbStringSummary -> consumer.accept(dbStringSummaryToStringSummary(dbStringSummary)));
     }
 
     @Override
     public StringSummary getStringSummary(final UUID id) throws StringNotFoundException {
-        final DbString dbString = mongoStringStoreClient.findStringById(id);
+        // Summaries are served from the cache when the string is cached, but a miss only retrieves the summary fields
+        // rather than loading the content into the cache.
+        try (final OperationTimer timer = slowOperationRecorder.start("getStringSummary")) {
+            final DbString cachedDbString = stringCache.getIfPresent(id);
+            timer.phase("cache");
+            if (cachedDbString != null) {
+                return dbStringToStringSummary(cachedDbString);
+            }
+
+            final DbStringSummary dbStringSummary = mongoStringStoreClient.findStringSummaryById(id);
+            timer.phase("find");
 
-        return dbStringToStringSummary(dbString);
+            return dbStringSummaryToStringSummary(dbStringSummary);
+        }
+    }
+
+    @Override
+    public String getStringHash(final UUID id) throws StringNotFoundException {
+        try (final OperationTimer timer = slowOperationRecorder.start("getStringHash")) {
+            final DbString cachedDbString = stringCache.getIfPresent(id);
+            timer.phase("cache");
+            if (cachedDbString != null) {
+                return cachedDbString.getHash();
+            }
+
+            final String hash = mongoStringStoreClient.findStringHashById(id);
+            timer.phase("find");
+
+            return hash;
+        }
     }
 
     @Override
     public String getStringContent(final UUID id) throws StringNotFoundException {
-        final DbString dbString = mongoStringStoreClient.findStringById(id);
+        try (final OperationTimer timer = slowOperationRecorder.start("getStringContent")) {
+            final DbString dbString = stringCache.get(id);
+            timer.phase("cache_load");
+
+            return dbString.getContent();
+        }
+    }
+
+    /**
+     * Get the content of the string identified by the given string id from the cache if cached, or otherwise as it is
+     * stored without loading it into the cache, so that content stored in GridFS is streamed from GridFS as it is
+     * written.
+     *
+     * @param id The string id of the string.
+     * @return The {@link StringContent} of the string.
+     * @throws StringNotFoundException If the string for the given string id cannot be found.
+     */
+    @Override
+    public StringContent openStringContent(final UUID id) throws StringNotFoundException {
+        try (final OperationTimer timer = slowOperationRecorder.start("openStringContent")) {
+            final DbString cachedDbString = stringCache.getIfPresent(id);
+            timer.phase("cache");
+            if (cachedDbString != null) {
+                return new Utf8StringContent(cachedDbString.getContent(), cachedDbString.getHash());
+            }
 
-        return dbString.getContent();
+            final StringContent content = mongoStringStoreClient.openStringContent(id);
+            timer.phase("find");
+
+            return content;
+        }
     }
 
     @Override
     public Map<UUID, String> getStringsContent(final UUID... ids) {
-        final List<DbString> dbStrings = mongoStringStoreClient.findStringsByIds(ids);
+        final List<DbString> dbStrings;
+        try (final OperationTimer timer = slowOperationRecorder.start("getStringsContent")) {
+            dbStrings = stringCache.getAll(ids);
+            timer.phase("cache_load");
+        }
 
         return dbStrings
                 .stream()
                 .collect(Collectors.toMap(DbString::getId, DbString::getContent));
     }
 
+    /**
+     * Pass the content of the strings identified by the given string ids to the given consumer. The ids are split into
+     * chunks of at most {@link DbConfiguration#FETCH_CHUNK_SIZE} ids which are fetched concurrently, and the strings of
+     * each chunk are passed to the consumer as soon as the chunk has been fetched.
+     *
+     * @param ids      The string ids to retrieve content for.
+     * @param consumer Accepts the string id and string content of each found string.
+     */
+    @Override
+    public void streamStringsContent(final Collection<UUID> ids, final BiConsumer<UUID, String> consumer) {
+        final CompletionService<List<DbString>> completionService = new ExecutorCompletionService<>(FETCH_EXECUTOR);
+
+        final List<Future<List<DbString>>> chunkFutures = new ArrayList<>();
+        for (final List<UUID> chunk : Iterables.partition(ids, DbConfiguration.FETCH_CHUNK_SIZE)) {
+            final UUID[] chunkIds = chunk.toArray(new UUID[chunk.size()]);
+            chunkFutures.add(completionService.submit(() -> stringCache.getAll(chunkIds)));
+        }
+
+        try {
+            for (int i = 0; i < chunkFutures.size(); i++) {
+                completionService.take().get().forEach(dbString -> consumer.accept(dbString.getId(), dbString.getContent()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching strings", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to fetch strings", e.getCause());
+        } finally {
+            // Chunks not yet started when the consumer fails, such as when the client disconnects, are abandoned. Chunks
+            // being fetched are left to complete rather than interrupted, which would close their pooled connections.
+            chunkFutures.forEach(chunkFuture -> chunkFuture.cancel(false));
+        }
+    }
+
     @Override
     public List<RequestSummary> getRequests() {
-        final List<DbRequest> recentRequests = mongoStringStoreClient.getRecentRequests(ServiceConfiguration.RECENT_REQUEST_COUNT);
+        final List<DbRequest> recentRequests;
+        try (final OperationTimer timer = slowOperationRecorder.start("getRequests")) {
+            recentRequests = mongoStringStoreClient.getRecentRequests(ServiceConfiguration.RECENT_REQUEST_COUNT);
+            timer.phase("find");
+        }
 
         return recentRequests
                 .stream()
@@ -102,6 +466,27 @@ public class MongoStringsService implements StringsService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Creates a key identifying strings by size and hash.
+     *
+     * @param size The string size.
+     * @param hash The string hash.
+     * @return The key.
+     */
+    private static String sizeHashKey(final int size, final String hash) {
+        return size + ":" + hash;
+    }
+
+    /**
+     * Creates a {@link StringSummary} for the given {@link DbStringSummary} object.
+     *
+     * @param dbStringSummary The object to convert.
+     * @return The created {@link StringSummary}.
+     */
+    private static StringSummary dbStringSummaryToStringSummary(final DbStringSummary dbStringSummary) {
+        return new StringSummary(dbStringSummary.getId(), dbStringSummary.getEpoch(), dbStringSummary.getSize(), dbStringSummary.getHash());
+    }
+
     /**
      * Creates a {@link StringSummary} for the given {@link DbString} object.
      *
@@ -109,7 +494,7 @@ public class MongoStringsService implements StringsService {
      * @return The created {@link StringSummary}.
      */
     private static StringSummary dbStringToStringSummary(final DbString dbString) {
-        return new StringSummary(dbString.getId(), dbString.getEpoch(), dbString.getSize());
+        return new StringSummary(dbString.getId(), dbString.getEpoch(), dbString.getSize(), dbString.getHash());
     }
 
 }
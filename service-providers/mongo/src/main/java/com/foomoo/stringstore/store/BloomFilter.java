@@ -0,0 +1,180 @@
+package com.foomoo.stringstore.store;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the size and hash of strings, held in an array of longs so that each entry takes around ten bits
+ * at a false positive rate of 1%. Bits are set atomically, so entries can be added and tested concurrently.
+ * <p>
+ * Entries are located by double hashing: two 64 bit hashes of the size and hash are combined to find the bit for each
+ * of the hash functions.
+ */
+class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    /**
+     * Construct a BloomFilter with the given number of bits and hash functions.
+     *
+     * @param bitCount  The number of bits, rounded up to a multiple of 64.
+     * @param hashCount The number of hash functions.
+     */
+    BloomFilter(final long bitCount, final int hashCount) {
+        final long longCount = (bitCount + Long.SIZE - 1) / Long.SIZE;
+        if (longCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many bits: " + bitCount);
+        }
+        this.bits = new AtomicLongArray((int) longCount);
+        this.bitCount = longCount * Long.SIZE;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Create a BloomFilter sized for the given number of entries at the given false positive rate.
+     *
+     * @param expectedInsertions The number of entries expected to be added.
+     * @param fpp                The false positive rate expected once the entries have been added.
+     * @return The created BloomFilter.
+     */
+    static BloomFilter create(final long expectedInsertions, final double fpp) {
+        final long n = Math.max(1, expectedInsertions);
+        final long bitCount = Math.max(Long.SIZE, (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        final int hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    /**
+     * Add the string with the given size and hash to the filter.
+     *
+     * @param size The size of the string.
+     * @param hash The hash of the string content.
+     */
+    void put(final int size, final String hash) {
+        final long hash1 = hash1(size, hash);
+        final long hash2 = hash2(hash1);
+
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            final int index = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+
+            long word;
+            while (((word = bits.get(index)) & mask) == 0) {
+                if (bits.compareAndSet(index, word, word | mask)) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Find whether the string with the given size and hash might have been added to the filter. A string which has
+     * been added is always found, and a string which has not been added is found at around the false positive rate.
+     *
+     * @param size The size of the string.
+     * @param hash The hash of the string content.
+     * @return False if the string has definitely not been added, true if it might have been.
+     */
+    boolean mightContain(final int size, final String hash) {
+        final long hash1 = hash1(size, hash);
+        final long hash2 = hash2(hash1);
+
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of bits in the filter.
+     *
+     * @return The number of bits.
+     */
+    long getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Get the number of hash functions used by the filter.
+     *
+     * @return The number of hash functions.
+     */
+    int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Get the number of distinct entries added to the filter, counted as the additions which set at least one bit.
+     *
+     * @return The approximate number of entries.
+     */
+    long getInsertions() {
+        return insertions.get();
+    }
+
+    /**
+     * Get the false positive rate expected for the number of entries added to the filter.
+     *
+     * @return The expected false positive rate.
+     */
+    double getExpectedFpp() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitCount), hashCount);
+    }
+
+    /**
+     * Get the first hash of the given size and hash, using 64 bit FNV-1a over the hash followed by a final mix with
+     * the size, so that entries spread evenly whatever form the hash takes.
+     *
+     * @param size The size of the string.
+     * @param hash The hash of the string content.
+     * @return The first hash.
+     */
+    private static long hash1(final int size, final String hash) {
+        long h = FNV_OFFSET_BASIS;
+        for (int i = 0; i < hash.length(); i++) {
+            h = (h ^ hash.charAt(i)) * FNV_PRIME;
+        }
+        return mix(h ^ size);
+    }
+
+    /**
+     * Get the second hash from the first. The second hash is odd, so is never zero.
+     *
+     * @param hash1 The first hash.
+     * @return The second hash.
+     */
+    private static long hash2(final long hash1) {
+        return mix(hash1 + 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    /**
+     * Mix the bits of the given value, using the finaliser of MurmurHash3.
+     *
+     * @param value The value to mix.
+     * @return The mixed value.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+}
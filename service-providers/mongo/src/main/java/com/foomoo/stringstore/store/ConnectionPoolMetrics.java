@@ -0,0 +1,82 @@
+package com.foomoo.stringstore.store;
+
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListenerAdapter;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+import io.prometheus.client.Gauge;
+
+/**
+ * Maintains Prometheus gauges of the connection pools of a MongoDB client, summed over the servers connected to, from
+ * the events of the pools.
+ */
+@SuppressWarnings("deprecation")
+class ConnectionPoolMetrics extends ConnectionPoolListenerAdapter {
+
+    private static final Gauge CONNECTIONS = Gauge.build()
+            .name("stringstore_mongo_pool_connections")
+            .help("Connections held by the MongoDB connection pools.")
+            .labelNames("client")
+            .register();
+
+    private static final Gauge CHECKED_OUT = Gauge.build()
+            .name("stringstore_mongo_pool_checked_out_connections")
+            .help("Connections of the MongoDB connection pools in use.")
+            .labelNames("client")
+            .register();
+
+    private static final Gauge WAIT_QUEUE = Gauge.build()
+            .name("stringstore_mongo_pool_wait_queue_size")
+            .help("Operations waiting for a connection from the MongoDB connection pools.")
+            .labelNames("client")
+            .register();
+
+    private final Gauge.Child connections;
+    private final Gauge.Child checkedOut;
+    private final Gauge.Child waitQueue;
+
+    /**
+     * Construct ConnectionPoolMetrics for the pools of the given client.
+     *
+     * @param client The name of the client, sync or async.
+     */
+    ConnectionPoolMetrics(final String client) {
+        this.connections = CONNECTIONS.labels(client);
+        this.checkedOut = CHECKED_OUT.labels(client);
+        this.waitQueue = WAIT_QUEUE.labels(client);
+    }
+
+    @Override
+    public void connectionAdded(final ConnectionAddedEvent event) {
+        connections.inc();
+    }
+
+    @Override
+    public void connectionRemoved(final ConnectionRemovedEvent event) {
+        connections.dec();
+    }
+
+    @Override
+    public void connectionCheckedOut(final ConnectionCheckedOutEvent event) {
+        checkedOut.inc();
+    }
+
+    @Override
+    public void connectionCheckedIn(final ConnectionCheckedInEvent event) {
+        checkedOut.dec();
+    }
+
+    @Override
+    public void waitQueueEntered(final ConnectionPoolWaitQueueEnteredEvent event) {
+        waitQueue.inc();
+    }
+
+    @Override
+    public void waitQueueExited(final ConnectionPoolWaitQueueExitedEvent event) {
+        waitQueue.dec();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.foomoo.stringstore.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes string content, as UTF-8 bytes, into the form in which it is stored, and decodes it again. The name of the
+ * codec is stored with each encoded string so that the string can be decoded whichever codec is configured for writing.
+ */
+public interface ContentCodec {
+
+    /**
+     * Get the name of the codec, as stored with each string it encodes.
+     *
+     * @return The codec name.
+     */
+    String getName();
+
+    /**
+     * Get the HTTP content coding of the encoded form, if clients accepting that coding can decode it.
+     *
+     * @return The content coding, or null if the encoded form cannot be sent to clients.
+     */
+    String getContentCoding();
+
+    /**
+     * Wrap the given stream so that bytes written to the returned stream are written encoded to the given stream.
+     * Closing the returned stream closes the given stream.
+     *
+     * @param outputStream The stream to receive the encoded bytes.
+     * @return The stream to write bytes to be encoded to.
+     */
+    OutputStream encodingStream(OutputStream outputStream);
+
+    /**
+     * Wrap the given stream of encoded bytes so that the returned stream reads the decoded bytes. Closing the returned
+     * stream closes the given stream.
+     *
+     * @param inputStream The stream of encoded bytes.
+     * @return The stream of decoded bytes.
+     */
+    InputStream decodingStream(InputStream inputStream);
+
+    /**
+     * Encode the given bytes.
+     *
+     * @param bytes The bytes to encode.
+     * @return The encoded bytes.
+     */
+    default byte[] encode(final byte[] bytes) {
+        final ByteArrayOutputStream encodedBytes = new ByteArrayOutputStream(bytes.length / 2);
+        try (final OutputStream encodingStream = encodingStream(encodedBytes)) {
+            encodingStream.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return encodedBytes.toByteArray();
+    }
+
+    /**
+     * Decode the given encoded bytes.
+     *
+     * @param encodedBytes  The encoded bytes.
+     * @param decodedLength The length of the decoded bytes, used to size the result.
+     * @return The decoded bytes.
+     */
+    default byte[] decode(final byte[] encodedBytes, final int decodedLength) {
+        final ByteArrayOutputStream decodedBytes = new ByteArrayOutputStream(decodedLength);
+        try (final InputStream decodingStream = decodingStream(new ByteArrayInputStream(encodedBytes))) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = decodingStream.read(buffer)) != -1) {
+                decodedBytes.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return decodedBytes.toByteArray();
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.foomoo.stringstore.store;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link ContentCodec}s available for decoding stored content, and the codec configured for encoding content as it
+ * is written.
+ */
+public final class ContentCodecs {
+
+    private static final Map<String, ContentCodec> CODECS = new HashMap<>();
+
+    static {
+        register(new DeflateContentCodec(DbConfiguration.CONTENT_CODEC_LEVEL, null));
+        if (DbConfiguration.CONTENT_CODEC_DICTIONARY != null) {
+            register(new DeflateContentCodec(DbConfiguration.CONTENT_CODEC_LEVEL, DbConfiguration.CONTENT_CODEC_DICTIONARY));
+        }
+    }
+
+    /**
+     * The codec used to encode content as it is written, or null if content is written unencoded.
+     */
+    public static final ContentCodec WRITE_CODEC = writeCodec(DbConfiguration.CONTENT_CODEC);
+
+    /**
+     * Get the codec with the given name, as stored with the content it encoded.
+     *
+     * @param name The codec name.
+     * @return The codec.
+     * @throws IllegalStateException If no codec with the given name is available.
+     */
+    public static ContentCodec forName(final String name) {
+        final ContentCodec codec = CODECS.get(name);
+        if (codec == null) {
+            throw new IllegalStateException("Unavailable content codec " + name);
+        }
+        return codec;
+    }
+
+    private static void register(final ContentCodec codec) {
+        CODECS.put(codec.getName(), codec);
+    }
+
+    /**
+     * Find the codec for writing given the configured codec name. The deflate codec uses the configured dictionary if
+     * there is one.
+     *
+     * @param name The configured codec name, or "none".
+     * @return The codec, or null for none.
+     */
+    private static ContentCodec writeCodec(final String name) {
+        if ("none".equals(name)) {
+            return null;
+        }
+        if (DeflateContentCodec.NAME.equals(name) && DbConfiguration.CONTENT_CODEC_DICTIONARY != null) {
+            return forName(DeflateContentCodec.DICTIONARY_NAME);
+        }
+        return forName(name);
+    }
+
+    // Private constructor. Codecs are accessed statically.
+    private ContentCodecs() {
+    }
+
+}
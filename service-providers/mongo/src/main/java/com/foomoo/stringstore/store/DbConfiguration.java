@@ -1,12 +1,20 @@
 package com.foomoo.stringstore.store;
 
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcern;
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.commons.configuration2.builder.fluent.Configurations;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
 
 /**
  * Configuration of database connection and operations.
@@ -16,10 +24,112 @@ public class DbConfiguration {
     public static final String HOSTNAME;
     public static final int PORT;
 
+    /**
+     * The seed list of servers, from the comma separated host:port pairs of the hosts property, or the server given by
+     * the hostname and port properties if absent. The replica set name is required when connecting to a replica set
+     * through a single seed.
+     */
+    public static final List<ServerAddress> HOSTS;
+    public static final String REPLICA_SET;
+
+    public static final int POOL_MIN_SIZE;
+    public static final int POOL_MAX_SIZE;
+    public static final long POOL_MAX_WAIT_MS;
+
+    /**
+     * The number of threads which may wait for a connection from the pool, as a multiple of the maximum pool size.
+     */
+    public static final int POOL_WAIT_QUEUE_MULTIPLIER;
+
+    public static final int CONNECT_TIMEOUT_MS;
+    public static final int SOCKET_TIMEOUT_MS;
+    public static final long SERVER_SELECTION_TIMEOUT_MS;
+
+    /**
+     * The read preferences of each class of read: reads of string content, reads of string summaries, requests and
+     * counts, and the lookups of strings by size and hash made to detect duplicates.
+     */
+    public static final ReadPreference CONTENT_READ_PREFERENCE;
+    public static final ReadPreference SUMMARY_READ_PREFERENCE;
+    public static final ReadPreference DEDUP_READ_PREFERENCE;
+
+    /**
+     * The write concerns of writes to the strings collection and content bucket, and to the requests collection.
+     */
+    public static final WriteConcern STRINGS_WRITE_CONCERN;
+    public static final WriteConcern REQUESTS_WRITE_CONCERN;
+
     public static final String DATABASE;
     public static final String STRINGS_COLLECTION;
     public static final String REQUESTS_COLLECTION;
 
+    public static final long STRING_CACHE_MAX_BYTES;
+
+    /**
+     * The size of the largest string whose content is stored in the strings document. The content of larger strings is
+     * stored in the GridFS bucket named by {@link #CONTENT_BUCKET}.
+     */
+    public static final int CONTENT_INLINE_MAX_SIZE;
+    public static final String CONTENT_BUCKET;
+
+    /**
+     * The name of the {@link ContentCodec} encoding content as it is written, or "none" to write content unencoded.
+     */
+    public static final String CONTENT_CODEC;
+    public static final int CONTENT_CODEC_LEVEL;
+
+    /**
+     * The preset dictionary used by the deflate codec, read from the file named by the content.codec.dictionary
+     * property, or null if no dictionary is configured.
+     */
+    public static final byte[] CONTENT_CODEC_DICTIONARY;
+
+    public static final int FETCH_CHUNK_SIZE;
+    public static final int FETCH_THREADS;
+
+    /**
+     * How the status is found: "count" to count the documents in each collection on every request, or "cached" to serve
+     * the counts held by {@link StatusCounters}.
+     */
+    public static final String STATUS_MODE;
+    public static final long STATUS_RECONCILE_INTERVAL_MS;
+    public static final long STATUS_MAX_STALENESS_MS;
+
+    /**
+     * Whether the cached status also reports the dedup ratio and the number of bytes stored.
+     */
+    public static final boolean STATUS_STORAGE;
+
+    /**
+     * The name of the {@link RequestLog.Mode} of the request log: "sync", "batched-ack" or "fire-and-forget".
+     */
+    public static final String REQUEST_LOG_MODE;
+    public static final int REQUEST_LOG_QUEUE_CAPACITY;
+    public static final int REQUEST_LOG_BATCH_SIZE;
+    public static final long REQUEST_LOG_LINGER_MS;
+
+    /**
+     * Whether the {@link StringFilter} is used to skip looking up strings which are definitely new to the store, and
+     * the number of strings and false positive rate it is sized for. The filter only holds strings this process has
+     * seen, so with several processes sharing a database it depends on the unique size and hash index to reject
+     * duplicates, and is bypassed unless that index was verified on startup.
+     */
+    public static final boolean FILTER_ENABLED;
+    public static final long FILTER_EXPECTED_STRINGS;
+    public static final double FILTER_FPP;
+
+    /**
+     * How the hash of string content is stored, either "binary" or the legacy "hex". When stored as binary, lookups
+     * also match hashes stored as hex unless hash.legacy.lookup is disabled, and hashes stored as hex are migrated to
+     * binary in the background if hash.migrate is enabled.
+     */
+    public static final String HASH_STORAGE;
+    public static final boolean HASH_LEGACY_LOOKUP;
+    public static final boolean HASH_MIGRATE;
+
+    public static final boolean INDEXES_CREATE;
+    public static final boolean INDEXES_FAIL_FAST;
+
     private static final String PROPERTIES_FILE_PATH_SYSTEM_PROPERTY = "mongo.store.db.properties";
     private static final String DEFAULT_PROPERTIES_FILE_PATH = "/opt/stringstore/conf/db.properties";
 
@@ -41,13 +151,102 @@ public class DbConfiguration {
 
             HOSTNAME = configuration.getString("hostname", "localhost");
             PORT = configuration.getInt("port", 27017);
+            HOSTS = serverAddresses(configuration.getString("hosts", HOSTNAME + ":" + PORT));
+            REPLICA_SET = configuration.getString("replica.set", null);
+
+            POOL_MIN_SIZE = configuration.getInt("pool.min.size", 0);
+            POOL_MAX_SIZE = configuration.getInt("pool.max.size", 100);
+            POOL_MAX_WAIT_MS = configuration.getLong("pool.max.wait.ms", 120 * 1000);
+            POOL_WAIT_QUEUE_MULTIPLIER = configuration.getInt("pool.wait.queue.multiplier", 5);
+
+            CONNECT_TIMEOUT_MS = configuration.getInt("connect.timeout.ms", 10 * 1000);
+            SOCKET_TIMEOUT_MS = configuration.getInt("socket.timeout.ms", 0);
+            SERVER_SELECTION_TIMEOUT_MS = configuration.getLong("server.selection.timeout.ms", 30 * 1000);
+
+            CONTENT_READ_PREFERENCE = ReadPreference.valueOf(configuration.getString("read.preference.content", "primary"));
+            SUMMARY_READ_PREFERENCE = ReadPreference.valueOf(configuration.getString("read.preference.summaries", "primary"));
+            DEDUP_READ_PREFERENCE = ReadPreference.valueOf(configuration.getString("read.preference.dedup", "primary"));
+
+            STRINGS_WRITE_CONCERN = writeConcern(configuration.getString("write.concern.strings", "acknowledged"));
+            REQUESTS_WRITE_CONCERN = writeConcern(configuration.getString("write.concern.requests", "acknowledged"));
 
             DATABASE = configuration.getString("database", "stringstore");
             STRINGS_COLLECTION = configuration.getString("collection.strings", "strings");
             REQUESTS_COLLECTION = configuration.getString("collection.requests", "requests");
-        } catch (ConfigurationException configurationException) {
+
+            STRING_CACHE_MAX_BYTES = configuration.getLong("cache.strings.max.bytes", 64L * 1024 * 1024);
+
+            // A string of this size is at most 3 MB of UTF-8, well within the 16 MB document limit.
+            CONTENT_INLINE_MAX_SIZE = configuration.getInt("content.inline.max.size", 1024 * 1024);
+            CONTENT_BUCKET = configuration.getString("content.bucket", "content");
+
+            CONTENT_CODEC = configuration.getString("content.codec", DeflateContentCodec.NAME);
+            CONTENT_CODEC_LEVEL = configuration.getInt("content.codec.level", Deflater.DEFAULT_COMPRESSION);
+            final String dictionaryPath = configuration.getString("content.codec.dictionary", null);
+            CONTENT_CODEC_DICTIONARY = dictionaryPath == null ? null : Files.readAllBytes(Paths.get(dictionaryPath));
+
+            FETCH_CHUNK_SIZE = configuration.getInt("fetch.chunk.size", 100);
+            FETCH_THREADS = configuration.getInt("fetch.threads", 4);
+
+            STATUS_MODE = configuration.getString("status.mode", "count");
+            STATUS_RECONCILE_INTERVAL_MS = configuration.getLong("status.reconcile.interval.ms", 60 * 1000);
+            STATUS_MAX_STALENESS_MS = configuration.getLong("status.max.staleness.ms", 5 * 60 * 1000);
+            STATUS_STORAGE = configuration.getBoolean("status.storage", false);
+
+            REQUEST_LOG_MODE = configuration.getString("request.log.mode", "sync");
+            REQUEST_LOG_QUEUE_CAPACITY = configuration.getInt("request.log.queue.capacity", 10000);
+            REQUEST_LOG_BATCH_SIZE = configuration.getInt("request.log.batch.size", 500);
+            REQUEST_LOG_LINGER_MS = configuration.getLong("request.log.linger.ms", 5);
+
+            FILTER_ENABLED = configuration.getBoolean("filter.enabled", true);
+            FILTER_EXPECTED_STRINGS = configuration.getLong("filter.expected.strings", 10000000L);
+            FILTER_FPP = configuration.getDouble("filter.fpp", 0.01);
+
+            HASH_STORAGE = configuration.getString("hash.storage", DbDocuments.BINARY_HASH_STORAGE);
+            HASH_LEGACY_LOOKUP = configuration.getBoolean("hash.legacy.lookup", true);
+            HASH_MIGRATE = configuration.getBoolean("hash.migrate", false);
+
+            INDEXES_CREATE = configuration.getBoolean("indexes.create", true);
+            INDEXES_FAIL_FAST = configuration.getBoolean("indexes.fail.fast", false);
+        } catch (ConfigurationException | IOException configurationException) {
             throw new ExceptionInInitializerError(configurationException);
         }
     }
 
+    /**
+     * Parse the given comma separated list of host:port pairs.
+     *
+     * @param hosts The list of hosts.
+     * @return The server addresses.
+     */
+    private static List<ServerAddress> serverAddresses(final String hosts) {
+        final List<ServerAddress> serverAddresses = new ArrayList<>();
+        for (final String host : hosts.split(",")) {
+            if (!host.trim().isEmpty()) {
+                serverAddresses.add(new ServerAddress(host.trim()));
+            }
+        }
+        return Collections.unmodifiableList(serverAddresses);
+    }
+
+    /**
+     * Get the write concern with the given name, such as acknowledged, journaled or majority, or requiring
+     * acknowledgement from the given number of servers.
+     *
+     * @param name The name of the write concern, or the number of servers.
+     * @return The write concern.
+     * @throws IllegalArgumentException If no write concern has the given name.
+     */
+    private static WriteConcern writeConcern(final String name) {
+        if (name.matches("\\d+")) {
+            return new WriteConcern(Integer.parseInt(name));
+        }
+
+        final WriteConcern writeConcern = WriteConcern.valueOf(name);
+        if (writeConcern == null) {
+            throw new IllegalArgumentException("Unknown write concern: " + name);
+        }
+        return writeConcern;
+    }
+
 }
@@ -0,0 +1,272 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.service.ContentHasher;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Conversions between the documents held in MongoDB and the objects of the store. The conversions need no connection
+ * to the database, so can be used without creating a client.
+ */
+final class DbDocuments {
+
+    /**
+     * Fields of a strings document whose content is stored in the content bucket rather than in the document, holding
+     * the id of the GridFS file, the length of the content in bytes and the length of the file as stored, once encoded.
+     */
+    static final String CONTENT_FILE_ID = "content_file_id";
+    static final String CONTENT_LENGTH = "content_length";
+    static final String CONTENT_STORED_LENGTH = "content_stored_length";
+
+    /**
+     * Field of a strings document whose content is encoded, holding the name of the {@link ContentCodec} which encoded
+     * it. Encoded content held in the document is binary, and the content_length field holds its decoded length.
+     */
+    static final String CONTENT_CODEC = "content_codec";
+
+    /**
+     * The values of {@link DbConfiguration#HASH_STORAGE} storing hashes as BSON binary and as hex strings.
+     */
+    static final String BINARY_HASH_STORAGE = "binary";
+    static final String HEX_HASH_STORAGE = "hex";
+
+    /**
+     * Convert the given {@link Document} from MongoDB to a {@link DbString} object. Encoded content held in the document
+     * is decoded. Content held in the content bucket is not retrieved.
+     *
+     * @param document The object to convert.
+     * @return The created {@link DbString}.
+     */
+    static DbString documentToDbString(final Document document) {
+
+        final UUID id = (UUID) document.get("_id");
+        final String user = document.getString("user");
+        final String hash = hashHex(document.get("hash"));
+        final int size = document.getInteger("size");
+        final long creationEpoch = document.getLong("creation_epoch");
+        final Object content = document.get("content");
+
+        final String decodedContent = content instanceof Binary ? decodeContent(document, ((Binary) content).getData()) : (String) content;
+
+        return new DbString(id, user, size, creationEpoch, hash, decodedContent);
+    }
+
+    /**
+     * Decode the given stored content of the given {@link Document} from MongoDB, using the codec named by the document.
+     *
+     * @param document    The document.
+     * @param storedBytes The stored content.
+     * @return The decoded content.
+     */
+    static String decodeContent(final Document document, final byte[] storedBytes) {
+        final ContentCodec codec = contentCodec(document);
+        if (codec == null) {
+            return new String(storedBytes, StandardCharsets.UTF_8);
+        }
+        return new String(codec.decode(storedBytes, Math.toIntExact(document.getLong(CONTENT_LENGTH))), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the codec which encoded the content of the given {@link Document} from MongoDB.
+     *
+     * @param document The document.
+     * @return The codec, or null if the content is not encoded.
+     */
+    static ContentCodec contentCodec(final Document document) {
+        final String codecName = document.getString(CONTENT_CODEC);
+        return codecName == null ? null : ContentCodecs.forName(codecName);
+    }
+
+    /**
+     * Convert the given {@link Document} from MongoDB, holding at least the fields of the summary projection, to a
+     * {@link DbStringSummary} object. The hash is included if the document holds it.
+     *
+     * @param document The object to convert.
+     * @return The created {@link DbStringSummary}.
+     */
+    static DbStringSummary documentToDbStringSummary(final Document document) {
+
+        final UUID id = (UUID) document.get("_id");
+        final int size = document.getInteger("size");
+        final long creationEpoch = document.getLong("creation_epoch");
+        final Object storedHash = document.get("hash");
+
+        return new DbStringSummary(id, creationEpoch, size, storedHash == null ? null : hashHex(storedHash));
+    }
+
+    /**
+     * Convert the given {@link DbString} to a {@link Document} for writing to MongoDB. If a codec is configured by
+     * {@link ContentCodecs#WRITE_CODEC} the content is encoded, unless encoding does not make it smaller.
+     *
+     * @param dbString The object to convert.
+     * @return The created {@link Document}.
+     */
+    static Document dbStringToDocument(final DbString dbString) {
+        final Document document = dbStringFieldsToDocument(dbString);
+
+        final ContentCodec codec = ContentCodecs.WRITE_CODEC;
+        if (codec != null) {
+            final byte[] contentBytes = dbString.getContent().getBytes(StandardCharsets.UTF_8);
+            final byte[] encodedBytes = codec.encode(contentBytes);
+            if (encodedBytes.length < contentBytes.length) {
+                return document
+                        .append("content", new Binary(encodedBytes))
+                        .append(CONTENT_CODEC, codec.getName())
+                        .append(CONTENT_LENGTH, (long) contentBytes.length);
+            }
+        }
+
+        return document.append("content", dbString.getContent());
+    }
+
+    /**
+     * Convert the given {@link DbString} to a {@link Document} for writing to MongoDB, referring to content stored in
+     * the content bucket, encoded by {@link ContentCodecs#WRITE_CODEC}, rather than holding the content.
+     *
+     * @param dbString      The object to convert.
+     * @param contentFileId The id of the GridFS file holding the content.
+     * @param contentLength The length of the content in UTF-8 bytes.
+     * @param storedLength  The length of the GridFS file in bytes.
+     * @return The created {@link Document}.
+     */
+    static Document dbStringToDocument(final DbString dbString, final ObjectId contentFileId, final long contentLength,
+                                       final long storedLength) {
+        final Document document = dbStringFieldsToDocument(dbString)
+                .append(CONTENT_FILE_ID, contentFileId)
+                .append(CONTENT_LENGTH, contentLength)
+                .append(CONTENT_STORED_LENGTH, storedLength);
+
+        final ContentCodec codec = ContentCodecs.WRITE_CODEC;
+        return codec == null ? document : document.append(CONTENT_CODEC, codec.getName());
+    }
+
+    /**
+     * Convert the fields of the given {@link DbString} other than the content to a {@link Document}.
+     *
+     * @param dbString The object to convert.
+     * @return The created {@link Document}.
+     */
+    private static Document dbStringFieldsToDocument(final DbString dbString) {
+        return new Document()
+                .append("_id", dbString.getId())
+                .append("user", dbString.getUser())
+                .append("hash", storedHash(dbString.getHash()))
+                .append("size", dbString.getSize())
+                .append("creation_epoch", dbString.getEpoch());
+    }
+
+    /**
+     * Convert the given {@link Document} from MongoDB to a {@link DbRequest} object.
+     *
+     * @param document The object to convert.
+     * @return The created {@link DbRequest}.
+     */
+    static DbRequest documentToDbRequest(final Document document) {
+
+        final UUID id = (UUID) document.get("_id");
+        final UUID stringId = (UUID) document.get("string_id");
+        final String user = document.getString("user");
+        final long epoch = document.getLong("epoch");
+
+        return new DbRequest(id, user, stringId, epoch);
+    }
+
+    /**
+     * Convert the given {@link DbRequest} to a {@link Document} for writing to MongoDB.
+     *
+     * @param dbRequest The object to convert.
+     * @return The created {@link Document}.
+     */
+    static Document dbRequestToDocument(final DbRequest dbRequest) {
+        return new Document()
+                .append("_id", dbRequest.getId())
+                .append("string_id", dbRequest.getStringId())
+                .append("user", dbRequest.getUser())
+                .append("epoch", dbRequest.getEpoch());
+    }
+
+    /**
+     * Convert the given hash to the form in which it is stored, as configured by {@link DbConfiguration#HASH_STORAGE}.
+     *
+     * @param hash The hash as hex.
+     * @return The hash as BSON binary or as hex.
+     */
+    static Object storedHash(final String hash) {
+        if (isBinaryHashStorage()) {
+            return new Binary(ContentHasher.fromHex(hash));
+        }
+        return hash;
+    }
+
+    /**
+     * Convert the given stored hash, held as BSON binary or as hex, to hex.
+     *
+     * @param storedHash The stored hash.
+     * @return The hash as hex.
+     */
+    static String hashHex(final Object storedHash) {
+        return storedHash instanceof Binary ? ContentHasher.toHex(((Binary) storedHash).getData()) : (String) storedHash;
+    }
+
+    /**
+     * Get the stored values which match the given hashes. When hashes are stored as binary and
+     * {@link DbConfiguration#HASH_LEGACY_LOOKUP} is set, hashes still stored as hex are also matched.
+     *
+     * @param hashes The hashes as hex.
+     * @return The stored values to match.
+     */
+    static List<Object> storedHashMatches(final Collection<String> hashes) {
+        if (isBinaryHashStorage() && DbConfiguration.HASH_LEGACY_LOOKUP) {
+            return hashes.stream().flatMap(hash -> Stream.of(storedHash(hash), hash)).collect(Collectors.toList());
+        }
+        return hashes.stream().map(DbDocuments::storedHash).collect(Collectors.toList());
+    }
+
+    /**
+     * Create the query of an upsert of the given strings document, matching documents with the same size and hash.
+     * The fields which the upsert sets from the query are removed from the document, leaving those to be set on insert.
+     *
+     * @param insertDocument The strings document to be upserted.
+     * @return The query.
+     */
+    static Document sizeHashUpsertQuery(final Document insertDocument) {
+        final Document queryDocument = new Document("size", insertDocument.remove("size"));
+
+        final List<Object> hashMatches = storedHashMatches(Collections.singleton(hashHex(insertDocument.get("hash"))));
+        if (hashMatches.size() == 1) {
+            return queryDocument.append("hash", insertDocument.remove("hash"));
+        }
+        // A query matching several values sets none of them on insert, so the hash is left to be set on insert.
+        return queryDocument.append("hash", new Document("$in", hashMatches));
+    }
+
+    /**
+     * Find whether hashes are stored as binary, as configured by {@link DbConfiguration#HASH_STORAGE}.
+     *
+     * @return True if hashes are stored as binary, false if stored as hex.
+     * @throws IllegalStateException If the configured storage is unknown.
+     */
+    static boolean isBinaryHashStorage() {
+        switch (DbConfiguration.HASH_STORAGE) {
+            case BINARY_HASH_STORAGE:
+                return true;
+            case HEX_HASH_STORAGE:
+                return false;
+            default:
+                throw new IllegalStateException("Unknown hash storage: " + DbConfiguration.HASH_STORAGE);
+        }
+    }
+
+    private DbDocuments() {
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.foomoo.stringstore.store;
+
+import java.util.UUID;
+
+/**
+ * Represents the summary fields of a document in the strings collection in the MongoDB database, retrieved without the
+ * string content.
+ */
+public class DbStringSummary {
+
+    private final UUID id;
+    private final long epoch;
+    private final int size;
+    private final String hash;
+
+    /**
+     * Construct a DbStringSummary representing the summary fields of a document in the strings collection.
+     *
+     * @param id    The string id.
+     * @param epoch The unix time that the string was added to the store.
+     * @param size  The size of the string content.
+     * @param hash  The hash of the string content as hex, or null if not retrieved.
+     */
+    public DbStringSummary(final UUID id, final long epoch, final int size, final String hash) {
+        this.id = id;
+        this.epoch = epoch;
+        this.size = size;
+        this.hash = hash;
+    }
+
+    /**
+     * Get the string id.
+     *
+     * @return The string id.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Get the unix time that the string was created.
+     *
+     * @return The string creation time.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Get the size of the string content.
+     *
+     * @return The size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the hash of the string content, if retrieved.
+     *
+     * @return The hash as hex, or null if not retrieved.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.foomoo.stringstore.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * {@link ContentCodec} compressing content with deflate in the zlib format, which is the HTTP "deflate" content coding.
+ * <p>
+ * A preset dictionary of byte sequences common in the stored strings may be given, which greatly improves the
+ * compression of short strings. Content compressed with a dictionary can only be decompressed with the same
+ * dictionary, so it is stored under a different codec name and is never sent to clients.
+ */
+public class DeflateContentCodec implements ContentCodec {
+
+    /**
+     * The codec name of content compressed without a dictionary.
+     */
+    public static final String NAME = "deflate";
+
+    /**
+     * The codec name of content compressed with a preset dictionary.
+     */
+    public static final String DICTIONARY_NAME = "deflate-dictionary";
+
+    private static final String CONTENT_CODING = "deflate";
+
+    private final int level;
+    private final byte[] dictionary;
+    private final long dictionaryId;
+
+    /**
+     * Construct a DeflateContentCodec.
+     *
+     * @param level      The compression level, from 0 to 9, or -1 for the default level.
+     * @param dictionary The preset dictionary, or null to compress without a dictionary.
+     */
+    public DeflateContentCodec(final int level, final byte[] dictionary) {
+        this.level = level;
+        this.dictionary = dictionary;
+
+        if (dictionary == null) {
+            this.dictionaryId = 0;
+        } else {
+            final Adler32 adler32 = new Adler32();
+            adler32.update(dictionary);
+            this.dictionaryId = adler32.getValue();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return dictionary == null ? NAME : DICTIONARY_NAME;
+    }
+
+    @Override
+    public String getContentCoding() {
+        return dictionary == null ? CONTENT_CODING : null;
+    }
+
+    @Override
+    public OutputStream encodingStream(final OutputStream outputStream) {
+        final Deflater deflater = new Deflater(level);
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+        }
+
+        return new DeflaterOutputStream(outputStream, deflater) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    @Override
+    public InputStream decodingStream(final InputStream inputStream) {
+        final Inflater inflater = new Inflater();
+
+        return new InflaterInputStream(inputStream, inflater) {
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                final int read = super.read(b, off, len);
+                if (read == -1 && inflater.needsDictionary()) {
+                    // The zlib header names the dictionary the content was compressed with by its Adler-32 checksum.
+                    if (dictionary == null || inflater.getAdler() != dictionaryId) {
+                        throw new IOException("Content was compressed with a different dictionary");
+                    }
+                    inflater.setDictionary(dictionary);
+                    return super.read(b, off, len);
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+}
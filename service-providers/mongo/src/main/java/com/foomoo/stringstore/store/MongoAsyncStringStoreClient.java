@@ -0,0 +1,357 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.service.StringNotFoundException;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoServerException;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.MongoClient;
+import com.mongodb.async.client.MongoClients;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.async.client.MongoDatabase;
+import com.mongodb.async.client.gridfs.GridFSBucket;
+import com.mongodb.async.client.gridfs.GridFSBuckets;
+import com.mongodb.async.client.gridfs.helpers.AsyncStreamHelper;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * The client for connecting to the MongoDB database and performing add and find operations without blocking the
+ * calling thread. Each operation returns a {@link CompletableFuture} completed by the driver when the operation has
+ * finished. Documents are converted in the same way as by {@link MongoStringStoreClient}, which is responsible for
+ * ensuring the required indexes exist.
+ */
+public class MongoAsyncStringStoreClient {
+
+    /**
+     * The client connected to the database named by {@link DbConfiguration#DATABASE} with the asynchronous driver.
+     */
+    public static final MongoAsyncStringStoreClient instance = new MongoAsyncStringStoreClient();
+
+    final private MongoClient client = createClient();
+    final private MongoDatabase db = client.getDatabase(DbConfiguration.DATABASE);
+    final private MongoCollection<Document> strings = db.getCollection(DbConfiguration.STRINGS_COLLECTION)
+            .withWriteConcern(DbConfiguration.STRINGS_WRITE_CONCERN);
+    final private MongoCollection<Document> requests = db.getCollection(DbConfiguration.REQUESTS_COLLECTION)
+            .withWriteConcern(DbConfiguration.REQUESTS_WRITE_CONCERN);
+    final private GridFSBucket contentBucket = GridFSBuckets.create(db, DbConfiguration.CONTENT_BUCKET)
+            .withWriteConcern(DbConfiguration.STRINGS_WRITE_CONCERN)
+            .withReadPreference(DbConfiguration.CONTENT_READ_PREFERENCE);
+
+    // The collections read by each class of read, with its read preference, as for MongoStringStoreClient.
+    final private MongoCollection<Document> contentStrings = strings.withReadPreference(DbConfiguration.CONTENT_READ_PREFERENCE);
+    final private MongoCollection<Document> summaryStrings = strings.withReadPreference(DbConfiguration.SUMMARY_READ_PREFERENCE);
+    final private MongoCollection<Document> summaryRequests = requests.withReadPreference(DbConfiguration.SUMMARY_READ_PREFERENCE);
+
+    /**
+     * Get the number of documents in the strings collection.
+     *
+     * @return A future completing with the number of documents.
+     */
+    public CompletableFuture<Long> getStringsCount() {
+        return StoreMetrics.timeAsync("count_strings", () -> toFuture(summaryStrings::estimatedDocumentCount));
+    }
+
+    /**
+     * Get the number of documents in the requests collection.
+     *
+     * @return A future completing with the number of documents.
+     */
+    public CompletableFuture<Long> getRequestCount() {
+        return StoreMetrics.timeAsync("count_requests", () -> toFuture(summaryRequests::estimatedDocumentCount));
+    }
+
+    /**
+     * Finds the document in the strings collection with the given id.
+     *
+     * @param id The id of the document to find.
+     * @return A future completing with the {@link DbString} found for the given id, or completing exceptionally with a
+     * {@link StringNotFoundException} if no document is found with the given id.
+     */
+    public CompletableFuture<DbString> findStringById(final UUID id) {
+        return StoreMetrics.timeAsync("find_by_id", () -> {
+            final CompletableFuture<Document> foundString = toFuture(callback -> contentStrings.find(new Document("_id", id)).first(callback));
+
+            return foundString.thenCompose(document -> documentOrNotFound(id, document)).thenCompose(this::documentToResolvedDbString);
+        });
+    }
+
+    /**
+     * Finds the summary fields of the document in the strings collection with the given id, without retrieving the
+     * string content.
+     *
+     * @param id The id of the document to find.
+     * @return A future completing with the {@link DbStringSummary} found for the given id, or completing exceptionally
+     * with a {@link StringNotFoundException} if no document is found with the given id.
+     */
+    public CompletableFuture<DbStringSummary> findStringSummaryById(final UUID id) {
+        return StoreMetrics.timeAsync("find_summary_by_id", () -> {
+            final CompletableFuture<Document> foundString = toFuture(callback -> summaryStrings.find(new Document("_id", id))
+                    .projection(MongoStringStoreClient.SUMMARY_PROJECTION)
+                    .first(callback));
+
+            return foundString.thenCompose(document -> documentOrNotFound(id, document)).thenApply(DbDocuments::documentToDbStringSummary);
+        });
+    }
+
+    /**
+     * Add a document to the strings collection based on the given {@link DbString}, unless a document with the same
+     * size and hash already exists, as described by {@link MongoStringStoreClient#addStringIfAbsent(DbString)}.
+     *
+     * @param string The {@link DbString} to base the document on.
+     * @return A future completing with the id of the existing document with the same size and hash, or with null if a
+     * new document was added.
+     */
+    public CompletableFuture<UUID> addStringIfAbsent(final DbString string) {
+        return StoreMetrics.timeAsync("upsert_string", () -> storeContent(string).thenCompose(insertDocument -> addStringDocumentIfAbsent(string, insertDocument)));
+    }
+
+    /**
+     * Get the summary fields of the most recently added documents from the strings collection. The given limit
+     * specifies the maximum number of documents to retrieve.
+     *
+     * @param limit The maximum number of documents to retrieve.
+     * @return A future completing with a {link List} of {@link DbStringSummary} objects, most recent first.
+     */
+    public CompletableFuture<List<DbStringSummary>> getRecentStringSummaries(final int limit) {
+        return StoreMetrics.timeAsync("find_recent_summaries", () -> {
+            final CompletableFuture<List<Document>> foundStrings = toFuture(callback -> summaryStrings.find()
+                    .projection(MongoStringStoreClient.SUMMARY_PROJECTION)
+                    .sort(new Document("creation_epoch", -1).append("_id", -1))
+                    .limit(limit)
+                    .into(new ArrayList<>(), callback));
+
+            return foundStrings.thenApply(documents -> documents.stream()
+                    .map(DbDocuments::documentToDbStringSummary)
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    /**
+     * Add documents to the requests collection based on the given {@link DbRequest}s in a single bulk insert. Requests
+     * are added through the {@link RequestLog} rather than directly.
+     *
+     * @param requests The {@link DbRequest}s to base the documents on.
+     * @return A future completing when the documents have been added.
+     */
+    CompletableFuture<Void> addRequests(final List<DbRequest> requests) {
+        return StoreMetrics.timeAsync("insert_requests", () -> {
+            final List<Document> documents = new ArrayList<>(requests.size());
+            requests.forEach(request -> documents.add(DbDocuments.dbRequestToDocument(request)));
+
+            final CompletableFuture<Void> added = toFuture(callback -> this.requests.insertMany(documents,
+                    new InsertManyOptions().ordered(false), callback));
+
+            return added.thenRun(() -> StatusCounters.instance.requestsAdded(documents.size()));
+        });
+    }
+
+    /**
+     * Get the most recently added documents from the requests collection. The given limit specifies the maximum number
+     * of documents to retrieve.
+     *
+     * @param limit The maximum number of documents to retrieve.
+     * @return A future completing with a {link List} of {@link DbRequest} objects, most recent first.
+     */
+    public CompletableFuture<List<DbRequest>> getRecentRequests(final int limit) {
+        return StoreMetrics.timeAsync("find_recent_requests", () -> {
+            final CompletableFuture<List<Document>> foundRequests = toFuture(callback -> summaryRequests.find()
+                    .sort(new Document("epoch", -1))
+                    .limit(limit)
+                    .into(new ArrayList<>(), callback));
+
+            return foundRequests.thenApply(documents -> documents.stream()
+                    .map(DbDocuments::documentToDbRequest)
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    /**
+     * Add the given document to the strings collection unless a document with the same size and hash already exists,
+     * deleting any content uploaded for the document to the content bucket if it is not added.
+     *
+     * @param string         The {@link DbString} the document is based on.
+     * @param insertDocument The document to add.
+     * @return A future completing with the id of the existing document with the same size and hash, or with null if
+     * the document was added.
+     */
+    private CompletableFuture<UUID> addStringDocumentIfAbsent(final DbString string, final Document insertDocument) {
+        final Document queryDocument = DbDocuments.sizeHashUpsertQuery(insertDocument);
+        final Document updateDocument = new Document("$setOnInsert", insertDocument);
+
+        final FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .upsert(true)
+                .returnDocument(ReturnDocument.BEFORE)
+                .projection(Projections.include("_id"));
+
+        final CompletableFuture<Document> existingDocument = new CompletableFuture<>();
+        strings.findOneAndUpdate(queryDocument, updateDocument, options, (document, throwable) -> {
+            if (throwable instanceof MongoServerException
+                    && ((MongoServerException) throwable).getCode() == MongoStringStoreClient.DUPLICATE_KEY_ERROR_CODE) {
+                // Lost a race with a concurrent upsert of the same content. Retrying finds the winner's document.
+                strings.findOneAndUpdate(queryDocument, updateDocument, options, completing(existingDocument));
+            } else {
+                completing(existingDocument).onResult(document, throwable);
+            }
+        });
+
+        return existingDocument.thenCompose(document -> {
+            if (document == null) {
+                MongoStringStoreClient.recordWrittenString(string, insertDocument);
+                return CompletableFuture.completedFuture(null);
+            }
+            StringFilter.instance.add(string.getSize(), string.getHash());
+            return discardContent(insertDocument).thenApply(ignored -> (UUID) document.get("_id"));
+        });
+    }
+
+    /**
+     * Convert the given {@link DbString} to a {@link Document} for writing to MongoDB, as described by
+     * {@link MongoStringStoreClient}. Content too large to be held in the document is first encoded and uploaded to the
+     * content bucket, and the document refers to the uploaded file.
+     *
+     * @param dbString The object to convert.
+     * @return A future completing with the created {@link Document}.
+     */
+    private CompletableFuture<Document> storeContent(final DbString dbString) {
+        if (!MongoStringStoreClient.isContentInBucket(dbString.getSize())) {
+            return CompletableFuture.completedFuture(DbDocuments.dbStringToDocument(dbString));
+        }
+
+        final byte[] contentBytes = dbString.getContent().getBytes(StandardCharsets.UTF_8);
+        final ContentCodec codec = ContentCodecs.WRITE_CODEC;
+        final byte[] storedBytes = codec == null ? contentBytes : codec.encode(contentBytes);
+        final CompletableFuture<ObjectId> contentFileId = toFuture(callback -> contentBucket.uploadFromStream(
+                dbString.getId().toString(), AsyncStreamHelper.toAsyncInputStream(storedBytes), callback));
+
+        return contentFileId.thenApply(fileId -> DbDocuments.dbStringToDocument(dbString, fileId, contentBytes.length, storedBytes.length));
+    }
+
+    /**
+     * Delete the content uploaded to the content bucket for a document which was not written, if any.
+     *
+     * @param document The document which was not written.
+     * @return A future completing when the content has been deleted.
+     */
+    private CompletableFuture<Void> discardContent(final Document document) {
+        final ObjectId contentFileId = document.getObjectId(DbDocuments.CONTENT_FILE_ID);
+        if (contentFileId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return toFuture(callback -> contentBucket.delete(contentFileId, callback));
+    }
+
+    /**
+     * Convert the given {@link Document} from MongoDB to a {@link DbString} object, downloading the content from the
+     * content bucket if it is not held in the document.
+     *
+     * @param document The object to convert.
+     * @return A future completing with the created {@link DbString}.
+     */
+    private CompletableFuture<DbString> documentToResolvedDbString(final Document document) {
+        final DbString dbString = DbDocuments.documentToDbString(document);
+        final ObjectId contentFileId = document.getObjectId(DbDocuments.CONTENT_FILE_ID);
+        if (contentFileId == null) {
+            return CompletableFuture.completedFuture(dbString);
+        }
+
+        final ByteArrayOutputStream contentBytes = new ByteArrayOutputStream();
+        final CompletableFuture<Long> downloaded = toFuture(callback -> contentBucket.downloadToStream(
+                contentFileId, AsyncStreamHelper.toAsyncOutputStream(contentBytes), callback));
+
+        return downloaded.thenApply(ignored -> new DbString(dbString.getId(), dbString.getUser(), dbString.getSize(),
+                dbString.getEpoch(), dbString.getHash(), DbDocuments.decodeContent(document, contentBytes.toByteArray())));
+    }
+
+    /**
+     * Create the client connecting to the servers given by {@link DbConfiguration#HOSTS}, with the same connection
+     * pool and timeouts as {@link MongoStringStoreClient}. The pool's wait queue is sized from the wait queue multiplier
+     * as by the synchronous driver.
+     *
+     * @return The client.
+     */
+    @SuppressWarnings("deprecation")
+    private static MongoClient createClient() {
+        return MongoClients.create(MongoClientSettings.builder()
+                .applyToClusterSettings(builder -> builder
+                        .hosts(DbConfiguration.HOSTS)
+                        .requiredReplicaSetName(DbConfiguration.REPLICA_SET)
+                        .serverSelectionTimeout(DbConfiguration.SERVER_SELECTION_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                .applyToConnectionPoolSettings(builder -> builder
+                        .minSize(DbConfiguration.POOL_MIN_SIZE)
+                        .maxSize(DbConfiguration.POOL_MAX_SIZE)
+                        .maxWaitTime(DbConfiguration.POOL_MAX_WAIT_MS, TimeUnit.MILLISECONDS)
+                        .maxWaitQueueSize(DbConfiguration.POOL_MAX_SIZE * DbConfiguration.POOL_WAIT_QUEUE_MULTIPLIER)
+                        .addConnectionPoolListener(new ConnectionPoolMetrics("async")))
+                .applyToSocketSettings(builder -> builder
+                        .connectTimeout(DbConfiguration.CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                        .readTimeout(DbConfiguration.SOCKET_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                .build());
+    }
+
+    /**
+     * Start an operation taking a driver callback, returning a future completed by the callback.
+     *
+     * @param operation The operation to start.
+     * @param <T>       The type of the operation result.
+     * @return The future completed with the result of the operation.
+     */
+    private static <T> CompletableFuture<T> toFuture(final Consumer<SingleResultCallback<T>> operation) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        operation.accept(completing(future));
+        return future;
+    }
+
+    /**
+     * Create a driver callback which completes the given future.
+     *
+     * @param future The future to complete.
+     * @param <T>    The type of the operation result.
+     * @return The callback.
+     */
+    private static <T> SingleResultCallback<T> completing(final CompletableFuture<T> future) {
+        return (result, throwable) -> {
+            if (throwable == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(throwable);
+            }
+        };
+    }
+
+    /**
+     * Get a future completed with the given document, or completed exceptionally with a {@link StringNotFoundException}
+     * if the document is null.
+     *
+     * @param id       The id of the document that was searched for.
+     * @param document The found document, or null.
+     * @return The future.
+     */
+    private static CompletableFuture<Document> documentOrNotFound(final UUID id, final Document document) {
+        final CompletableFuture<Document> future = new CompletableFuture<>();
+        if (document == null) {
+            future.completeExceptionally(new StringNotFoundException(id));
+        } else {
+            future.complete(document);
+        }
+        return future;
+    }
+
+    // Private constructor.
+    private MongoAsyncStringStoreClient() {
+    }
+
+}
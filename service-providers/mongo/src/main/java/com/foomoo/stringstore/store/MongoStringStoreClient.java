@@ -1,31 +1,131 @@
 package com.foomoo.stringstore.store;
 
+import com.foomoo.stringstore.service.ContentHasher;
+import com.foomoo.stringstore.service.Status;
+import com.foomoo.stringstore.service.StringContent;
 import com.foomoo.stringstore.service.StringNotFoundException;
+import com.foomoo.stringstore.service.Utf8StringContent;
 import com.google.common.collect.Iterables;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoServerException;
+import com.mongodb.MongoWriteException;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSUploadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import io.prometheus.client.Histogram;
+import org.bson.BsonType;
 import org.bson.Document;
-
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * The client for connecting to the MongoDB database and performing add and find operations.
  */
 public class MongoStringStoreClient {
 
+    private static final Logger LOGGER = Logger.getLogger(MongoStringStoreClient.class.getName());
+
+    static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+    static final int NAMESPACE_NOT_FOUND_ERROR_CODE = 26;
+
+    private static final int SIZE_HASH_BATCH_SIZE = 10000;
+
+    // Estimates of the BSON size of the documents written to the content bucket: a files document naming the file by
+    // the id of its string, and a chunk document besides the data it holds, in chunks of the GridFS default size.
+    private static final Codec<Document> DOCUMENT_CODEC = MongoClient.getDefaultCodecRegistry().get(Document.class);
+    private static final long FILES_DOCUMENT_BYTES = 170;
+    private static final long CHUNK_DOCUMENT_BYTES = 62;
+    private static final long CHUNK_SIZE_BYTES = 255 * 1024;
+
+    /**
+     * The indexes supporting the queries made by this client.
+     */
+    public static final List<RequiredIndex> REQUIRED_INDEXES = Arrays.asList(
+            new RequiredIndex(DbConfiguration.STRINGS_COLLECTION, new Document("size", 1).append("hash", 1), true),
+            new RequiredIndex(DbConfiguration.STRINGS_COLLECTION, new Document("creation_epoch", 1).append("_id", 1).append("size", 1), false),
+            new RequiredIndex(DbConfiguration.REQUESTS_COLLECTION, new Document("epoch", -1), false),
+            new RequiredIndex(DbConfiguration.REQUESTS_COLLECTION, new Document("string_id", 1), false));
+
+    /**
+     * Indexes created by earlier versions of this client which no longer support any query, and only slow writes.
+     * The creation_epoch index was superseded by the creation_epoch, _id and size index covering summary listings.
+     */
+    public static final List<RequiredIndex> SUPERSEDED_INDEXES = Collections.singletonList(
+            new RequiredIndex(DbConfiguration.STRINGS_COLLECTION, new Document("creation_epoch", -1), false));
+
+    /**
+     * Projection of the fields of a strings document needed for a {@link DbStringSummary}. All of these fields are held
+     * in the creation_epoch, _id and size index, so queries sorted on that index with this projection are covered by
+     * the index and never read the documents.
+     */
+    static final Bson SUMMARY_PROJECTION = Projections.include("_id", "creation_epoch", "size");
+
+    /**
+     * Projection of the fields of a strings document needed for a {@link DbStringSummary} with the hash of the string
+     * content, for finding a single summary by id.
+     */
+    static final Bson SUMMARY_HASH_PROJECTION = Projections.include("_id", "creation_epoch", "size", "hash");
+
     public static final MongoStringStoreClient instance = new MongoStringStoreClient();
 
-    final private MongoClient client = new MongoClient(DbConfiguration.HOSTNAME, DbConfiguration.PORT);
+    final private MongoClient client = createClient();
     final private MongoDatabase db = client.getDatabase(DbConfiguration.DATABASE);
-    final private MongoCollection<Document> strings = db.getCollection(DbConfiguration.STRINGS_COLLECTION);
-    final private MongoCollection<Document> requests = db.getCollection(DbConfiguration.REQUESTS_COLLECTION);
+    final private boolean uniqueIndexVerified;
+    final private MongoCollection<Document> strings = db.getCollection(DbConfiguration.STRINGS_COLLECTION)
+            .withWriteConcern(DbConfiguration.STRINGS_WRITE_CONCERN);
+    final private MongoCollection<Document> requests = db.getCollection(DbConfiguration.REQUESTS_COLLECTION)
+            .withWriteConcern(DbConfiguration.REQUESTS_WRITE_CONCERN);
+    final private GridFSBucket contentBucket = GridFSBuckets.create(db, DbConfiguration.CONTENT_BUCKET)
+            .withWriteConcern(DbConfiguration.STRINGS_WRITE_CONCERN)
+            .withReadPreference(DbConfiguration.CONTENT_READ_PREFERENCE);
+
+    // The collections read by each class of read, with its read preference. Writes and the upserts made to detect
+    // duplicates atomically always go to the primary.
+    final private MongoCollection<Document> contentStrings = strings.withReadPreference(DbConfiguration.CONTENT_READ_PREFERENCE);
+    final private MongoCollection<Document> summaryStrings = strings.withReadPreference(DbConfiguration.SUMMARY_READ_PREFERENCE);
+    final private MongoCollection<Document> dedupStrings = strings.withReadPreference(DbConfiguration.DEDUP_READ_PREFERENCE);
+    final private MongoCollection<Document> summaryRequests = requests.withReadPreference(DbConfiguration.SUMMARY_READ_PREFERENCE);
 
     /**
      * Get the number of documents in the strings collection.
@@ -33,7 +133,9 @@ public class MongoStringStoreClient {
      * @return The number of documents.
      */
     public long getStringsCount() {
-        return strings.count();
+        try (Histogram.Timer timer = StoreMetrics.startTimer("count_strings")) {
+            return summaryStrings.count();
+        }
     }
 
     /**
@@ -42,22 +144,52 @@ public class MongoStringStoreClient {
      * @return The number of documents.
      */
     public long getRequestCount() {
-        return requests.count();
+        try (Histogram.Timer timer = StoreMetrics.startTimer("count_requests")) {
+            return summaryRequests.count();
+        }
     }
 
     /**
-     * Finds documents in the strings collection matching the given size and SHA1 hash.
+     * Get the status of the store from the estimated number of documents in the strings and requests collections,
+     * taken from collection metadata without counting the documents. The number of bytes stored is optionally taken
+     * from the data size of the strings collection and the collections of the content bucket.
      *
-     * @param size     The size property to search for.
-     * @param sha1Hash The hash property to search for.
-     * @return A {@link List} of {@link DbString} objects matching the requested size and hash.
+     * @param includeStoredBytes Whether to include the number of bytes stored.
+     * @return The estimated status.
      */
-    public List<DbString> findStringBySizeHash(final int size, final String sha1Hash) {
-        final Document queryDocument = new Document().append("size", size).append("hash", sha1Hash);
+    public Status estimateStatus(final boolean includeStoredBytes) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("estimate_status")) {
+            final Long storedBytes;
+            if (includeStoredBytes) {
+                storedBytes = getDataSize(DbConfiguration.STRINGS_COLLECTION)
+                        + getDataSize(DbConfiguration.CONTENT_BUCKET + ".files")
+                        + getDataSize(DbConfiguration.CONTENT_BUCKET + ".chunks");
+            } else {
+                storedBytes = null;
+            }
+
+            return new Status(summaryStrings.estimatedDocumentCount(), summaryRequests.estimatedDocumentCount(), storedBytes);
+        }
+    }
 
-        final FindIterable<Document> foundStrings = strings.find(queryDocument).limit(1);
+    /**
+     * Finds documents in the strings collection whose size is one of the given sizes and whose hash is one of the given
+     * hashes, using a single query against the size and hash index. Callers must check the size and hash of the found
+     * strings, as a found string may match a size from one pair and a hash from another. The content of the found
+     * strings is not retrieved.
+     *
+     * @param sizes  The size properties to search for.
+     * @param hashes The hash properties to search for, as hex.
+     * @return A {@link List} of {@link DbString} objects, without content, matching the requested sizes and hashes.
+     */
+    public List<DbString> findStringsBySizesHashes(final Collection<Integer> sizes, final Collection<String> hashes) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("find_by_sizes_hashes")) {
+            final FindIterable<Document> foundStrings = dedupStrings
+                    .find(Filters.and(Filters.in("size", sizes), Filters.in("hash", DbDocuments.storedHashMatches(hashes))))
+                    .projection(Projections.exclude("content"));
 
-        return foundStrings.map(MongoStringStoreClient::documentToDbString).into(new ArrayList<>());
+            return foundStrings.map(DbDocuments::documentToDbString).into(new ArrayList<>());
+        }
     }
 
     /**
@@ -68,15 +200,55 @@ public class MongoStringStoreClient {
      * @throws StringNotFoundException If no document is found with the given id.
      */
     public DbString findStringById(final UUID id) throws StringNotFoundException {
-        final Document queryDocument = new Document().append("_id", id);
+        try (Histogram.Timer timer = StoreMetrics.startTimer("find_by_id")) {
+            final Document queryDocument = new Document().append("_id", id);
+
+            final FindIterable<Document> foundStrings = contentStrings.find(queryDocument).limit(1);
+
+            final ArrayList<DbString> dbStrings = foundStrings.map(this::documentToResolvedDbString).into(new ArrayList<>());
+            if (dbStrings.isEmpty()) {
+                throw new StringNotFoundException(id);
+            } else {
+                return Iterables.getOnlyElement(dbStrings);
+            }
+        }
+    }
 
-        final FindIterable<Document> foundStrings = strings.find(queryDocument).limit(1);
+    /**
+     * Finds the summary fields and hash of the document in the strings collection with the given id, without
+     * retrieving the string content.
+     *
+     * @param id The id of the document to find.
+     * @return The {@link DbStringSummary} found for the given id.
+     * @throws StringNotFoundException If no document is found with the given id.
+     */
+    public DbStringSummary findStringSummaryById(final UUID id) throws StringNotFoundException {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("find_summary_by_id")) {
+            final Document foundString = summaryStrings.find(new Document("_id", id)).projection(SUMMARY_HASH_PROJECTION).first();
+
+            if (foundString == null) {
+                throw new StringNotFoundException(id);
+            }
+            return DbDocuments.documentToDbStringSummary(foundString);
+        }
+    }
 
-        final ArrayList<DbString> dbStrings = foundStrings.map(MongoStringStoreClient::documentToDbString).into(new ArrayList<>());
-        if (dbStrings.isEmpty()) {
-            throw new StringNotFoundException(id);
-        } else {
-            return Iterables.getOnlyElement(dbStrings);
+    /**
+     * Finds the hash field of the document in the strings collection with the given id, without retrieving the string
+     * content.
+     *
+     * @param id The id of the document to find.
+     * @return The hash of the string content, as hex.
+     * @throws StringNotFoundException If no document is found with the given id.
+     */
+    public String findStringHashById(final UUID id) throws StringNotFoundException {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("find_hash_by_id")) {
+            final Document foundString = summaryStrings.find(new Document("_id", id)).projection(Projections.include("hash")).first();
+
+            if (foundString == null) {
+                throw new StringNotFoundException(id);
+            }
+            return DbDocuments.hashHex(foundString.get("hash"));
         }
     }
 
@@ -88,15 +260,48 @@ public class MongoStringStoreClient {
      * @return The List of {@link DbString}s found for the given ids.
      */
     public List<DbString> findStringsByIds(final UUID... ids) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("find_by_ids")) {
+            final BasicDBList idsList = new BasicDBList();
+            idsList.addAll(Arrays.asList(ids));
 
-        final BasicDBList idsList = new BasicDBList();
-        idsList.addAll(Arrays.asList(ids));
+            final Document queryDocument = new Document().append("_id", new BasicDBObject("$in", idsList));
 
-        final Document queryDocument = new Document().append("_id", new BasicDBObject("$in", idsList));
+            final FindIterable<Document> foundStrings = contentStrings.find(queryDocument);
 
-        final FindIterable<Document> foundStrings = strings.find(queryDocument);
+            return foundStrings.map(this::documentToResolvedDbString).into(new ArrayList<>());
+        }
+    }
 
-        return foundStrings.map(MongoStringStoreClient::documentToDbString).into(new ArrayList<>());
+    /**
+     * Finds the content of the document in the strings collection with the given id. Content stored in the content
+     * bucket is not retrieved until it is written.
+     *
+     * @param id The id of the document to find.
+     * @return The {@link StringContent} of the document found for the given id.
+     * @throws StringNotFoundException If no document is found with the given id.
+     */
+    public StringContent openStringContent(final UUID id) throws StringNotFoundException {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("open_content")) {
+            final Document foundString = contentStrings.find(new Document("_id", id))
+                    .projection(Projections.include("content", "hash", DbDocuments.CONTENT_FILE_ID, DbDocuments.CONTENT_LENGTH, DbDocuments.CONTENT_CODEC))
+                    .first();
+
+            if (foundString == null) {
+                throw new StringNotFoundException(id);
+            }
+
+            final ObjectId contentFileId = foundString.getObjectId(DbDocuments.CONTENT_FILE_ID);
+            final Object content = foundString.get("content");
+            final String hash = DbDocuments.hashHex(foundString.get("hash"));
+            if (contentFileId == null && content instanceof String) {
+                return new Utf8StringContent((String) content, hash);
+            }
+
+            final StoredStringContent.StoredBytes storedBytes = contentFileId == null
+                    ? StoredStringContent.bytes(((Binary) content).getData())
+                    : contentFileBytes(contentFileId);
+            return new StoredStringContent(storedBytes, DbDocuments.contentCodec(foundString), foundString.getLong(DbDocuments.CONTENT_LENGTH), hash);
+        }
     }
 
     /**
@@ -105,36 +310,193 @@ public class MongoStringStoreClient {
      * @param string The {@link DbString} to base the document on.
      */
     public void addString(final DbString string) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("insert_string")) {
+            final Document document = storeContent(string);
 
-        final Document document = dbStringToDocument(string);
+            strings.insertOne(document);
+            recordWrittenString(string, document);
+        }
+    }
 
-        strings.insertOne(document);
+    /**
+     * Add documents to the strings collection based on the given {@link DbString}s in a single unordered bulk insert.
+     * Strings which cannot be inserted because a document with the same size and hash was added concurrently are
+     * returned so the caller can resolve them.
+     *
+     * @param strings The {@link DbString}s to base the documents on.
+     * @return The {@link DbString}s not added because a document with the same size and hash already exists.
+     */
+    public List<DbString> addStrings(final List<DbString> strings) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("insert_strings")) {
+            final List<DbString> duplicateStrings = new ArrayList<>();
+            if (strings.isEmpty()) {
+                return duplicateStrings;
+            }
+
+            final List<Document> documents = new ArrayList<>(strings.size());
+            strings.forEach(string -> documents.add(storeContent(string)));
+
+            try {
+                this.strings.insertMany(documents, new InsertManyOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                for (final BulkWriteError writeError : e.getWriteErrors()) {
+                    if (writeError.getCode() != DUPLICATE_KEY_ERROR_CODE) {
+                        throw e;
+                    }
+                    duplicateStrings.add(strings.get(writeError.getIndex()));
+                    discardContent(documents.get(writeError.getIndex()));
+                }
+            }
+
+            for (int i = 0; i < strings.size(); i++) {
+                if (!duplicateStrings.contains(strings.get(i))) {
+                    recordWrittenString(strings.get(i), documents.get(i));
+                }
+            }
+            return duplicateStrings;
+        }
     }
 
     /**
-     * Get the most recently added documents from the strings collection. The given limit specifies the maximum number
-     * of documents to retrieve.
+     * Add a document to the strings collection based on the given {@link DbString}, unless a document with the same
+     * size and hash already exists. The check and insert are performed atomically in a single round trip by an upsert
+     * against the unique size and hash index, so concurrent adds of the same content result in a single document.
+     * Content too large to be held in the document is uploaded to the content bucket before the upsert, and deleted
+     * again if a document with the same size and hash already exists.
      *
-     * @param limit The maximum number of documents to retrieve.
-     * @return A {link List} of {@link DbString} objects based on documents retrieved from the strings collection.
+     * @param string The {@link DbString} to base the document on.
+     * @return The id of the existing document with the same size and hash, or null if a new document was added.
+     */
+    public UUID addStringIfAbsent(final DbString string) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("upsert_string")) {
+            return addStringDocumentIfAbsent(string, storeContent(string));
+        }
+    }
+
+    /**
+     * Add a document to the strings collection based on the given {@link DbString}, with content uploaded from the
+     * given stream of UTF-8 bytes to the content bucket, unless a document with the same size and hash already exists.
+     * The content is streamed to the content bucket without being read into memory as a whole.
+     *
+     * @param string        The {@link DbString} to base the document on. Its content is ignored.
+     * @param contentStream The content as a stream of UTF-8 bytes.
+     * @param contentLength The length of the content in bytes.
+     * @return The id of the existing document with the same size and hash, or null if a new document was added.
+     */
+    public UUID addStringIfAbsent(final DbString string, final InputStream contentStream, final long contentLength) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("upsert_string")) {
+            return addStringDocumentIfAbsent(string, uploadContent(string, contentLength, outputStream -> ByteStreams.copy(contentStream, outputStream)));
+        }
+    }
+
+    /**
+     * Add a document to the strings collection based on the given {@link DbString}, which is expected to be new to the
+     * store, with a plain insert rather than the upsert of {@link #addStringIfAbsent(DbString)}. If the insert fails
+     * because a document with the same size and hash exists, the existing document is found as by
+     * {@link #addStringIfAbsent(DbString)}.
+     *
+     * @param string The {@link DbString} to base the document on.
+     * @return The id of the existing document with the same size and hash, or null if a new document was added.
      */
-    public List<DbString> getRecentStrings(final int limit) {
-        final FindIterable<Document> foundStrings = strings.find().sort(new Document("creation_epoch", -1)).limit(limit);
+    public UUID addNewString(final DbString string) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("insert_string")) {
+            return addNewStringDocument(string, storeContent(string));
+        }
+    }
 
-        return foundStrings.map(MongoStringStoreClient::documentToDbString).into(new ArrayList<>());
+    /**
+     * Add a document to the strings collection based on the given {@link DbString}, which is expected to be new to the
+     * store, with content uploaded from the given stream of UTF-8 bytes to the content bucket, as described by
+     * {@link #addNewString(DbString)} and {@link #addStringIfAbsent(DbString, InputStream, long)}.
+     *
+     * @param string        The {@link DbString} to base the document on. Its content is ignored.
+     * @param contentStream The content as a stream of UTF-8 bytes.
+     * @param contentLength The length of the content in bytes.
+     * @return The id of the existing document with the same size and hash, or null if a new document was added.
+     */
+    public UUID addNewString(final DbString string, final InputStream contentStream, final long contentLength) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("insert_string")) {
+            return addNewStringDocument(string, uploadContent(string, contentLength, outputStream -> ByteStreams.copy(contentStream, outputStream)));
+        }
     }
 
+    /**
+     * Pass the size and hash of every document in the strings collection to the given consumer. Only the size and hash
+     * fields are retrieved.
+     *
+     * @param consumer Accepts the size and hash of each document.
+     */
+    public void forEachSizeHash(final BiConsumer<Integer, String> consumer) {
+        dedupStrings.find()
+                .projection(Projections.fields(Projections.include("size", "hash"), Projections.excludeId()))
+                .batchSize(SIZE_HASH_BATCH_SIZE)
+                .forEach((Consumer<Document>) document -> consumer.accept(document.getInteger("size"), DbDocuments.hashHex(document.get("hash"))));
+    }
 
     /**
-     * Get all strings from the strings collection.
+     * Get the summary fields of the most recently added documents from the strings collection, without retrieving the
+     * string content. The given limit specifies the maximum number of documents to retrieve.
      *
-     * @return A {link List} of {@link DbString} objects based on documents retrieved from the strings collection.
+     * @param limit The maximum number of documents to retrieve.
+     * @return A {link List} of {@link DbStringSummary} objects, most recent first.
      */
-    public List<DbString> getAllStrings() {
+    public List<DbStringSummary> getRecentStringSummaries(final int limit) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("find_recent_summaries")) {
+            final FindIterable<Document> foundStrings = summaryStrings.find()
+                    .projection(SUMMARY_PROJECTION)
+                    .sort(new Document("creation_epoch", -1).append("_id", -1))
+                    .limit(limit);
+
+            return foundStrings.map(DbDocuments::documentToDbStringSummary).into(new ArrayList<>());
+        }
+    }
 
-        final FindIterable<Document> foundStrings = strings.find();
+    /**
+     * Get the summary fields of a page of documents from the strings collection, ordered by creation time and then id,
+     * starting after the document with the given creation time and id. The query is covered by the creation_epoch, _id
+     * and size index.
+     *
+     * @param afterEpoch The creation time of the document preceding the page, or null for the first page.
+     * @param afterId    The id of the document preceding the page, or null for the first page.
+     * @param limit      The maximum number of documents to retrieve.
+     * @return A {link List} of {@link DbStringSummary} objects in the page.
+     */
+    public List<DbStringSummary> getStringSummariesPage(final Long afterEpoch, final UUID afterId, final int limit) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("find_summaries_page")) {
+            final Bson queryFilter;
+            if (afterEpoch == null) {
+                queryFilter = new Document();
+            } else {
+                queryFilter = Filters.or(
+                        Filters.gt("creation_epoch", afterEpoch),
+                        Filters.and(Filters.eq("creation_epoch", afterEpoch), Filters.gt("_id", afterId)));
+            }
+
+            final FindIterable<Document> foundStrings = summaryStrings.find(queryFilter)
+                    .projection(SUMMARY_PROJECTION)
+                    .sort(new Document("creation_epoch", 1).append("_id", 1))
+                    .limit(limit);
+
+            return foundStrings.map(DbDocuments::documentToDbStringSummary).into(new ArrayList<>());
+        }
+    }
 
-        return foundStrings.map(MongoStringStoreClient::documentToDbString).into(new ArrayList<>());
+    /**
+     * Pass the summary fields of each document of the strings collection, ordered by creation time and then id, to the
+     * given consumer as the database cursor advances. The query is covered by the creation_epoch, _id and size index.
+     *
+     * @param consumer Accepts a {@link DbStringSummary} for each document.
+     */
+    public void forEachStringSummary(final Consumer<DbStringSummary> consumer) {
+        final FindIterable<Document> foundStrings = summaryStrings.find()
+                .projection(SUMMARY_PROJECTION)
+                .sort(new Document("creation_epoch", 1).append("_id", 1));
+
+        try (final MongoCursor<Document> cursor = foundStrings.iterator()) {
+            while (cursor.hasNext()) {
+                consumer.accept(DbDocuments.documentToDbStringSummary(cursor.next()));
+            }
+        }
     }
 
     /**
@@ -143,10 +505,31 @@ public class MongoStringStoreClient {
      * @param request The {@link DbRequest} to base the document on.
      */
     public void addRequest(final DbRequest request) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("insert_request")) {
+            final Document document = DbDocuments.dbRequestToDocument(request);
 
-        final Document document = dbRequestToDocument(request);
+            requests.insertOne(document);
+            StatusCounters.instance.requestsAdded(1);
+        }
+    }
 
-        requests.insertOne(document);
+    /**
+     * Add documents to the requests collection based on the given {@link DbRequest}s in a single bulk insert.
+     *
+     * @param requests The {@link DbRequest}s to base the documents on.
+     */
+    public void addRequests(final List<DbRequest> requests) {
+        try (Histogram.Timer timer = StoreMetrics.startTimer("insert_requests")) {
+            if (requests.isEmpty()) {
+                return;
+            }
+
+            final List<Document> documents = new ArrayList<>(requests.size());
+            requests.forEach(request -> documents.add(DbDocuments.dbRequestToDocument(request)));
+
+            this.requests.insertMany(documents, new InsertManyOptions().ordered(false));
+            StatusCounters.instance.requestsAdded(documents.size());
+        }
     }
 
     /**
@@ -157,77 +540,415 @@ public class MongoStringStoreClient {
      * @return A {link List} of {@link DbRequest} objects based on documents retrieved from the requests collection.
      */
     public List<DbRequest> getRecentRequests(final int limit) {
-        final FindIterable<Document> foundRequests = requests.find().sort(new Document("epoch", -1)).limit(limit);
+        try (Histogram.Timer timer = StoreMetrics.startTimer("find_recent_requests")) {
+            final FindIterable<Document> foundRequests = summaryRequests.find().sort(new Document("epoch", -1)).limit(limit);
 
-        return foundRequests.map(MongoStringStoreClient::documentToDbRequest).into(new ArrayList<>());
+            return foundRequests.map(DbDocuments::documentToDbRequest).into(new ArrayList<>());
+        }
     }
 
     /**
-     * Convert the given {@link Document} from MongoDB to a {@link DbString} object.
+     * Whether the content of a string of the given size is stored in the content bucket rather than in the strings
+     * document.
      *
-     * @param document The object to convert.
-     * @return The created {@link DbString}.
+     * @param size The size of the string content.
+     * @return True if the content is stored in the content bucket, false otherwise.
+     */
+    public static boolean isContentInBucket(final int size) {
+        return size > DbConfiguration.CONTENT_INLINE_MAX_SIZE;
+    }
+
+    /**
+     * Add the given document to the strings collection unless a document with the same size and hash already exists,
+     * as described by {@link #addStringIfAbsent(DbString)}, deleting any content uploaded for the document to the
+     * content bucket if it is not added.
+     *
+     * @param string         The {@link DbString} the document is based on.
+     * @param insertDocument The document to add.
+     * @return The id of the existing document with the same size and hash, or null if the document was added.
+     */
+    private UUID addStringDocumentIfAbsent(final DbString string, final Document insertDocument) {
+        final Document queryDocument = DbDocuments.sizeHashUpsertQuery(insertDocument);
+        final Document updateDocument = new Document("$setOnInsert", insertDocument);
+
+        final FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .upsert(true)
+                .returnDocument(ReturnDocument.BEFORE)
+                .projection(Projections.include("_id"));
+
+        Document existingDocument;
+        try {
+            existingDocument = strings.findOneAndUpdate(queryDocument, updateDocument, options);
+        } catch (MongoServerException e) {
+            // Concurrent upserts of the same content can race to insert. The loser fails on the unique index and will
+            // find the winner's document when retried.
+            if (e.getCode() != DUPLICATE_KEY_ERROR_CODE) {
+                throw e;
+            }
+            existingDocument = strings.findOneAndUpdate(queryDocument, updateDocument, options);
+        }
+
+        if (existingDocument == null) {
+            recordWrittenString(string, insertDocument);
+            return null;
+        }
+        StringFilter.instance.add(string.getSize(), string.getHash());
+        discardContent(insertDocument);
+        return (UUID) existingDocument.get("_id");
+    }
+
+    /**
+     * Insert the given document to the strings collection, falling back to
+     * {@link #addStringDocumentIfAbsent(DbString, Document)} if a document with the same size and hash already exists.
+     *
+     * @param string   The {@link DbString} the document is based on.
+     * @param document The document to add.
+     * @return The id of the existing document with the same size and hash, or null if the document was added.
      */
-    private static DbString documentToDbString(final Document document) {
+    private UUID addNewStringDocument(final DbString string, final Document document) {
+        try {
+            strings.insertOne(document);
+        } catch (MongoWriteException e) {
+            if (e.getError().getCode() != DUPLICATE_KEY_ERROR_CODE) {
+                throw e;
+            }
+            return addStringDocumentIfAbsent(string, document);
+        }
 
-        final UUID id = (UUID) document.get("_id");
-        final String user = document.getString("user");
-        final String hash = document.getString("hash");
-        final int size = document.getInteger("size");
-        final long creationEpoch = document.getLong("creation_epoch");
-        final String content = document.getString("content");
+        recordWrittenString(string, document);
+        return null;
+    }
 
-        return new DbString(id, user, size, creationEpoch, hash, content);
+    /**
+     * Record a string written to the strings collection in the {@link StatusCounters} and {@link StringFilter}.
+     *
+     * @param string   The {@link DbString} written.
+     * @param document The document written.
+     */
+    static void recordWrittenString(final DbString string, final Document document) {
+        StatusCounters.instance.stringsAdded(1, storedBytes(document));
+        StringFilter.instance.add(string.getSize(), string.getHash());
     }
 
     /**
-     * Convert the given {@link DbString} to a {@link Document} for writing to MongoDB.
+     * Convert the given {@link DbString} to a {@link Document} for writing to MongoDB. Content too large to be held in
+     * the document is first uploaded to the content bucket, streamed as UTF-8 without being copied into a single byte
+     * array, and the document refers to the uploaded file.
      *
      * @param dbString The object to convert.
      * @return The created {@link Document}.
      */
-    private static Document dbStringToDocument(final DbString dbString) {
-        return new Document()
-                .append("_id", dbString.getId())
-                .append("user", dbString.getUser())
-                .append("hash", dbString.getHash())
-                .append("size", dbString.getSize())
-                .append("creation_epoch", dbString.getEpoch())
-                .append("content", dbString.getContent());
+    private Document storeContent(final DbString dbString) {
+        if (!isContentInBucket(dbString.getSize())) {
+            return DbDocuments.dbStringToDocument(dbString);
+        }
+
+        final StringContent content = new Utf8StringContent(dbString.getContent());
+
+        return uploadContent(dbString, content.getByteLength(), content::writeTo);
+    }
+
+    /**
+     * Upload the content of the given {@link DbString} to a new file in the content bucket, encoded by
+     * {@link ContentCodecs#WRITE_CODEC}, and convert the {@link DbString} to a {@link Document} referring to the file.
+     * The file is removed if the content cannot be written.
+     *
+     * @param dbString      The object to convert. Its content is ignored.
+     * @param contentLength The length of the content in UTF-8 bytes.
+     * @param contentWriter Writes the content as UTF-8 bytes.
+     * @return The created {@link Document}.
+     */
+    private Document uploadContent(final DbString dbString, final long contentLength, final ContentWriter contentWriter) {
+        final GridFSUploadStream uploadStream = contentBucket.openUploadStream(dbString.getId().toString());
+        final CountingOutputStream storedStream = new CountingOutputStream(uploadStream);
+
+        final ContentCodec codec = ContentCodecs.WRITE_CODEC;
+        final OutputStream contentStream = codec == null ? storedStream : codec.encodingStream(storedStream);
+        try {
+            contentWriter.write(contentStream);
+            // Closing the content stream closes the upload stream, completing the file.
+            contentStream.close();
+        } catch (IOException e) {
+            uploadStream.abort();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            uploadStream.abort();
+            throw e;
+        }
+
+        return DbDocuments.dbStringToDocument(dbString, uploadStream.getObjectId(), contentLength, storedStream.getCount());
+    }
+
+    /**
+     * Estimate the number of bytes stored for the given strings document, for maintaining {@link StatusCounters} in the
+     * unit of {@link #estimateStatus(boolean)}: the BSON size of the document and, for content held in the content
+     * bucket, of the files document and the chunk documents holding the stored file.
+     *
+     * @param document The strings document.
+     * @return The estimated number of bytes stored.
+     */
+    static long storedBytes(final Document document) {
+        final long documentBytes = new RawBsonDocument(document, DOCUMENT_CODEC).getByteBuffer().remaining();
+
+        final Number storedLength = (Number) document.get(DbDocuments.CONTENT_STORED_LENGTH);
+        if (storedLength == null) {
+            return documentBytes;
+        }
+        final long chunks = (storedLength.longValue() + CHUNK_SIZE_BYTES - 1) / CHUNK_SIZE_BYTES;
+        return documentBytes + FILES_DOCUMENT_BYTES + chunks * CHUNK_DOCUMENT_BYTES + storedLength.longValue();
     }
 
     /**
-     * Convert the given {@link Document} from MongoDB to a {@link DbRequest} object.
+     * Get the size in bytes of the documents in the given collection, as reported by the collStats command. A
+     * collection which does not exist has no size.
+     *
+     * @param collection The name of the collection.
+     * @return The size in bytes.
+     */
+    private long getDataSize(final String collection) {
+        try {
+            return ((Number) db.runCommand(new Document("collStats", collection), DbConfiguration.SUMMARY_READ_PREFERENCE).get("size")).longValue();
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != NAMESPACE_NOT_FOUND_ERROR_CODE) {
+                throw e;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Get the {@link StoredStringContent.StoredBytes} of the given file in the content bucket.
+     *
+     * @param contentFileId The id of the file.
+     * @return The stored bytes.
+     */
+    private StoredStringContent.StoredBytes contentFileBytes(final ObjectId contentFileId) {
+        return new StoredStringContent.StoredBytes() {
+            @Override
+            public InputStream open() {
+                return contentBucket.openDownloadStream(contentFileId);
+            }
+
+            @Override
+            public long length() throws IOException {
+                final GridFSFile contentFile = contentBucket.find(Filters.eq("_id", contentFileId)).first();
+                if (contentFile == null) {
+                    throw new IOException("Missing content file " + contentFileId);
+                }
+                return contentFile.getLength();
+            }
+        };
+    }
+
+    /**
+     * Delete the content uploaded to the content bucket for a document which was not written, if any.
+     *
+     * @param document The document which was not written.
+     */
+    private void discardContent(final Document document) {
+        final ObjectId contentFileId = document.getObjectId(DbDocuments.CONTENT_FILE_ID);
+        if (contentFileId != null) {
+            contentBucket.delete(contentFileId);
+        }
+    }
+
+    /**
+     * Convert the given {@link Document} from MongoDB to a {@link DbString} object, downloading the content from the
+     * content bucket if it is not held in the document.
      *
      * @param document The object to convert.
-     * @return The created {@link DbRequest}.
+     * @return The created {@link DbString}.
      */
-    private static DbRequest documentToDbRequest(final Document document) {
+    private DbString documentToResolvedDbString(final Document document) {
+        final ObjectId contentFileId = document.getObjectId(DbDocuments.CONTENT_FILE_ID);
+        if (contentFileId == null) {
+            return DbDocuments.documentToDbString(document);
+        }
 
-        final UUID id = (UUID) document.get("_id");
-        final UUID stringId = (UUID) document.get("string_id");
-        final String user = document.getString("user");
-        final long epoch = document.getLong("epoch");
+        final ByteArrayOutputStream contentBytes = new ByteArrayOutputStream();
+        contentBucket.downloadToStream(contentFileId, contentBytes);
+        final DbString dbString = DbDocuments.documentToDbString(document);
+        return new DbString(dbString.getId(), dbString.getUser(), dbString.getSize(), dbString.getEpoch(), dbString.getHash(),
+                DbDocuments.decodeContent(document, contentBytes.toByteArray()));
+    }
 
-        return new DbRequest(id, user, stringId, epoch);
+    /**
+     * Writes content to a stream.
+     */
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(OutputStream outputStream) throws IOException;
     }
 
     /**
-     * Convert the given {@link DbRequest} to a {@link Document} for writing to MongoDB.
+     * Create the client connecting to the servers given by {@link DbConfiguration#HOSTS}, with the configured
+     * connection pool and timeouts. A single server is connected to directly unless a replica set name is configured,
+     * in which case the replica set is discovered from it.
      *
-     * @param dbRequest The object to convert.
-     * @return The created {@link Document}.
+     * @return The client.
      */
-    private static Document dbRequestToDocument(final DbRequest dbRequest) {
-        return new Document()
-                .append("_id", dbRequest.getId())
-                .append("string_id", dbRequest.getStringId())
-                .append("user", dbRequest.getUser())
-                .append("epoch", dbRequest.getEpoch());
+    private static MongoClient createClient() {
+        final MongoClientOptions.Builder options = MongoClientOptions.builder()
+                .minConnectionsPerHost(DbConfiguration.POOL_MIN_SIZE)
+                .connectionsPerHost(DbConfiguration.POOL_MAX_SIZE)
+                .maxWaitTime((int) DbConfiguration.POOL_MAX_WAIT_MS)
+                .threadsAllowedToBlockForConnectionMultiplier(DbConfiguration.POOL_WAIT_QUEUE_MULTIPLIER)
+                .connectTimeout(DbConfiguration.CONNECT_TIMEOUT_MS)
+                .socketTimeout(DbConfiguration.SOCKET_TIMEOUT_MS)
+                .serverSelectionTimeout((int) DbConfiguration.SERVER_SELECTION_TIMEOUT_MS)
+                .addConnectionPoolListener(new ConnectionPoolMetrics("sync"));
+
+        if (DbConfiguration.REPLICA_SET == null && DbConfiguration.HOSTS.size() == 1) {
+            return new MongoClient(DbConfiguration.HOSTS.get(0), options.build());
+        }
+        return new MongoClient(DbConfiguration.HOSTS, options.requiredReplicaSetName(DbConfiguration.REPLICA_SET).build());
     }
 
-    // Private constructor.
+    /**
+     * Ensure that each of the {@link #REQUIRED_INDEXES} exists. Missing indexes are created if index creation is
+     * enabled by {@link DbConfiguration#INDEXES_CREATE}. A unique index which is missing and cannot be created, or
+     * which exists without enforcing uniqueness, fails with an {@link IllegalStateException}, as duplicate detection
+     * relies on it. Other indexes which are missing and cannot be created, or which exist with different uniqueness,
+     * are reported by failing with an {@link IllegalStateException} if {@link DbConfiguration#INDEXES_FAIL_FAST} is
+     * set, or by logging a warning otherwise. Any {@link #SUPERSEDED_INDEXES} are dropped when index creation is
+     * enabled.
+     *
+     * @return True if the unique indexes were verified, or false if the indexes could not be listed.
+     */
+    private boolean ensureIndexes() {
+        final List<String> uniqueProblems = new ArrayList<>();
+        final List<String> problems = new ArrayList<>();
+        boolean verified = true;
+
+        try {
+            for (final RequiredIndex requiredIndex : REQUIRED_INDEXES) {
+                final MongoCollection<Document> collection = db.getCollection(requiredIndex.getCollection());
+                final List<String> indexProblems = requiredIndex.isUnique() ? uniqueProblems : problems;
+
+                final List<Document> matchingIndexes = new ArrayList<>();
+                for (final Document indexDocument : collection.listIndexes()) {
+                    if (requiredIndex.keysMatch(indexDocument)) {
+                        matchingIndexes.add(indexDocument);
+                    }
+                }
+
+                if (matchingIndexes.isEmpty()) {
+                    if (DbConfiguration.INDEXES_CREATE) {
+                        try {
+                            collection.createIndex(requiredIndex.getKeys(), new IndexOptions().unique(requiredIndex.isUnique()));
+                            LOGGER.info("Created index " + requiredIndex);
+                        } catch (MongoException e) {
+                            indexProblems.add(String.format("Cannot create index %s: %s", requiredIndex, e.getMessage()));
+                        }
+                    } else {
+                        indexProblems.add("Missing index " + requiredIndex);
+                    }
+                } else if (matchingIndexes.stream().noneMatch(requiredIndex::uniqueMatches)) {
+                    indexProblems.add("Mismatched uniqueness for index " + requiredIndex);
+                }
+            }
+
+            if (DbConfiguration.INDEXES_CREATE) {
+                dropSupersededIndexes();
+            }
+        } catch (MongoException e) {
+            problems.add("Cannot verify indexes: " + e.getMessage());
+            verified = false;
+        }
+
+        if (!uniqueProblems.isEmpty()) {
+            uniqueProblems.addAll(problems);
+            throw new IllegalStateException(String.join("; ", uniqueProblems));
+        }
+        if (!problems.isEmpty()) {
+            final String message = String.join("; ", problems);
+            if (DbConfiguration.INDEXES_FAIL_FAST) {
+                throw new IllegalStateException(message);
+            }
+            LOGGER.warning(message);
+        }
+        return verified;
+    }
+
+    /**
+     * Drop any of the {@link #SUPERSEDED_INDEXES} which exist. An index which cannot be dropped is logged.
+     */
+    private void dropSupersededIndexes() {
+        for (final RequiredIndex supersededIndex : SUPERSEDED_INDEXES) {
+            final MongoCollection<Document> collection = db.getCollection(supersededIndex.getCollection());
+            for (final Document indexDocument : collection.listIndexes().into(new ArrayList<>())) {
+                if (supersededIndex.keysMatch(indexDocument)) {
+                    try {
+                        collection.dropIndex(indexDocument.getString("name"));
+                        LOGGER.info("Dropped superseded index " + supersededIndex);
+                    } catch (MongoException e) {
+                        LOGGER.warning(String.format("Cannot drop superseded index %s: %s", supersededIndex, e.getMessage()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the unique size and hash index of the strings collection was verified on startup. Until it is, adds must
+     * look up existing strings rather than rely on the index to reject duplicates.
+     *
+     * @return True if the unique indexes were verified, false otherwise.
+     */
+    public boolean isUniqueIndexVerified() {
+        return uniqueIndexVerified;
+    }
+
+    /**
+     * Migrate the hashes of the documents in the strings collection which are stored as hex to binary. Hashes of the
+     * configured {@link ContentHasher}'s length are converted as they are, while other hashes, such as SHA-1 hashes
+     * when SHA-256 is configured, are recalculated from the content. A document whose migrated hash duplicates that of
+     * another document is left as it is and logged.
+     */
+    private void migrateHashes() {
+        final ContentHasher contentHasher = ContentHasher.instance;
+        long migrated = 0;
+        long failed = 0;
+
+        try (final MongoCursor<Document> cursor = strings.find(Filters.type("hash", BsonType.STRING)).batchSize(SIZE_HASH_BATCH_SIZE).iterator()) {
+            while (cursor.hasNext()) {
+                final Document document = cursor.next();
+                final String legacyHash = document.getString("hash");
+                final String hash = legacyHash.length() == contentHasher.getHashLength() * 2
+                        ? legacyHash
+                        : contentHasher.hashHex(documentToResolvedDbString(document).getContent());
+
+                try {
+                    strings.updateOne(Filters.and(Filters.eq("_id", document.get("_id")), Filters.eq("hash", legacyHash)),
+                            Updates.set("hash", DbDocuments.storedHash(hash)));
+                    StringFilter.instance.add(document.getInteger("size"), hash);
+                    migrated++;
+                } catch (MongoWriteException e) {
+                    if (e.getError().getCode() != DUPLICATE_KEY_ERROR_CODE) {
+                        throw e;
+                    }
+                    LOGGER.warning(String.format("Cannot migrate hash of string %s, which duplicates another string", document.get("_id")));
+                    failed++;
+                }
+            }
+        } catch (MongoException e) {
+            LOGGER.log(Level.WARNING, String.format("Hash migration stopped after migrating %d hashes", migrated), e);
+            return;
+        }
+
+        LOGGER.info(String.format("Hash migration migrated %d hashes, %d not migrated", migrated, failed));
+    }
+
+    // Private constructor. Ensures the indexes required by the queries made by this client exist, and starts migrating
+    // hashes stored as hex if configured to.
     private MongoStringStoreClient() {
+        uniqueIndexVerified = ensureIndexes();
+
+        if (DbConfiguration.HASH_MIGRATE && DbDocuments.isBinaryHashStorage()) {
+            new ThreadFactoryBuilder().setNameFormat("hash-migration-%d").setDaemon(true).build()
+                    .newThread(this::migrateHashes)
+                    .start();
+        }
     }
 
 }
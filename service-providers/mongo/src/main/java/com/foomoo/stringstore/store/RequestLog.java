@@ -0,0 +1,432 @@
+package com.foomoo.stringstore.store;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends requests to the requests collection. Depending on the {@link Mode}, requests are either written as they are
+ * appended or queued and group committed by a writer thread, which writes up to a maximum batch size of queued requests
+ * with a single bulk insert, waiting up to a maximum linger time for a batch to fill.
+ * <p>
+ * The queue is bounded, so appends wait for space when requests are appended faster than they can be written. Queued
+ * requests are written before the JVM exits, and requests appended once the log is closed are written as they are
+ * appended.
+ * <p>
+ * Asynchronous appends never wait: they return a future, and write their request directly with the asynchronous
+ * writer when the log is closed or the queue is full.
+ */
+public class RequestLog {
+
+    private static final Logger LOGGER = Logger.getLogger(RequestLog.class.getName());
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 30 * 1000;
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * The request log writing requests through the MongoDB clients in the mode named by
+     * {@link DbConfiguration#REQUEST_LOG_MODE}.
+     */
+    public static final RequestLog instance = new RequestLog(Mode.forName(DbConfiguration.REQUEST_LOG_MODE),
+            DbConfiguration.REQUEST_LOG_QUEUE_CAPACITY, DbConfiguration.REQUEST_LOG_BATCH_SIZE,
+            DbConfiguration.REQUEST_LOG_LINGER_MS, requests -> MongoStringStoreClient.instance.addRequests(requests),
+            requests -> MongoAsyncStringStoreClient.instance.addRequests(requests));
+
+    static {
+        new RequestLogMetrics(instance).register();
+    }
+
+    private final Mode mode;
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Consumer<List<DbRequest>> writer;
+    private final Function<List<DbRequest>, CompletableFuture<Void>> asyncWriter;
+
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile Thread writerThread;
+    private volatile int heldRequests;
+
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final AtomicLong batchesWritten = new AtomicLong();
+    private final AtomicLong requestsWritten = new AtomicLong();
+    private final AtomicLong requestsFailed = new AtomicLong();
+
+    /**
+     * Construct a RequestLog.
+     *
+     * @param mode          The durability mode.
+     * @param queueCapacity The maximum number of requests queued to be written.
+     * @param batchSize     The maximum number of requests written in a batch.
+     * @param lingerMs      The maximum time in milliseconds to wait for a batch to fill once a request is queued.
+     * @param writer        Writes a batch of requests to the requests collection.
+     */
+    RequestLog(final Mode mode, final int queueCapacity, final int batchSize, final long lingerMs,
+               final Consumer<List<DbRequest>> writer) {
+        this(mode, queueCapacity, batchSize, lingerMs, writer, requests -> {
+            writer.accept(requests);
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * Construct a RequestLog.
+     *
+     * @param mode          The durability mode.
+     * @param queueCapacity The maximum number of requests queued to be written.
+     * @param batchSize     The maximum number of requests written in a batch.
+     * @param lingerMs      The maximum time in milliseconds to wait for a batch to fill once a request is queued.
+     * @param writer        Writes a batch of requests to the requests collection.
+     * @param asyncWriter   Writes a batch of requests to the requests collection, returning a future completing once
+     *                      they are written.
+     */
+    RequestLog(final Mode mode, final int queueCapacity, final int batchSize, final long lingerMs,
+               final Consumer<List<DbRequest>> writer, final Function<List<DbRequest>, CompletableFuture<Void>> asyncWriter) {
+        this.mode = mode;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.writer = writer;
+        this.asyncWriter = asyncWriter;
+    }
+
+    /**
+     * Append the given request to the log. Unless the mode is {@link Mode#FIRE_AND_FORGET}, returns once the request
+     * has been written.
+     *
+     * @param request The request to append.
+     */
+    public void append(final DbRequest request) {
+        appendAll(Collections.singletonList(request));
+    }
+
+    /**
+     * Append the given requests to the log. Unless the mode is {@link Mode#FIRE_AND_FORGET}, returns once the requests
+     * have been written.
+     *
+     * @param requests The requests to append.
+     */
+    public void appendAll(final List<DbRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        if (mode == Mode.SYNC) {
+            writer.accept(requests);
+            return;
+        }
+
+        final List<Entry> entries = new ArrayList<>(requests.size());
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                writer.accept(requests);
+                return;
+            }
+            if (started.compareAndSet(false, true)) {
+                start();
+            }
+
+            for (final DbRequest request : requests) {
+                final Entry entry = new Entry(request, mode == Mode.BATCHED_ACK ? new CompletableFuture<>() : null);
+                queue.put(entry);
+                entries.add(entry);
+            }
+            maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        } catch (InterruptedException e) {
+            // Requests which could not be queued are written directly rather than lost.
+            Thread.currentThread().interrupt();
+            writer.accept(requests.subList(entries.size(), requests.size()));
+        } finally {
+            closeLock.readLock().unlock();
+        }
+
+        if (mode == Mode.BATCHED_ACK) {
+            try {
+                entries.forEach(entry -> entry.written.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Append the given request to the log without waiting. The request is written directly with the asynchronous writer
+     * in {@link Mode#SYNC} mode, once the log is closed, or when the queue is full rather than waiting for space.
+     *
+     * @param request The request to append.
+     * @return A future completing once the request has been written, or once it is queued in
+     * {@link Mode#FIRE_AND_FORGET} mode.
+     */
+    public CompletableFuture<Void> appendAsync(final DbRequest request) {
+        if (mode == Mode.SYNC) {
+            return asyncWriter.apply(Collections.singletonList(request));
+        }
+
+        final Entry entry = new Entry(request, mode == Mode.BATCHED_ACK ? new CompletableFuture<>() : null);
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                return asyncWriter.apply(Collections.singletonList(request));
+            }
+            if (started.compareAndSet(false, true)) {
+                start();
+            }
+
+            if (!queue.offer(entry)) {
+                return asyncWriter.apply(Collections.singletonList(request));
+            }
+            maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+
+        return entry.written != null ? entry.written : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Close the log, waiting for queued requests to be written. Requests appended once the log is closed are written
+     * as they are appended.
+     */
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        final Thread thread = writerThread;
+        if (thread != null) {
+            try {
+                thread.join(SHUTDOWN_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final int unwritten = queue.size() + heldRequests;
+            if (unwritten > 0) {
+                LOGGER.warning(String.format("%d requests not written to the request log on shutdown", unwritten));
+            }
+        }
+    }
+
+    /**
+     * Get the durability mode of the log.
+     *
+     * @return The mode.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Get the number of requests queued to be written.
+     *
+     * @return The queue depth.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Get the maximum number of requests which can be queued to be written.
+     *
+     * @return The queue capacity.
+     */
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    /**
+     * Get the largest number of requests queued to be written since the log was created.
+     *
+     * @return The maximum queue depth.
+     */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Get the number of batches written by the writer thread.
+     *
+     * @return The number of batches.
+     */
+    public long getBatchesWritten() {
+        return batchesWritten.get();
+    }
+
+    /**
+     * Get the number of queued requests written by the writer thread.
+     *
+     * @return The number of requests.
+     */
+    public long getRequestsWritten() {
+        return requestsWritten.get();
+    }
+
+    /**
+     * Get the number of queued requests which could not be written.
+     *
+     * @return The number of requests.
+     */
+    public long getRequestsFailed() {
+        return requestsFailed.get();
+    }
+
+    /**
+     * Start the writer thread, and close the log when the JVM shuts down so that queued requests are written.
+     */
+    private void start() {
+        final Thread thread = new ThreadFactoryBuilder().setNameFormat("request-log-writer-%d").setDaemon(true).build()
+                .newThread(this::writeBatches);
+        writerThread = thread;
+        thread.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "request-log-shutdown"));
+    }
+
+    /**
+     * Write batches of queued requests until the log is closed and the queue is empty. The queue is polled in short
+     * slices so that a batch being filled is written promptly once the log is closed, whatever the linger time.
+     */
+    private void writeBatches() {
+        final List<Entry> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                final Entry first = queue.poll(POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Wait up to the linger time for the batch to fill, unless closing.
+                final long deadline = System.nanoTime() + lingerNanos;
+                queue.drainTo(batch, batchSize - batch.size());
+                heldRequests = batch.size();
+                while (batch.size() < batchSize && !closed) {
+                    final long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        break;
+                    }
+                    final Entry next = queue.poll(Math.min(remainingNanos, POLL_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                        queue.drainTo(batch, batchSize - batch.size());
+                        heldRequests = batch.size();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Write what has been taken from the queue and keep writing until closed.
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+                heldRequests = 0;
+            }
+        }
+    }
+
+    /**
+     * Write the given batch of queued requests, completing the entries waiting for them.
+     *
+     * @param batch The queued requests.
+     */
+    private void write(final List<Entry> batch) {
+        final List<DbRequest> requests = new ArrayList<>(batch.size());
+        batch.forEach(entry -> requests.add(entry.request));
+
+        try {
+            writer.accept(requests);
+        } catch (RuntimeException e) {
+            requestsFailed.addAndGet(batch.size());
+            if (mode == Mode.FIRE_AND_FORGET) {
+                LOGGER.log(Level.WARNING, String.format("Cannot write %d requests to the request log", batch.size()), e);
+            }
+            batch.stream().filter(entry -> entry.written != null).forEach(entry -> entry.written.completeExceptionally(e));
+            return;
+        }
+
+        batchesWritten.incrementAndGet();
+        requestsWritten.addAndGet(batch.size());
+        batch.stream().filter(entry -> entry.written != null).forEach(entry -> entry.written.complete(null));
+    }
+
+    /**
+     * How durably appended requests are written.
+     */
+    public enum Mode {
+
+        /**
+         * Each append writes its requests before returning.
+         */
+        SYNC("sync"),
+
+        /**
+         * Requests are queued and group committed, and each append waits for the batch holding its requests to be
+         * written.
+         */
+        BATCHED_ACK("batched-ack"),
+
+        /**
+         * Requests are queued and group committed, and appends return once the requests are queued. Requests which
+         * cannot be written are logged and lost.
+         */
+        FIRE_AND_FORGET("fire-and-forget");
+
+        private final String name;
+
+        Mode(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Get the mode with the given name.
+         *
+         * @param name The name of the mode, as configured.
+         * @return The mode.
+         * @throws IllegalStateException If no mode has the given name.
+         */
+        public static Mode forName(final String name) {
+            for (final Mode mode : values()) {
+                if (mode.name.equals(name)) {
+                    return mode;
+                }
+            }
+            throw new IllegalStateException("Unknown request log mode: " + name);
+        }
+    }
+
+    /**
+     * A queued request, with the future completed when it is written if the append is waiting for it.
+     */
+    private static final class Entry {
+        private final DbRequest request;
+        private final CompletableFuture<Void> written;
+
+        private Entry(final DbRequest request, final CompletableFuture<Void> written) {
+            this.request = request;
+            this.written = written;
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.foomoo.stringstore.store;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects Prometheus metrics of the queue and writes of a {@link RequestLog} when scraped.
+ */
+class RequestLogMetrics extends Collector {
+
+    private final RequestLog requestLog;
+
+    /**
+     * Construct RequestLogMetrics for the given request log.
+     *
+     * @param requestLog The request log.
+     */
+    RequestLogMetrics(final RequestLog requestLog) {
+        this.requestLog = requestLog;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        return Arrays.asList(
+                new GaugeMetricFamily("stringstore_request_log_queue_depth",
+                        "Requests queued to be written to the request log.", requestLog.getQueueDepth()),
+                new GaugeMetricFamily("stringstore_request_log_queue_capacity",
+                        "Maximum number of requests queued to be written to the request log.", requestLog.getQueueCapacity()),
+                new GaugeMetricFamily("stringstore_request_log_max_queue_depth",
+                        "Largest number of requests queued to be written to the request log.", requestLog.getMaxQueueDepth()),
+                new CounterMetricFamily("stringstore_request_log_batches_written",
+                        "Batches of queued requests written to the request log.", requestLog.getBatchesWritten()),
+                new CounterMetricFamily("stringstore_request_log_requests_written",
+                        "Queued requests written to the request log.", requestLog.getRequestsWritten()),
+                new CounterMetricFamily("stringstore_request_log_requests_failed",
+                        "Queued requests which could not be written to the request log.", requestLog.getRequestsFailed()));
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.foomoo.stringstore.store;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index which must exist on a collection in the MongoDB database for the string store queries to perform well.
+ */
+public class RequiredIndex {
+
+    private final String collection;
+    private final Document keys;
+    private final boolean unique;
+
+    /**
+     * Construct a RequiredIndex describing an index on the given collection.
+     *
+     * @param collection The name of the collection.
+     * @param keys       The index keys, in index order, mapped to 1 for ascending or -1 for descending.
+     * @param unique     Whether the index must enforce uniqueness.
+     */
+    public RequiredIndex(final String collection, final Document keys, final boolean unique) {
+        this.collection = collection;
+        this.keys = keys;
+        this.unique = unique;
+    }
+
+    /**
+     * Get the name of the collection the index is required on.
+     *
+     * @return The collection name.
+     */
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * Get the index keys.
+     *
+     * @return The index keys.
+     */
+    public Document getKeys() {
+        return keys;
+    }
+
+    /**
+     * Whether the index must enforce uniqueness.
+     *
+     * @return True if the index is unique, false otherwise.
+     */
+    public boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * Determine whether the given index description, as returned by listing the indexes of a collection, has the same
+     * keys in the same order as this required index.
+     *
+     * @param indexDocument The index description.
+     * @return True if the keys match, false otherwise.
+     */
+    public boolean keysMatch(final Document indexDocument) {
+        final Document indexKeys = (Document) indexDocument.get("key");
+        return indexKeys != null && normaliseKeys(keys).equals(normaliseKeys(indexKeys));
+    }
+
+    /**
+     * Determine whether the given index description, as returned by listing the indexes of a collection, has the same
+     * uniqueness as this required index.
+     *
+     * @param indexDocument The index description.
+     * @return True if the uniqueness matches, false otherwise.
+     */
+    public boolean uniqueMatches(final Document indexDocument) {
+        return unique == indexDocument.getBoolean("unique", false);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s%s", collection, keys.toJson(), unique ? " unique" : "");
+    }
+
+    /**
+     * Convert index keys to an ordered list of field and direction pairs. Index directions may be stored as integers or
+     * doubles depending on the client which created the index, so they are compared by integer value.
+     *
+     * @param keys The index keys.
+     * @return The normalised keys.
+     */
+    private static List<String> normaliseKeys(final Document keys) {
+        final List<String> normalisedKeys = new ArrayList<>();
+        for (final Map.Entry<String, Object> key : keys.entrySet()) {
+            final Object direction = key.getValue();
+            normalisedKeys.add(key.getKey() + ":" + (direction instanceof Number ? ((Number) direction).intValue() : direction));
+        }
+        return normalisedKeys;
+    }
+
+}
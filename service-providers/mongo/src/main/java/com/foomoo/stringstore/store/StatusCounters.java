@@ -0,0 +1,159 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.service.Status;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process counts of the strings and requests stored and of the bytes stored, so that the status of the service can
+ * be reported without counting the documents in each collection on every request.
+ * <p>
+ * The counts are incremented as documents are written by this process, and periodically reconciled with the estimates
+ * held by the database, which also account for documents written by other processes. Counts are never served more
+ * than a maximum staleness after they were last reconciled; a status request finding them older reconciles them first.
+ * Writes made while a reconciliation is in progress may be missed until the next reconciliation.
+ */
+public class StatusCounters {
+
+    private static final Logger LOGGER = Logger.getLogger(StatusCounters.class.getName());
+
+    /**
+     * The value of {@link DbConfiguration#STATUS_MODE} selecting status served from these counts.
+     */
+    public static final String MODE = "cached";
+
+    /**
+     * The counts served as the status when {@link DbConfiguration#STATUS_MODE} is {@value #MODE}, reconciled with the
+     * estimates of {@link MongoStringStoreClient#estimateStatus(boolean)}.
+     */
+    public static final StatusCounters instance = new StatusCounters(DbConfiguration.STATUS_RECONCILE_INTERVAL_MS,
+            DbConfiguration.STATUS_MAX_STALENESS_MS, DbConfiguration.STATUS_STORAGE,
+            () -> MongoStringStoreClient.instance.estimateStatus(DbConfiguration.STATUS_STORAGE));
+
+    private final AtomicLong strings = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    private final long reconcileIntervalMs;
+    private final long maxStalenessNanos;
+    private final boolean reportStoredBytes;
+    private final Supplier<Status> reconciler;
+
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private volatile boolean reconciled;
+    private volatile long reconciledNanos;
+
+    /**
+     * Construct StatusCounters reconciled with the given estimates.
+     *
+     * @param reconcileIntervalMs The interval in milliseconds between reconciliations.
+     * @param maxStalenessMs      The maximum time in milliseconds after a reconciliation for which counts are served.
+     * @param reportStoredBytes   Whether the number of bytes stored is reported.
+     * @param reconciler          Gets the estimated counts held by the database, including the number of bytes stored if
+     *                            reported.
+     */
+    StatusCounters(final long reconcileIntervalMs, final long maxStalenessMs, final boolean reportStoredBytes,
+                   final Supplier<Status> reconciler) {
+        this.reconcileIntervalMs = reconcileIntervalMs;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        this.reportStoredBytes = reportStoredBytes;
+        this.reconciler = reconciler;
+    }
+
+    /**
+     * Get the status of the service from the counts, reconciling them first if they have never been reconciled or were
+     * last reconciled longer ago than the maximum staleness. The first request for the status starts the periodic
+     * reconciliation.
+     *
+     * @return The status of the service.
+     */
+    public Status getStatus() {
+        if (isStale()) {
+            reconcileIfStale();
+        }
+        if (reconcileIntervalMs > 0 && reconciling.compareAndSet(false, true)) {
+            startReconciling();
+        }
+
+        return new Status(strings.get(), requests.get(), reportStoredBytes ? storedBytes.get() : null);
+    }
+
+    /**
+     * Record strings written to the strings collection by this process.
+     *
+     * @param count The number of strings written.
+     * @param bytes The number of bytes of content written.
+     */
+    public void stringsAdded(final long count, final long bytes) {
+        strings.addAndGet(count);
+        storedBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Record requests written to the requests collection by this process.
+     *
+     * @param count The number of requests written.
+     */
+    public void requestsAdded(final long count) {
+        requests.addAndGet(count);
+    }
+
+    /**
+     * Replace the counts with the estimates held by the database.
+     */
+    void reconcile() {
+        final Status estimate = reconciler.get();
+        strings.set(estimate.getStrings());
+        requests.set(estimate.getRequests());
+        if (estimate.getStoredBytes() != null) {
+            storedBytes.set(estimate.getStoredBytes());
+        }
+
+        reconciledNanos = System.nanoTime();
+        reconciled = true;
+    }
+
+    /**
+     * Reconcile the counts unless another request reconciled them while waiting.
+     */
+    private synchronized void reconcileIfStale() {
+        if (isStale()) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Find whether the counts must be reconciled before being served.
+     *
+     * @return Whether the counts are stale.
+     */
+    private boolean isStale() {
+        return !reconciled || System.nanoTime() - reconciledNanos >= maxStalenessNanos;
+    }
+
+    /**
+     * Start reconciling the counts periodically on a daemon thread. Failed reconciliations are logged, leaving the
+     * counts to become stale if the database remains unavailable.
+     */
+    private void startReconciling() {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("status-reconcile-%d").setDaemon(true).build());
+
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Cannot reconcile status counts", e);
+            }
+        }, reconcileIntervalMs, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.foomoo.stringstore.store;
+
+import io.prometheus.client.Histogram;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Prometheus histograms of the latency of the operations of the MongoDB store clients, registered with the default
+ * registry. Each observation costs a few atomic additions, so operations are always timed.
+ */
+final class StoreMetrics {
+
+    private static final Histogram OPERATION_SECONDS = Histogram.build()
+            .name("stringstore_store_operation_seconds")
+            .help("Latency of MongoDB store operations in seconds.")
+            .labelNames("client", "operation")
+            .buckets(0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10)
+            .register();
+
+    private StoreMetrics() {
+    }
+
+    /**
+     * Start timing an operation of the synchronous client. The operation is observed when the timer is closed.
+     *
+     * @param operation The name of the operation.
+     * @return The timer.
+     */
+    static Histogram.Timer startTimer(final String operation) {
+        return OPERATION_SECONDS.labels("sync", operation).startTimer();
+    }
+
+    /**
+     * Time an operation of the asynchronous client, from when it is started until its future completes.
+     *
+     * @param operation The name of the operation.
+     * @param start     Starts the operation.
+     * @param <T>       The type of the result of the operation.
+     * @return The future of the operation.
+     */
+    static <T> CompletableFuture<T> timeAsync(final String operation, final Supplier<CompletableFuture<T>> start) {
+        final Histogram.Timer timer = OPERATION_SECONDS.labels("async", operation).startTimer();
+        final CompletableFuture<T> future = start.get();
+        future.whenComplete((result, throwable) -> timer.observeDuration());
+        return future;
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.service.EncodedContent;
+import com.foomoo.stringstore.service.StringContent;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link StringContent} read from its stored form, which may be encoded by a {@link ContentCodec}, as it is written.
+ * Content is read from the store in the chunks it is stored in, so it is never held in memory as a whole. For content
+ * which is not encoded, the stored bytes preceding a requested range are skipped without being read.
+ */
+class StoredStringContent implements StringContent {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final StoredBytes storedBytes;
+    private final ContentCodec codec;
+    private final long byteLength;
+    private final String hash;
+
+    /**
+     * Construct a StoredStringContent.
+     *
+     * @param storedBytes The stored bytes of the content.
+     * @param codec       The codec which encoded the stored bytes, or null if the stored bytes are UTF-8.
+     * @param byteLength  The length of the content in UTF-8 bytes.
+     * @param hash        The hash of the content as hex, or null if not known.
+     */
+    StoredStringContent(final StoredBytes storedBytes, final ContentCodec codec, final long byteLength, final String hash) {
+        this.storedBytes = storedBytes;
+        this.codec = codec;
+        this.byteLength = byteLength;
+        this.hash = hash;
+    }
+
+    @Override
+    public String getHash() {
+        return hash;
+    }
+
+    @Override
+    public long getByteLength() {
+        return byteLength;
+    }
+
+    @Override
+    public void writeTo(final OutputStream outputStream, final long offset, final long length) throws IOException {
+        try (final InputStream storedStream = storedBytes.open();
+             final InputStream inputStream = codec == null ? storedStream : codec.decodingStream(storedStream)) {
+            long skipped = 0;
+            while (skipped < offset) {
+                final long skip = inputStream.skip(offset - skipped);
+                if (skip <= 0) {
+                    return;
+                }
+                skipped += skip;
+            }
+
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = length;
+            int read;
+            while (remaining > 0 && (read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                outputStream.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    @Override
+    public EncodedContent getEncodedContent() {
+        if (codec == null || codec.getContentCoding() == null) {
+            return null;
+        }
+
+        return new EncodedContent() {
+            @Override
+            public String getContentCoding() {
+                return codec.getContentCoding();
+            }
+
+            @Override
+            public long getLength() throws IOException {
+                return storedBytes.length();
+            }
+
+            @Override
+            public void writeTo(final OutputStream outputStream) throws IOException {
+                try (final InputStream storedStream = storedBytes.open()) {
+                    final byte[] buffer = new byte[BUFFER_SIZE];
+                    int read;
+                    while ((read = storedStream.read(buffer)) != -1) {
+                        outputStream.write(buffer, 0, read);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Get {@link StoredBytes} for the given bytes held in memory.
+     *
+     * @param bytes The stored bytes.
+     * @return The {@link StoredBytes}.
+     */
+    static StoredBytes bytes(final byte[] bytes) {
+        return new StoredBytes() {
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(bytes);
+            }
+
+            @Override
+            public long length() {
+                return bytes.length;
+            }
+        };
+    }
+
+    /**
+     * The bytes of content as stored.
+     */
+    interface StoredBytes {
+
+        /**
+         * Open a stream of the stored bytes.
+         *
+         * @return The stream.
+         * @throws IOException If the stored bytes cannot be read.
+         */
+        InputStream open() throws IOException;
+
+        /**
+         * Get the number of stored bytes.
+         *
+         * @return The number of stored bytes.
+         * @throws IOException If the stored bytes cannot be found.
+         */
+        long length() throws IOException;
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.service.StringNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of strings keyed by string id. Strings are never modified once stored, so cached entries never
+ * need to be invalidated.
+ * <p>
+ * The cache is bounded by the total size in bytes of the cached string content rather than by the number of entries,
+ * and uses Caffeine's W-TinyLFU eviction policy so that a small set of frequently requested strings stays cached while
+ * scans through rarely requested strings pass through.
+ */
+public class StringCache {
+
+    /**
+     * The cache of strings read through {@link MongoStringStoreClient}, bounded by
+     * {@link DbConfiguration#STRING_CACHE_MAX_BYTES}.
+     */
+    public static final StringCache instance = new StringCache(DbConfiguration.STRING_CACHE_MAX_BYTES,
+            id -> MongoStringStoreClient.instance.findStringById(id),
+            ids -> MongoStringStoreClient.instance.findStringsByIds(ids));
+
+    static {
+        new StringCacheMetrics(instance).register();
+    }
+
+    private final Cache<UUID, DbString> cache;
+    private final StringLoader stringLoader;
+    private final Function<UUID[], List<DbString>> stringsLoader;
+
+    /**
+     * Construct a StringCache holding at most the given number of bytes of string content.
+     *
+     * @param maximumBytes  The maximum total size in bytes of the cached string content.
+     * @param stringLoader  Loads a single string on a cache miss.
+     * @param stringsLoader Loads a number of strings on cache misses. Strings that cannot be found are absent from the
+     *                      returned list.
+     */
+    StringCache(final long maximumBytes, final StringLoader stringLoader, final Function<UUID[], List<DbString>> stringsLoader) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(StringCache::weigh)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        this.stringLoader = stringLoader;
+        this.stringsLoader = stringsLoader;
+    }
+
+    /**
+     * Get the string with the given id, loading it from the database if not already cached. Concurrent misses for the
+     * same id wait for a single load. Strings which are not found are not cached.
+     *
+     * @param id The string id.
+     * @return The {@link DbString} for the given id.
+     * @throws StringNotFoundException If no string exists with the given id.
+     */
+    public DbString get(final UUID id) throws StringNotFoundException {
+        try {
+            return cache.get(id, this::load);
+        } catch (NotFoundException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Get the string with the given id if it is already cached, without loading it from the database.
+     *
+     * @param id The string id.
+     * @return The cached {@link DbString}, or null if the string is not cached.
+     */
+    public DbString getIfPresent(final UUID id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Add the given string to the cache, for strings loaded from the database by other means.
+     *
+     * @param dbString The string to cache.
+     */
+    public void put(final DbString dbString) {
+        cache.put(dbString.getId(), dbString);
+    }
+
+    /**
+     * Get the strings with the given ids, loading any that are not already cached from the database with a single
+     * query. Strings that cannot be found are absent from the resulting list.
+     *
+     * @param ids The string ids.
+     * @return The {@link DbString}s found for the given ids.
+     */
+    public List<DbString> getAll(final UUID... ids) {
+        final Map<UUID, DbString> cachedStrings = cache.getAllPresent(Arrays.asList(ids));
+
+        final List<DbString> dbStrings = new ArrayList<>(cachedStrings.values());
+        if (cachedStrings.size() < ids.length) {
+            final UUID[] missingIds = Arrays.stream(ids).filter(id -> !cachedStrings.containsKey(id)).toArray(UUID[]::new);
+            final List<DbString> loadedStrings = stringsLoader.apply(missingIds);
+            loadedStrings.forEach(dbString -> cache.put(dbString.getId(), dbString));
+            dbStrings.addAll(loadedStrings);
+        }
+        return dbStrings;
+    }
+
+    /**
+     * Get the hit, miss and eviction statistics of the cache.
+     *
+     * @return The cache statistics.
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Get the total size in bytes of the string content currently cached.
+     *
+     * @return The cached size in bytes.
+     */
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * Load the string with the given id on a cache miss.
+     *
+     * @param id The string id.
+     * @return The {@link DbString} for the given id.
+     * @throws NotFoundException If no string exists with the given id, so that nothing is cached.
+     */
+    private DbString load(final UUID id) {
+        try {
+            return stringLoader.load(id);
+        } catch (StringNotFoundException e) {
+            throw new NotFoundException(e);
+        }
+    }
+
+    /**
+     * Weigh a cached string by the number of bytes needed to hold its content.
+     *
+     * @param id       The string id.
+     * @param dbString The cached string.
+     * @return The weight of the cached string.
+     */
+    private static int weigh(final UUID id, final DbString dbString) {
+        return dbString.getSize() * Character.BYTES;
+    }
+
+    /**
+     * Carries a {@link StringNotFoundException} out of the cache's mapping function, which cannot throw checked
+     * exceptions.
+     */
+    private static final class NotFoundException extends RuntimeException {
+        private NotFoundException(final StringNotFoundException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized StringNotFoundException getCause() {
+            return (StringNotFoundException) super.getCause();
+        }
+    }
+
+    /**
+     * Loads a string on a cache miss.
+     */
+    @FunctionalInterface
+    interface StringLoader {
+        DbString load(UUID id) throws StringNotFoundException;
+    }
+
+}
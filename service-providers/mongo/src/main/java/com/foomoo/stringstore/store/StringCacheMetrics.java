@@ -0,0 +1,41 @@
+package com.foomoo.stringstore.store;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects Prometheus metrics of the lookups and size of a {@link StringCache} when scraped.
+ */
+class StringCacheMetrics extends Collector {
+
+    private final StringCache stringCache;
+
+    /**
+     * Construct StringCacheMetrics for the given cache.
+     *
+     * @param stringCache The string cache.
+     */
+    StringCacheMetrics(final StringCache stringCache) {
+        this.stringCache = stringCache;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        final CacheStats stats = stringCache.getStats();
+        return Arrays.asList(
+                new CounterMetricFamily("stringstore_string_cache_hits",
+                        "Lookups of strings found in the string cache.", stats.hitCount()),
+                new CounterMetricFamily("stringstore_string_cache_misses",
+                        "Lookups of strings not found in the string cache.", stats.missCount()),
+                new CounterMetricFamily("stringstore_string_cache_evictions",
+                        "Strings evicted from the string cache.", stats.evictionCount()),
+                new GaugeMetricFamily("stringstore_string_cache_bytes",
+                        "Size in bytes of the string content held in the string cache.", stringCache.getWeightedSize()));
+    }
+
+}
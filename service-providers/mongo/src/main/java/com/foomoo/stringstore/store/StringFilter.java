@@ -0,0 +1,138 @@
+package com.foomoo.stringstore.store;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Filter of the sizes and hashes of stored strings, used to skip looking up strings which are definitely new to the
+ * store. The filter is loaded on a background thread by streaming the size and hash of every stored string, and
+ * strings are added to it as they are written or found. Until loaded, no string is definitely new.
+ * <p>
+ * Strings written by other processes since the filter was loaded are missing from the filter, so may wrongly be found
+ * to be new. Writes of new strings rely on the unique size and hash index to detect such strings.
+ */
+public class StringFilter {
+
+    private static final Logger LOGGER = Logger.getLogger(StringFilter.class.getName());
+
+    /**
+     * The filter of the strings stored by {@link MongoStringStoreClient}, used if {@link DbConfiguration#FILTER_ENABLED}.
+     */
+    public static final StringFilter instance = new StringFilter(DbConfiguration.FILTER_ENABLED,
+            DbConfiguration.FILTER_EXPECTED_STRINGS, DbConfiguration.FILTER_FPP,
+            consumer -> MongoStringStoreClient.instance.forEachSizeHash(consumer));
+
+    static {
+        new StringFilterMetrics(instance).register();
+    }
+
+    private final BloomFilter bloomFilter;
+    private volatile boolean loaded;
+
+    /**
+     * Construct a StringFilter, starting to load it if enabled.
+     *
+     * @param enabled         Whether the filter is used. A disabled filter never finds a string to be new.
+     * @param expectedStrings The number of strings the filter is sized for.
+     * @param fpp             The rate at which new strings are not found to be new once the expected number of strings
+     *                        are stored.
+     * @param loader          Passes the size and hash of every stored string to the given consumer.
+     */
+    StringFilter(final boolean enabled, final long expectedStrings, final double fpp,
+                 final Consumer<BiConsumer<Integer, String>> loader) {
+        if (!enabled) {
+            bloomFilter = null;
+            return;
+        }
+
+        bloomFilter = BloomFilter.create(expectedStrings, fpp);
+        new ThreadFactoryBuilder().setNameFormat("string-filter-load-%d").setDaemon(true).build()
+                .newThread(() -> load(loader))
+                .start();
+    }
+
+    /**
+     * Find whether the string with the given size and hash is definitely not stored.
+     *
+     * @param size The size of the string.
+     * @param hash The hash of the string content.
+     * @return True if the string is definitely not stored, false if it might be.
+     */
+    public boolean isDefinitelyAbsent(final int size, final String hash) {
+        return loaded && !bloomFilter.mightContain(size, hash);
+    }
+
+    /**
+     * Add the string with the given size and hash, which has been written or found to be stored.
+     *
+     * @param size The size of the string.
+     * @param hash The hash of the string content.
+     */
+    public void add(final int size, final String hash) {
+        if (bloomFilter != null) {
+            bloomFilter.put(size, hash);
+        }
+    }
+
+    /**
+     * Find whether the filter has been loaded and is in use.
+     *
+     * @return Whether the filter is loaded.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Get the number of strings added to the filter.
+     *
+     * @return The approximate number of strings.
+     */
+    public long getStringCount() {
+        return bloomFilter == null ? 0 : bloomFilter.getInsertions();
+    }
+
+    /**
+     * Get the memory held by the filter.
+     *
+     * @return The size in bytes.
+     */
+    public long getByteSize() {
+        return bloomFilter == null ? 0 : bloomFilter.getBitCount() / Byte.SIZE;
+    }
+
+    /**
+     * Get the rate at which strings which are not stored are expected not to be found to be new, for the number of
+     * strings added to the filter.
+     *
+     * @return The expected false positive rate.
+     */
+    public double getExpectedFpp() {
+        return bloomFilter == null ? 1 : bloomFilter.getExpectedFpp();
+    }
+
+    /**
+     * Load the filter from the stored strings. The filter remains unused if loading fails.
+     *
+     * @param loader Passes the size and hash of every stored string to the given consumer.
+     */
+    private void load(final Consumer<BiConsumer<Integer, String>> loader) {
+        final long start = System.nanoTime();
+        try {
+            loader.accept(bloomFilter::put);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Cannot load string filter", e);
+            return;
+        }
+        loaded = true;
+
+        LOGGER.info(String.format("Loaded %d strings into string filter of %d bytes with %d hash functions in %d ms, expected false positive rate %.4f",
+                getStringCount(), getByteSize(), bloomFilter.getHashCount(), (System.nanoTime() - start) / 1000000,
+                getExpectedFpp()));
+    }
+
+}
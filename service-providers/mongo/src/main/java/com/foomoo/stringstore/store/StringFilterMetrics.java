@@ -0,0 +1,38 @@
+package com.foomoo.stringstore.store;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.GaugeMetricFamily;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects Prometheus metrics of the size and accuracy of a {@link StringFilter} when scraped.
+ */
+class StringFilterMetrics extends Collector {
+
+    private final StringFilter stringFilter;
+
+    /**
+     * Construct StringFilterMetrics for the given filter.
+     *
+     * @param stringFilter The string filter.
+     */
+    StringFilterMetrics(final StringFilter stringFilter) {
+        this.stringFilter = stringFilter;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        return Arrays.asList(
+                new GaugeMetricFamily("stringstore_string_filter_loaded",
+                        "Whether the string filter has been loaded and is in use.", stringFilter.isLoaded() ? 1 : 0),
+                new GaugeMetricFamily("stringstore_string_filter_strings",
+                        "Approximate number of strings added to the string filter.", stringFilter.getStringCount()),
+                new GaugeMetricFamily("stringstore_string_filter_bytes",
+                        "Size in bytes of the string filter.", stringFilter.getByteSize()),
+                new GaugeMetricFamily("stringstore_string_filter_expected_fpp",
+                        "Expected false positive rate of the string filter for the strings added to it.", stringFilter.getExpectedFpp()));
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.foomoo.stringstore.store;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link BloomFilter}
+ */
+public class BloomFilterTest {
+    private static final int STRING_COUNT = 100000;
+    private static final double FPP = 0.01;
+
+    @Test
+    public void addedStringsAreAlwaysFound() {
+        final BloomFilter bloomFilter = BloomFilter.create(STRING_COUNT, FPP);
+
+        for (int i = 0; i < STRING_COUNT; i++) {
+            bloomFilter.put(i, hash(i));
+        }
+
+        for (int i = 0; i < STRING_COUNT; i++) {
+            assertThat(bloomFilter.mightContain(i, hash(i)), Matchers.is(true));
+        }
+    }
+
+    @Test
+    public void falsePositiveRateIsNearExpected() {
+        final BloomFilter bloomFilter = BloomFilter.create(STRING_COUNT, FPP);
+        for (int i = 0; i < STRING_COUNT; i++) {
+            bloomFilter.put(i, hash(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = STRING_COUNT; i < STRING_COUNT * 2; i++) {
+            if (bloomFilter.mightContain(i, hash(i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / STRING_COUNT, Matchers.lessThan(FPP * 1.5));
+        assertThat(bloomFilter.getExpectedFpp(), Matchers.closeTo(FPP, FPP * 0.2));
+    }
+
+    @Test
+    public void sizeDistinguishesStringsWithTheSameHash() {
+        final BloomFilter bloomFilter = BloomFilter.create(STRING_COUNT, FPP);
+
+        bloomFilter.put(1, hash(0));
+
+        assertThat(bloomFilter.mightContain(2, hash(0)), Matchers.is(false));
+    }
+
+    @Test
+    public void filterIsSizedForExpectedStrings() {
+        final BloomFilter bloomFilter = BloomFilter.create(STRING_COUNT, FPP);
+
+        // Around 9.6 bits and 7 hash functions per string for a false positive rate of 1%.
+        assertThat(bloomFilter.getBitCount(), Matchers.allOf(
+                Matchers.greaterThanOrEqualTo(STRING_COUNT * 9L), Matchers.lessThanOrEqualTo(STRING_COUNT * 10L)));
+        assertThat(bloomFilter.getHashCount(), Matchers.equalTo(7));
+    }
+
+    private static String hash(final int i) {
+        return DigestUtils.sha1Hex(Integer.toString(i));
+    }
+
+}
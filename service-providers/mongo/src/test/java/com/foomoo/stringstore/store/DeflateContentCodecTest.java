@@ -0,0 +1,65 @@
+package com.foomoo.stringstore.store;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link DeflateContentCodec}
+ */
+public class DeflateContentCodecTest {
+
+    private static final byte[] TEST_CONTENT = "X:1\nT:Speed the Plough\nM:4/4\nL:1/8\nK:G\n|:GABc dedB|dedB dedB:|\n"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TEST_DICTIONARY = "X:1\nT:\nM:4/4\nL:1/8\nK:G\n".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void decodesEncodedContent() {
+        final DeflateContentCodec codec = new DeflateContentCodec(Deflater.DEFAULT_COMPRESSION, null);
+
+        assertThat(codec.decode(codec.encode(TEST_CONTENT), TEST_CONTENT.length), Matchers.equalTo(TEST_CONTENT));
+    }
+
+    @Test
+    public void encodedContentIsZlibFormat() throws IOException {
+        final DeflateContentCodec codec = new DeflateContentCodec(Deflater.DEFAULT_COMPRESSION, null);
+
+        try (final InputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(codec.encode(TEST_CONTENT)))) {
+            final byte[] decodedBytes = new byte[TEST_CONTENT.length];
+            int decodedLength = 0;
+            int read;
+            while ((read = inputStream.read(decodedBytes, decodedLength, decodedBytes.length - decodedLength)) > 0) {
+                decodedLength += read;
+            }
+            assertThat(decodedBytes, Matchers.equalTo(TEST_CONTENT));
+            assertThat(inputStream.read(), Matchers.equalTo(-1));
+        }
+        assertThat(codec.getContentCoding(), Matchers.equalTo("deflate"));
+    }
+
+    @Test
+    public void decodesContentEncodedWithADictionary() {
+        final DeflateContentCodec codec = new DeflateContentCodec(Deflater.DEFAULT_COMPRESSION, TEST_DICTIONARY);
+        final byte[] encodedBytes = codec.encode(TEST_CONTENT);
+
+        assertThat(codec.decode(encodedBytes, TEST_CONTENT.length), Matchers.equalTo(TEST_CONTENT));
+        assertThat(encodedBytes.length, Matchers.lessThan(new DeflateContentCodec(Deflater.DEFAULT_COMPRESSION, null).encode(TEST_CONTENT).length));
+        assertThat(codec.getContentCoding(), Matchers.nullValue());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void contentEncodedWithADifferentDictionaryIsNotDecoded() {
+        final byte[] encodedBytes = new DeflateContentCodec(Deflater.DEFAULT_COMPRESSION, TEST_DICTIONARY).encode(TEST_CONTENT);
+
+        new DeflateContentCodec(Deflater.DEFAULT_COMPRESSION, "other".getBytes(StandardCharsets.UTF_8)).decode(encodedBytes, TEST_CONTENT.length);
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.foomoo.stringstore.store;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link RequestLog}
+ */
+public class RequestLogTest {
+    private static final long LONG_LINGER_MS = 60 * 1000;
+
+    private final List<List<DbRequest>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void syncAppendWritesImmediately() {
+        final RequestLog requestLog = newRequestLog(RequestLog.Mode.SYNC, 10, LONG_LINGER_MS);
+
+        requestLog.append(newRequest());
+
+        assertThat(batches.size(), Matchers.equalTo(1));
+    }
+
+    @Test
+    public void batchedAckAppendsAreGroupCommitted() throws InterruptedException {
+        final int appends = 8;
+        final RequestLog requestLog = newRequestLog(RequestLog.Mode.BATCHED_ACK, appends, LONG_LINGER_MS);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(appends);
+        final CountDownLatch appended = new CountDownLatch(appends);
+        for (int i = 0; i < appends; i++) {
+            executor.execute(() -> {
+                requestLog.append(newRequest());
+                appended.countDown();
+            });
+        }
+
+        // The batch fills before the linger time elapses, and every append returns once it is written.
+        assertThat(appended.await(10, TimeUnit.SECONDS), Matchers.is(true));
+        assertThat(batches.size(), Matchers.equalTo(1));
+        assertThat(batches.get(0).size(), Matchers.equalTo(appends));
+        executor.shutdown();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void batchedAckAppendFailsWhenNotWritten() {
+        final RequestLog requestLog = new RequestLog(RequestLog.Mode.BATCHED_ACK, 10, 10, 0, requests -> {
+            throw new IllegalStateException("Not written");
+        });
+
+        requestLog.append(newRequest());
+    }
+
+    @Test
+    public void fireAndForgetRequestsAreWrittenOnClose() {
+        final RequestLog requestLog = newRequestLog(RequestLog.Mode.FIRE_AND_FORGET, 100, LONG_LINGER_MS);
+
+        final List<DbRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(newRequest());
+        }
+        requestLog.appendAll(requests);
+        requestLog.close();
+
+        final List<DbRequest> written = new ArrayList<>();
+        batches.forEach(written::addAll);
+        assertThat(written, Matchers.equalTo(requests));
+        assertThat(requestLog.getQueueDepth(), Matchers.equalTo(0));
+        assertThat(requestLog.getRequestsWritten(), Matchers.equalTo(5L));
+    }
+
+    @Test
+    public void closeWritesTheBatchBeingFilled() throws InterruptedException {
+        final RequestLog requestLog = newRequestLog(RequestLog.Mode.FIRE_AND_FORGET, 100, LONG_LINGER_MS);
+
+        requestLog.append(newRequest());
+        // Let the writer take the request and wait for the batch to fill.
+        Thread.sleep(200);
+        final long start = System.nanoTime();
+        requestLog.close();
+
+        assertThat(batches.size(), Matchers.equalTo(1));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Matchers.lessThan(5000L));
+    }
+
+    @Test
+    public void appendAfterCloseWritesImmediately() {
+        final RequestLog requestLog = newRequestLog(RequestLog.Mode.FIRE_AND_FORGET, 100, LONG_LINGER_MS);
+        requestLog.close();
+
+        requestLog.append(newRequest());
+
+        assertThat(batches.size(), Matchers.equalTo(1));
+    }
+
+    @Test
+    public void batchedAckAsyncAppendCompletesOnceWritten() {
+        final RequestLog requestLog = newRequestLog(RequestLog.Mode.BATCHED_ACK, 1, LONG_LINGER_MS);
+
+        requestLog.appendAsync(newRequest()).join();
+
+        assertThat(batches.size(), Matchers.equalTo(1));
+        assertThat(requestLog.getRequestsWritten(), Matchers.equalTo(1L));
+    }
+
+    @Test
+    public void asyncAppendToFullQueueWritesDirectly() throws InterruptedException {
+        final List<List<DbRequest>> directBatches = new CopyOnWriteArrayList<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        final RequestLog requestLog = new RequestLog(RequestLog.Mode.FIRE_AND_FORGET, 1, 1, 0,
+                requests -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    batches.add(new ArrayList<>(requests));
+                },
+                requests -> {
+                    directBatches.add(new ArrayList<>(requests));
+                    return CompletableFuture.completedFuture(null);
+                });
+
+        for (int i = 0; i < 3; i++) {
+            requestLog.appendAsync(newRequest()).join();
+        }
+        release.countDown();
+        requestLog.close();
+
+        final List<DbRequest> written = new ArrayList<>();
+        batches.forEach(written::addAll);
+        directBatches.forEach(written::addAll);
+        assertThat(written.size(), Matchers.equalTo(3));
+        assertThat(directBatches.size(), Matchers.greaterThanOrEqualTo(1));
+    }
+
+    private RequestLog newRequestLog(final RequestLog.Mode mode, final int batchSize, final long lingerMs) {
+        return new RequestLog(mode, 100, batchSize, lingerMs, requests -> batches.add(new ArrayList<>(requests)));
+    }
+
+    private static DbRequest newRequest() {
+        return new DbRequest(UUID.randomUUID(), "user", UUID.randomUUID(), 0);
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.service.Status;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link StatusCounters}
+ */
+public class StatusCountersTest {
+    private static final long NEVER = 0;
+    private static final long ONE_HOUR_MS = 60 * 60 * 1000;
+
+    private final AtomicInteger reconciliations = new AtomicInteger();
+
+    @Test
+    public void firstStatusIsReconciled() {
+        final Status status = newStatusCounters(ONE_HOUR_MS, true).getStatus();
+
+        assertThat(reconciliations.get(), Matchers.equalTo(1));
+        assertThat(status.getStrings(), Matchers.equalTo(10L));
+        assertThat(status.getRequests(), Matchers.equalTo(40L));
+        assertThat(status.getStoredBytes(), Matchers.equalTo(1000L));
+        assertThat(status.getDedupRatio(), Matchers.equalTo(4.0));
+    }
+
+    @Test
+    public void writesAreCountedWithoutReconciling() {
+        final StatusCounters statusCounters = newStatusCounters(ONE_HOUR_MS, true);
+        statusCounters.getStatus();
+
+        statusCounters.stringsAdded(2, 100);
+        statusCounters.requestsAdded(3);
+        final Status status = statusCounters.getStatus();
+
+        assertThat(reconciliations.get(), Matchers.equalTo(1));
+        assertThat(status.getStrings(), Matchers.equalTo(12L));
+        assertThat(status.getRequests(), Matchers.equalTo(43L));
+        assertThat(status.getStoredBytes(), Matchers.equalTo(1100L));
+    }
+
+    @Test
+    public void staleCountsAreReconciled() {
+        final StatusCounters statusCounters = newStatusCounters(NEVER, true);
+        statusCounters.getStatus();
+
+        statusCounters.stringsAdded(2, 100);
+        final Status status = statusCounters.getStatus();
+
+        assertThat(reconciliations.get(), Matchers.equalTo(2));
+        assertThat(status.getStrings(), Matchers.equalTo(10L));
+    }
+
+    @Test
+    public void storedBytesAreOptional() {
+        final Status status = newStatusCounters(ONE_HOUR_MS, false).getStatus();
+
+        assertThat(status.getStoredBytes(), Matchers.nullValue());
+        assertThat(status.getDedupRatio(), Matchers.nullValue());
+    }
+
+    private StatusCounters newStatusCounters(final long maxStalenessMs, final boolean reportStoredBytes) {
+        // Periodic reconciliation is disabled so that only reconciliations made by status requests are counted.
+        return new StatusCounters(0, maxStalenessMs, reportStoredBytes, () -> {
+            reconciliations.incrementAndGet();
+            return new Status(10, 40, reportStoredBytes ? 1000L : null);
+        });
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.foomoo.stringstore.store;
+
+import com.foomoo.stringstore.service.StringNotFoundException;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link StringCache}
+ */
+public class StringCacheTest {
+    private static final String TEST_CONTENT = "content";
+
+    private final Map<UUID, DbString> store = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void repeatedGetLoadsOnce() throws StringNotFoundException {
+        final DbString dbString = storeString();
+        final StringCache stringCache = newStringCache(1024);
+
+        assertThat(stringCache.get(dbString.getId()), Matchers.sameInstance(dbString));
+        assertThat(stringCache.get(dbString.getId()), Matchers.sameInstance(dbString));
+
+        assertThat(loads.get(), Matchers.equalTo(1));
+        assertThat(stringCache.getStats().hitCount(), Matchers.equalTo(1L));
+        assertThat(stringCache.getStats().missCount(), Matchers.equalTo(1L));
+    }
+
+    @Test(expected = StringNotFoundException.class)
+    public void missingStringIsNotFound() throws StringNotFoundException {
+        newStringCache(1024).get(UUID.randomUUID());
+    }
+
+    @Test
+    public void missingStringIsNotCached() {
+        final StringCache stringCache = newStringCache(1024);
+        final UUID id = UUID.randomUUID();
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                stringCache.get(id);
+            } catch (StringNotFoundException e) {
+                // Expected.
+            }
+        }
+
+        assertThat(loads.get(), Matchers.equalTo(2));
+    }
+
+    @Test
+    public void concurrentMissesLoadOnce() throws Exception {
+        final DbString dbString = storeString();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final StringCache stringCache = new StringCache(1024,
+                id -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return store.get(id);
+                },
+                ids -> Collections.emptyList());
+
+        final Callable<DbString> get = () -> {
+            try {
+                return stringCache.get(dbString.getId());
+            } catch (StringNotFoundException e) {
+                throw new AssertionError(e);
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<DbString> first = executor.submit(get);
+            loading.await();
+            final Future<DbString> second = executor.submit(get);
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(first.get(), Matchers.sameInstance(dbString));
+            assertThat(second.get(), Matchers.sameInstance(dbString));
+            assertThat(loads.get(), Matchers.equalTo(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void cacheIsBoundedByContentBytes() throws StringNotFoundException {
+        final int stringBytes = TEST_CONTENT.length() * Character.BYTES;
+        final StringCache stringCache = newStringCache(stringBytes * 2);
+
+        for (int i = 0; i < 10; i++) {
+            stringCache.get(storeString().getId());
+        }
+
+        assertThat(stringCache.getWeightedSize(), Matchers.lessThanOrEqualTo((long) stringBytes * 2));
+        assertThat(stringCache.getStats().evictionCount(), Matchers.greaterThanOrEqualTo(8L));
+    }
+
+    @Test
+    public void getAllLoadsOnlyMissingStrings() throws StringNotFoundException {
+        final DbString cachedString = storeString();
+        final DbString uncachedString = storeString();
+        final StringCache stringCache = newStringCache(1024);
+        stringCache.get(cachedString.getId());
+
+        final List<DbString> dbStrings = stringCache.getAll(cachedString.getId(), uncachedString.getId(), UUID.randomUUID());
+
+        assertThat(dbStrings, Matchers.containsInAnyOrder(cachedString, uncachedString));
+        assertThat(loads.get(), Matchers.equalTo(2));
+    }
+
+    private DbString storeString() {
+        final DbString dbString = new DbString(UUID.randomUUID(), "user", TEST_CONTENT.length(), 0, "hash", TEST_CONTENT);
+        store.put(dbString.getId(), dbString);
+        return dbString;
+    }
+
+    private StringCache newStringCache(final long maximumBytes) {
+        return new StringCache(maximumBytes,
+                id -> {
+                    loads.incrementAndGet();
+                    final DbString dbString = store.get(id);
+                    if (dbString == null) {
+                        throw new StringNotFoundException(id);
+                    }
+                    return dbString;
+                },
+                ids -> {
+                    loads.incrementAndGet();
+                    return Arrays.stream(ids).filter(store::containsKey).map(store::get).collect(Collectors.toList());
+                });
+    }
+
+}
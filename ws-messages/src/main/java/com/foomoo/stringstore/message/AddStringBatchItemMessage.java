@@ -0,0 +1,44 @@
+package com.foomoo.stringstore.message;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One item of a request to add a batch of strings.
+ */
+public class AddStringBatchItemMessage {
+
+    private final String user;
+    private final String content;
+
+    /**
+     * Construct an AddStringBatchItemMessage representing a request by the given user to add the given content.
+     *
+     * @param user    The user making the add request.
+     * @param content The string content to store.
+     */
+    @JsonCreator
+    public AddStringBatchItemMessage(@JsonProperty("user") final String user, @JsonProperty("content") final String content) {
+        this.user = user;
+        this.content = content;
+    }
+
+    /**
+     * Get the user who initiated the add request.
+     *
+     * @return The user.
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Get the string content to store.
+     *
+     * @return The content.
+     */
+    public String getContent() {
+        return content;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.foomoo.stringstore.message;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.UUID;
 
@@ -24,7 +25,8 @@ public class AddStringResultMessage {
      * @param existingString Indicate whether the string already existed in the string store.
      */
     @JsonCreator
-    public AddStringResultMessage(final UUID stringId, final UUID requestId, final String user, final boolean existingString) {
+    public AddStringResultMessage(@JsonProperty("stringId") final UUID stringId, @JsonProperty("requestId") final UUID requestId,
+                                  @JsonProperty("user") final String user, @JsonProperty("existingString") final boolean existingString) {
         this.stringId = stringId;
         this.requestId = requestId;
         this.user = user;
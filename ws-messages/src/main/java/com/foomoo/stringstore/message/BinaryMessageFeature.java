@@ -0,0 +1,24 @@
+package com.foomoo.stringstore.message;
+
+import com.fasterxml.jackson.jaxrs.smile.JacksonSmileProvider;
+
+import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.FeatureContext;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+/**
+ * Feature reading and writing messages in the binary formats of {@link MessageMediaType} with Jackson, using the same
+ * annotations as JSON. The providers use only Jackson's own annotations, so do not need JAXB. Register with a server or
+ * client alongside Jersey's JacksonFeature.
+ */
+public class BinaryMessageFeature implements Feature {
+
+    @Override
+    public boolean configure(final FeatureContext context) {
+        context.register(CborMessageProvider.class, MessageBodyReader.class, MessageBodyWriter.class);
+        context.register(JacksonSmileProvider.class, MessageBodyReader.class, MessageBodyWriter.class);
+        return true;
+    }
+
+}
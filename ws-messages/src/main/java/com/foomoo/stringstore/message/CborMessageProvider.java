@@ -0,0 +1,35 @@
+package com.foomoo.stringstore.message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Reads and writes messages as CBOR with Jackson. Jackson has no JAX-RS provider for CBOR in the version used with
+ * Jersey, so this is Jackson's JSON provider with a CBOR mapper, handling only {@link MessageMediaType#APPLICATION_CBOR}.
+ * Messages use only Jackson's own annotations.
+ */
+@Provider
+@Consumes(MessageMediaType.APPLICATION_CBOR)
+@Produces(MessageMediaType.APPLICATION_CBOR)
+public class CborMessageProvider extends JacksonJsonProvider {
+
+    /**
+     * Construct a CborMessageProvider with a mapper for CBOR, using only Jackson's annotations.
+     */
+    public CborMessageProvider() {
+        super(new ObjectMapper(new CBORFactory()), BASIC_ANNOTATIONS);
+    }
+
+    @Override
+    protected boolean hasMatchingMediaType(final MediaType mediaType) {
+        return mediaType != null && mediaType.isCompatible(MessageMediaType.APPLICATION_CBOR_TYPE)
+                && !mediaType.isWildcardType() && !mediaType.isWildcardSubtype();
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.foomoo.stringstore.message;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Media types of the binary formats that messages can be exchanged in as well as JSON. The binary formats carry the
+ * same fields as JSON, but with UUIDs as 16 bytes and numbers in binary, and are cheaper to write and parse.
+ */
+public final class MessageMediaType {
+
+    /**
+     * Concise Binary Object Representation (RFC 7049).
+     */
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    /**
+     * {@link #APPLICATION_CBOR} as a media type.
+     */
+    public static final MediaType APPLICATION_CBOR_TYPE = MediaType.valueOf(APPLICATION_CBOR);
+
+    /**
+     * Jackson's Smile binary JSON, which also refers back to field names already written in the message.
+     */
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    /**
+     * {@link #APPLICATION_SMILE} as a media type.
+     */
+    public static final MediaType APPLICATION_SMILE_TYPE = MediaType.valueOf(APPLICATION_SMILE);
+
+    private MessageMediaType() {
+    }
+
+}
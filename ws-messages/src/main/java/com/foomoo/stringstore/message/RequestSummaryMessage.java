@@ -1,5 +1,8 @@
 package com.foomoo.stringstore.message;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.util.UUID;
 
 /**
@@ -20,7 +23,9 @@ public class RequestSummaryMessage {
      *                 since the unix epoch).
      * @param user     The user who made the request.
      */
-    public RequestSummaryMessage(final UUID id, final UUID stringId, final long epoch, final String user) {
+    @JsonCreator
+    public RequestSummaryMessage(@JsonProperty("id") final UUID id, @JsonProperty("stringId") final UUID stringId,
+                                 @JsonProperty("epoch") final long epoch, @JsonProperty("user") final String user) {
         this.id = id;
         this.stringId = stringId;
         this.epoch = epoch;
@@ -0,0 +1,75 @@
+package com.foomoo.stringstore.message;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * An operation of the storage service which took longer than the slow operation threshold, with the time taken by
+ * each of its phases.
+ */
+public class SlowOperationMessage {
+
+    private final String operation;
+    private final long epoch;
+    private final long durationNanos;
+    private final Map<String, Long> phaseNanos;
+
+    /**
+     * Construct a SlowOperationMessage.
+     *
+     * @param operation     The name of the operation.
+     * @param epoch         The time that the operation started specified as unix epoch time (the number of
+     *                      milliseconds since the unix epoch).
+     * @param durationNanos The time taken by the operation in nanoseconds.
+     * @param phaseNanos    The time taken by each phase of the operation in nanoseconds, in the order the phases ran.
+     */
+    @JsonCreator
+    public SlowOperationMessage(@JsonProperty("operation") final String operation, @JsonProperty("epoch") final long epoch,
+                                @JsonProperty("durationNanos") final long durationNanos,
+                                @JsonProperty("phaseNanos") final Map<String, Long> phaseNanos) {
+        this.operation = operation;
+        this.epoch = epoch;
+        this.durationNanos = durationNanos;
+        this.phaseNanos = phaseNanos;
+    }
+
+    /**
+     * Get the name of the operation.
+     *
+     * @return The operation name.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * The time that the operation started, specified as unix epoch time (the number of milliseconds since the unix
+     * epoch).
+     *
+     * @return The unix epoch time that the operation started.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Get the time taken by the operation.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Get the time taken by each phase of the operation, in the order the phases ran.
+     *
+     * @return The phase durations in nanoseconds keyed by phase name.
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return phaseNanos;
+    }
+
+}
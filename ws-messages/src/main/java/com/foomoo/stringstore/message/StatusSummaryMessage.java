@@ -1,15 +1,20 @@
 package com.foomoo.stringstore.message;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
- * Object representing the state of the storage service.
+ * Object representing the state of the storage service. The dedup ratio and number of bytes stored are optional, and
+ * omitted when not reported.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class StatusSummaryMessage {
 
     private final long strings;
     private final long requests;
+    private final Double dedupRatio;
+    private final Long storedBytes;
 
     /**
      * Construct a StatusSummaryMessage object representing the state of the storage service with the given number of
@@ -18,10 +23,27 @@ public class StatusSummaryMessage {
      * @param strings  The number of strings stored by the service.
      * @param requests The number of requests to store strings received by the service.
      */
+    public StatusSummaryMessage(final long strings, final long requests) {
+        this(strings, requests, null, null);
+    }
+
+    /**
+     * Construct a StatusSummaryMessage object representing the state of the storage service with the given number of
+     * strings and requests, dedup ratio and number of bytes stored.
+     *
+     * @param strings     The number of strings stored by the service.
+     * @param requests    The number of requests to store strings received by the service.
+     * @param dedupRatio  The ratio of requests to strings stored, or null if not reported.
+     * @param storedBytes The number of bytes stored by the service, or null if not reported.
+     */
     @JsonCreator
-    public StatusSummaryMessage(@JsonProperty("strings") final long strings, @JsonProperty("requests") final long requests) {
+    public StatusSummaryMessage(@JsonProperty("strings") final long strings, @JsonProperty("requests") final long requests,
+                                @JsonProperty("dedupRatio") final Double dedupRatio,
+                                @JsonProperty("storedBytes") final Long storedBytes) {
         this.strings = strings;
         this.requests = requests;
+        this.dedupRatio = dedupRatio;
+        this.storedBytes = storedBytes;
     }
 
     /**
@@ -42,4 +64,22 @@ public class StatusSummaryMessage {
         return requests;
     }
 
+    /**
+     * Get the ratio of requests to store strings to strings stored by the storage service.
+     *
+     * @return The ratio, or null if not reported.
+     */
+    public Double getDedupRatio() {
+        return dedupRatio;
+    }
+
+    /**
+     * Get the number of bytes stored by the storage service.
+     *
+     * @return The number of bytes, or null if not reported.
+     */
+    public Long getStoredBytes() {
+        return storedBytes;
+    }
+
 }
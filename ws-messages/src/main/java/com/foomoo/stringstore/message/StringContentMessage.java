@@ -0,0 +1,45 @@
+package com.foomoo.stringstore.message;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+/**
+ * Content of a stored string.
+ */
+public class StringContentMessage {
+    private final UUID id;
+    private final String content;
+
+    /**
+     * Construct a StringContentMessage holding the content of a string in storage.
+     *
+     * @param id      The string id.
+     * @param content The string content.
+     */
+    @JsonCreator
+    public StringContentMessage(@JsonProperty("id") final UUID id, @JsonProperty("content") final String content) {
+        this.id = id;
+        this.content = content;
+    }
+
+    /**
+     * Get the string id.
+     *
+     * @return The string id.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Get the string content.
+     *
+     * @return The string content.
+     */
+    public String getContent() {
+        return content;
+    }
+
+}
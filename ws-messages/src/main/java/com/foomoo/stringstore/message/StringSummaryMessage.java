@@ -1,5 +1,8 @@
 package com.foomoo.stringstore.message;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.util.UUID;
 
 /**
@@ -18,7 +21,9 @@ public class StringSummaryMessage {
      *                      milliseconds since the unix epoch).
      * @param size          The size of the string in storage.
      */
-    public StringSummaryMessage(final UUID id, final long creationEpoch, final int size) {
+    @JsonCreator
+    public StringSummaryMessage(@JsonProperty("id") final UUID id, @JsonProperty("creationEpoch") final long creationEpoch,
+                                @JsonProperty("size") final int size) {
         this.id = id;
         this.creationEpoch = creationEpoch;
         this.size = size;
@@ -0,0 +1,46 @@
+package com.foomoo.stringstore.message;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * A page of summaries from the listing of all stored strings.
+ */
+public class StringSummaryPageMessage {
+    private final List<StringSummaryMessage> summaries;
+    private final String nextPageToken;
+
+    /**
+     * Construct a StringSummaryPageMessage holding the given summaries.
+     *
+     * @param summaries     The summaries of the strings in the page.
+     * @param nextPageToken The token to request the next page with, or null if this is the last page.
+     */
+    @JsonCreator
+    public StringSummaryPageMessage(@JsonProperty("summaries") final List<StringSummaryMessage> summaries,
+                                    @JsonProperty("nextPageToken") final String nextPageToken) {
+        this.summaries = summaries;
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Get the summaries of the strings in the page.
+     *
+     * @return The string summaries.
+     */
+    public List<StringSummaryMessage> getSummaries() {
+        return summaries;
+    }
+
+    /**
+     * Get the token to request the next page with.
+     *
+     * @return The next page token, or null if this is the last page.
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+}
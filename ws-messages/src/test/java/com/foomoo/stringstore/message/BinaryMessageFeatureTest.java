@@ -0,0 +1,116 @@
+package com.foomoo.stringstore.message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.jaxrs.base.ProviderBase;
+import com.fasterxml.jackson.jaxrs.smile.JacksonSmileProvider;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for the providers registered by {@link BinaryMessageFeature}
+ */
+public class BinaryMessageFeatureTest {
+
+    private static final UUID TEST_STRING_ID = UUID.randomUUID();
+    private static final UUID TEST_REQUEST_ID = UUID.randomUUID();
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private final CborMessageProvider cborProvider = new CborMessageProvider();
+    private final JacksonSmileProvider smileProvider = new JacksonSmileProvider();
+
+    @Test
+    public void roundTripsStringSummaryInCbor() throws Exception {
+        final StringSummaryMessage message = roundTrip(new StringSummaryMessage(TEST_STRING_ID, 1234L, 56),
+                StringSummaryMessage.class, StringSummaryMessage.class, MessageMediaType.APPLICATION_CBOR_TYPE);
+
+        assertThat(message.getId(), Matchers.equalTo(TEST_STRING_ID));
+        assertThat(message.getCreationEpoch(), Matchers.equalTo(1234L));
+        assertThat(message.getSize(), Matchers.equalTo(56));
+    }
+
+    @Test
+    public void roundTripsRequestSummariesInSmile() throws Exception {
+        final List<RequestSummaryMessage> messages = roundTrip(
+                Arrays.asList(new RequestSummaryMessage(TEST_REQUEST_ID, TEST_STRING_ID, 1234L, "user")),
+                List.class, new GenericType<List<RequestSummaryMessage>>() {
+                }.getType(), MessageMediaType.APPLICATION_SMILE_TYPE);
+
+        assertThat(messages, Matchers.hasSize(1));
+        assertThat(messages.get(0).getId(), Matchers.equalTo(TEST_REQUEST_ID));
+        assertThat(messages.get(0).getStringId(), Matchers.equalTo(TEST_STRING_ID));
+        assertThat(messages.get(0).getUser(), Matchers.equalTo("user"));
+    }
+
+    @Test
+    public void roundTripsAddStringResultInCbor() throws Exception {
+        final AddStringResultMessage message = roundTrip(new AddStringResultMessage(TEST_STRING_ID, TEST_REQUEST_ID, "user", true),
+                AddStringResultMessage.class, AddStringResultMessage.class, MessageMediaType.APPLICATION_CBOR_TYPE);
+
+        assertThat(message.getStringId(), Matchers.equalTo(TEST_STRING_ID));
+        assertThat(message.getRequestId(), Matchers.equalTo(TEST_REQUEST_ID));
+        assertThat(message.isExistingString(), Matchers.equalTo(true));
+    }
+
+    @Test
+    public void roundTripsStatusSummaryInSmile() throws Exception {
+        final StatusSummaryMessage message = roundTrip(new StatusSummaryMessage(1L, 2L),
+                StatusSummaryMessage.class, StatusSummaryMessage.class, MessageMediaType.APPLICATION_SMILE_TYPE);
+
+        assertThat(message.getStrings(), Matchers.equalTo(1L));
+        assertThat(message.getRequests(), Matchers.equalTo(2L));
+        assertThat(message.getStoredBytes(), Matchers.nullValue());
+    }
+
+    @Test
+    public void cborIsSmallerThanJson() throws Exception {
+        final StringSummaryMessage message = new StringSummaryMessage(TEST_STRING_ID, System.currentTimeMillis(), 1000);
+
+        final byte[] cbor = write(message, StringSummaryMessage.class, MessageMediaType.APPLICATION_CBOR_TYPE);
+
+        assertThat(cbor.length, Matchers.lessThan(new ObjectMapper().writeValueAsBytes(message).length));
+    }
+
+    @Test
+    public void cborProviderOnlyHandlesCbor() {
+        assertThat(cborProvider.isWriteable(StringSummaryMessage.class, StringSummaryMessage.class, NO_ANNOTATIONS,
+                MediaType.APPLICATION_JSON_TYPE), Matchers.equalTo(false));
+        assertThat(cborProvider.isWriteable(StringSummaryMessage.class, StringSummaryMessage.class, NO_ANNOTATIONS,
+                MediaType.WILDCARD_TYPE), Matchers.equalTo(false));
+        assertThat(cborProvider.isReadable(StringSummaryMessage.class, StringSummaryMessage.class, NO_ANNOTATIONS,
+                MediaType.valueOf("application/cbor; charset=UTF-8")), Matchers.equalTo(true));
+    }
+
+    private ProviderBase<?, ?, ?, ?> providerFor(final MediaType mediaType) {
+        return mediaType.equals(MessageMediaType.APPLICATION_CBOR_TYPE) ? cborProvider : smileProvider;
+    }
+
+    private byte[] write(final Object message, final Type type, final MediaType mediaType) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        providerFor(mediaType).writeTo(message, message.getClass(), type, NO_ANNOTATIONS, mediaType,
+                new MultivaluedHashMap<>(), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T roundTrip(final Object message, final Class<?> rawType, final Type type, final MediaType mediaType)
+            throws IOException {
+        final byte[] bytes = write(message, type, mediaType);
+        return (T) providerFor(mediaType).readFrom((Class<Object>) rawType, type, NO_ANNOTATIONS, mediaType,
+                new MultivaluedHashMap<>(), new ByteArrayInputStream(bytes));
+    }
+
+}
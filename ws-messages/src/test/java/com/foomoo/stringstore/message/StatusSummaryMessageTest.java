@@ -54,6 +54,22 @@ public class StatusSummaryMessageTest {
     }
 
 
+    @Test
+    public void serializedOmitsUnreportedStorage() {
+        final JsonNode jsonNode = objectToJsonNode(TEST_STATUS_SUMMARY);
+
+        assertThat(jsonNode.has("dedupRatio"), Matchers.is(false));
+        assertThat(jsonNode.has("storedBytes"), Matchers.is(false));
+    }
+
+    @Test
+    public void serializedIncludesReportedStorage() {
+        final JsonNode jsonNode = objectToJsonNode(new StatusSummaryMessage(TEST_STRINGS_COUNT, TEST_REQUESTS_COUNT, 2.0, 1024L));
+
+        assertThat(jsonNode.get("dedupRatio").asDouble(), Matchers.equalTo(2.0));
+        assertThat(jsonNode.get("storedBytes").asLong(), Matchers.equalTo(1024L));
+    }
+
     private JsonNode objectToJsonNode(final Object object) {
         final ObjectMapper mapper = new ObjectMapper();
         try {